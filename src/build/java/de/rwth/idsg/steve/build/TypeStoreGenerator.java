@@ -0,0 +1,178 @@
+package de.rwth.idsg.steve.build;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Generates the maps of the TypeStores (action <-> request class <-> response class) at build time, such that the
+ * application does not have to scan the classpath for the JAXB classes at startup.
+ *
+ * Runs in the generate-sources phase, before anything of the project is compiled. Therefore, it must not depend on
+ * classes of the project and is started as a single source file (see pom.xml). The only argument is the output
+ * directory.
+ *
+ * @since 18.10.2026
+ */
+public final class TypeStoreGenerator {
+
+    private static final String REQUEST_TYPE = "de.rwth.idsg.ocpp.jaxb.RequestType";
+    private static final String RESPONSE_TYPE = "de.rwth.idsg.ocpp.jaxb.ResponseType";
+
+    private static final String REQUEST_CLASS_SUFFIX = "Request";
+    private static final String RESPONSE_CLASS_SUFFIX = "Response";
+
+    /**
+     * Target package, class name prefix, package of incoming requests, package of outgoing requests
+     */
+    private static final String[][] VERSIONS = {
+            {"de.rwth.idsg.steve.ocpp.ws.ocpp12", "Ocpp12", "ocpp.cs._2010._08", "ocpp.cp._2010._08"},
+            {"de.rwth.idsg.steve.ocpp.ws.ocpp15", "Ocpp15", "ocpp.cs._2012._06", "ocpp.cp._2012._06"},
+            {"de.rwth.idsg.steve.ocpp.ws.ocpp16", "Ocpp16", "ocpp.cs._2015._10", "ocpp.cp._2015._10"},
+    };
+
+    private TypeStoreGenerator() { }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: TypeStoreGenerator <output directory>");
+        }
+
+        Path outputDir = Paths.get(args[0]);
+        for (String[] version : VERSIONS) {
+            generate(outputDir, version[0], version[1], version[2], version[3]);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private static void generate(Path outputDir, String targetPackage, String prefix,
+                                 String incomingPackage, String outgoingPackage) throws Exception {
+        // action -> request class
+        Map<String, String> requestClasses = new TreeMap<>();
+        for (Class<?> clazz : getClassesWithInterface(incomingPackage, REQUEST_TYPE).values()) {
+            requestClasses.put(getAction(clazz), clazz.getCanonicalName());
+        }
+
+        // request class -> action, response class
+        Map<String, String[]> actionResponses = new TreeMap<>();
+        Map<String, Class<?>> responseClasses = getClassesWithInterface(outgoingPackage, RESPONSE_TYPE);
+        for (Class<?> requestClass : getClassesWithInterface(outgoingPackage, REQUEST_TYPE).values()) {
+            String action = getAction(requestClass);
+            Class<?> responseClass = responseClasses.get(action + RESPONSE_CLASS_SUFFIX);
+            if (responseClass == null) {
+                throw new IllegalStateException("No response class for " + requestClass.getName());
+            }
+            actionResponses.put(requestClass.getCanonicalName(),
+                    new String[] {action, responseClass.getCanonicalName()});
+        }
+
+        String className = prefix + "TypeStoreMaps";
+        List<String> lines = new ArrayList<>();
+        lines.add("package " + targetPackage + ";");
+        lines.add("");
+        lines.add("import com.google.common.collect.ImmutableMap;");
+        lines.add("import de.rwth.idsg.ocpp.jaxb.RequestType;");
+        lines.add("import de.rwth.idsg.steve.ocpp.ws.data.ActionResponsePair;");
+        lines.add("");
+        lines.add("import java.util.Map;");
+        lines.add("");
+        lines.add("/**");
+        lines.add(" * Generated by " + TypeStoreGenerator.class.getName() + ". Do not edit.");
+        lines.add(" */");
+        lines.add("public final class " + className + " {");
+        lines.add("");
+        lines.add("    private " + className + "() { }");
+        lines.add("");
+        lines.add("    public static final Map<String, Class<? extends RequestType>> REQUEST_CLASSES =");
+        lines.add("            ImmutableMap.<String, Class<? extends RequestType>>builder()");
+        requestClasses.forEach((action, clazz) ->
+                lines.add("                    .put(\"" + action + "\", " + clazz + ".class)"));
+        lines.add("                    .build();");
+        lines.add("");
+        lines.add("    public static final Map<Class<? extends RequestType>, ActionResponsePair> ACTION_RESPONSES =");
+        lines.add("            ImmutableMap.<Class<? extends RequestType>, ActionResponsePair>builder()");
+        actionResponses.forEach((clazz, pair) ->
+                lines.add("                    .put(" + clazz + ".class, new ActionResponsePair(\"" + pair[0] + "\", "
+                        + pair[1] + ".class))"));
+        lines.add("                    .build();");
+        lines.add("}");
+
+        Path dir = outputDir.resolve(targetPackage.replace('.', '/'));
+        Files.createDirectories(dir);
+        Files.write(dir.resolve(className + ".java"), lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Same as the classpath scan that the TypeStores did at startup: top-level classes of the package, which implement
+     * the interface.
+     *
+     * @return <simple name of class, class>
+     */
+    private static Map<String, Class<?>> getClassesWithInterface(String packageName, String interfaceName)
+            throws Exception {
+        ClassLoader loader = TypeStoreGenerator.class.getClassLoader();
+        Class<?> interfaceClass = Class.forName(interfaceName, false, loader);
+
+        Map<String, Class<?>> map = new TreeMap<>();
+        for (String className : getTopLevelClassNames(packageName, loader)) {
+            Class<?> clazz = Class.forName(className, false, loader);
+            if (interfaceClass.isAssignableFrom(clazz)) {
+                map.put(clazz.getSimpleName(), clazz);
+            }
+        }
+        return map;
+    }
+
+    private static List<String> getTopLevelClassNames(String packageName, ClassLoader loader)
+            throws IOException, URISyntaxException, ClassNotFoundException {
+        // Every JAXB package has an ObjectFactory, which tells us where the package is located
+        Class<?> objectFactory = Class.forName(packageName + ".ObjectFactory", false, loader);
+        Path location = Paths.get(objectFactory.getProtectionDomain().getCodeSource().getLocation().toURI());
+        String packagePath = packageName.replace('.', '/') + "/";
+
+        List<String> entries = new ArrayList<>();
+        if (Files.isDirectory(location)) {
+            try (Stream<Path> files = Files.list(location.resolve(packagePath))) {
+                entries.addAll(files.map(f -> packagePath + f.getFileName()).collect(Collectors.toList()));
+            }
+        } else {
+            try (JarFile jar = new JarFile(location.toFile())) {
+                Enumeration<JarEntry> e = jar.entries();
+                while (e.hasMoreElements()) {
+                    entries.add(e.nextElement().getName());
+                }
+            }
+        }
+
+        return entries.stream()
+                      .filter(name -> name.startsWith(packagePath) && name.endsWith(".class"))
+                      .map(name -> name.substring(packagePath.length(), name.length() - ".class".length()))
+                      .filter(name -> !name.contains("/") && !name.contains("$"))
+                      .map(name -> packageName + "." + name)
+                      .sorted()
+                      .collect(Collectors.toList());
+    }
+
+    private static String getAction(Class<?> clazz) {
+        String s = clazz.getSimpleName();
+        if (s.endsWith(REQUEST_CLASS_SUFFIX)) {
+            s = s.substring(0, s.length() - REQUEST_CLASS_SUFFIX.length());
+        }
+        return s;
+    }
+}
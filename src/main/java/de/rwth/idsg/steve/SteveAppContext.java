@@ -88,6 +88,9 @@ public class SteveAppContext {
         ServletHolder web = new ServletHolder("spring-dispatcher", new DispatcherServlet(springContext));
         ServletHolder cxf = new ServletHolder("cxf", new CXFServlet());
 
+        // For the server-sent events of the task progress
+        web.setAsyncSupported(true);
+
         ctx.addEventListener(new ContextLoaderListener(springContext));
         ctx.addServlet(web, CONFIG.getSpringMapping());
         ctx.addServlet(cxf, CONFIG.getCxfMapping());
@@ -104,8 +107,11 @@ public class SteveAppContext {
         // The bean name is not arbitrary, but is as expected by Spring
         Filter f = new DelegatingFilterProxy(AbstractSecurityWebApplicationInitializer.DEFAULT_FILTER_NAME);
 
+        FilterHolder holder = new FilterHolder(f);
+        holder.setAsyncSupported(true);
+
         ctx.addFilter(
-                new FilterHolder(f),
+                holder,
                 CONFIG.getSpringManagerMapping(),
                 EnumSet.allOf(DispatcherType.class)
         );
@@ -1,5 +1,7 @@
 package de.rwth.idsg.steve;
 
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableMap;
 import de.rwth.idsg.steve.ocpp.ws.custom.WsSessionSelectStrategy;
 import de.rwth.idsg.steve.ocpp.ws.custom.WsSessionSelectStrategyEnum;
 import de.rwth.idsg.steve.utils.PropertiesFileLoader;
@@ -8,6 +10,9 @@ import lombok.Getter;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * @author Sevket Goekay <goekay@dbis.rwth-aachen.de>
  * @since 19.08.2014
@@ -66,6 +71,17 @@ public enum SteveConfiguration {
                .userName(p.getString("db.user"))
                .password(p.getString("db.password"))
                .sqlLogging(p.getBoolean("db.sql.logging"))
+               .heartbeatFlushIntervalInSeconds(p.getOptionalInt("db.heartbeat.flush.interval", 30))
+               .meterValuesAsync(p.getOptionalBoolean("db.meter.values.async", false))
+               .meterValuesQueueCapacity(p.getOptionalInt("db.meter.values.queue.capacity", 10_000))
+               .meterValuesRejectWhenFull(p.getOptionalBoolean("db.meter.values.queue.reject.when.full", false))
+               .meterValuesWriterThreads(p.getOptionalInt("db.meter.values.writer.threads", 2))
+               .meterValuesBatchSize(p.getOptionalInt("db.meter.values.batch.size", 500))
+               .partitionEnabled(p.getOptionalBoolean("db.partition.enabled", false))
+               .partitionRetentionInMonths(p.getOptionalInt("db.partition.retention.months", 0))
+               .partitionPrecreateMonths(p.getOptionalInt("db.partition.precreate.months", 3))
+               .partitionArchive(p.getOptionalBoolean("db.partition.archive", false))
+               .partitionClockSkewInHours(p.getOptionalInt("db.partition.clock.skew", 24))
                .build();
 
         PasswordEncoder encoder = new BCryptPasswordEncoder();
@@ -80,6 +96,23 @@ public enum SteveConfiguration {
                    .autoRegisterUnknownStations(p.getOptionalBoolean("auto.register.unknown.stations"))
                    .wsSessionSelectStrategy(
                            WsSessionSelectStrategyEnum.fromName(p.getString("ws.session.select.strategy")))
+                   .registrationCacheTtlInSeconds(p.getOptionalInt("registration.cache.ttl", 300))
+                   .registrationCacheMaxSize(p.getOptionalInt("registration.cache.max.size", 100_000))
+                   .ocppTagActivityCacheTtlInSeconds(p.getOptionalInt("ocpp.tag.activity.cache.ttl", 600))
+                   .ocppTagActivityCacheMaxSize(p.getOptionalInt("ocpp.tag.activity.cache.max.size", 100_000))
+                   .wsMaxMissedPongs(p.getOptionalInt("ws.max.missed.pongs", 2))
+                   .wsCallTimeoutInSeconds(p.getOptionalInt("ws.call.timeout", 60))
+                   .wsCallTimeoutInSecondsPerAction(parseActionTimeouts(p.getStringList("ws.call.timeout.per.action")))
+                   .wsOutgoingQueueCapacity(p.getOptionalInt("ws.outgoing.queue.capacity", 100))
+                   .wsIncomingOffload(p.getOptionalBoolean("ws.incoming.offload", false))
+                   .wsIncomingMailboxCapacity(p.getOptionalInt("ws.incoming.mailbox.capacity", 100))
+                   .operationConcurrency(p.getOptionalInt("operation.concurrency", 10))
+                   .operationDeadlineInSeconds(p.getOptionalInt("operation.deadline", 120))
+                   .taskStoreMaxSize(p.getOptionalInt("task.store.max.size", 1000))
+                   .taskStoreMaxAgeInMinutes(p.getOptionalInt("task.store.max.age", 1440))
+                   .taskStorePersist(p.getOptionalBoolean("task.store.persist", false))
+                   .taskHistoryMaxSize(p.getOptionalInt("task.history.max.size", 100000))
+                   .taskHistoryMaxAgeInDays(p.getOptionalInt("task.history.max.age", 30))
                    .build();
 
         validate();
@@ -105,6 +138,21 @@ public enum SteveConfiguration {
         }
     }
 
+    /**
+     * Entries are of the form: Action=seconds
+     */
+    private static Map<String, Integer> parseActionTimeouts(List<String> entries) {
+        ImmutableMap.Builder<String, Integer> builder = ImmutableMap.builder();
+        for (String entry : entries) {
+            List<String> parts = Splitter.on('=').trimResults().splitToList(entry);
+            if (parts.size() != 2) {
+                throw new IllegalArgumentException("Invalid call timeout '" + entry + "'. Expected: Action=seconds");
+            }
+            builder.put(parts.get(0), Integer.parseInt(parts.get(1)));
+        }
+        return builder.build();
+    }
+
     private String sanitizeContextPath(String s) {
         if (s == null || "/".equals(s)) {
             return "";
@@ -154,6 +202,25 @@ public enum SteveConfiguration {
         private final String userName;
         private final String password;
         private final boolean sqlLogging;
+
+        // 0 disables coalescing, i.e. every heartbeat is written to DB immediately
+        private final int heartbeatFlushIntervalInSeconds;
+
+        // Asynchronous ingest of MeterValues messages
+        private final boolean meterValuesAsync;
+        private final int meterValuesQueueCapacity;
+        private final boolean meterValuesRejectWhenFull;
+        private final int meterValuesWriterThreads;
+        private final int meterValuesBatchSize;
+
+        // Monthly partitions of CONNECTOR_METER_VALUE and CONNECTOR_STATUS. 0 retention keeps all data
+        private final boolean partitionEnabled;
+        private final int partitionRetentionInMonths;
+        private final int partitionPrecreateMonths;
+        private final boolean partitionArchive;
+
+        // Meter values of a transaction are looked for this long before its start. 0 disables the bound
+        private final int partitionClockSkewInHours;
     }
 
     // Credentials for Web interface access
@@ -169,6 +236,51 @@ public enum SteveConfiguration {
     public static class Ocpp {
         private final boolean autoRegisterUnknownStations;
         private final WsSessionSelectStrategy wsSessionSelectStrategy;
+
+        // 0 disables the cache, i.e. every registration lookup goes to DB
+        private final int registrationCacheTtlInSeconds;
+        private final int registrationCacheMaxSize;
+
+        // 0 disables the cache, i.e. every authorization decision reads the tag activity from DB
+        private final int ocppTagActivityCacheTtlInSeconds;
+        private final int ocppTagActivityCacheMaxSize;
+
+        // 0 disables closing sessions that do not answer pings
+        private final int wsMaxMissedPongs;
+
+        // How long to wait for the response to an outgoing call, before it is failed
+        private final int wsCallTimeoutInSeconds;
+        private final Map<String, Integer> wsCallTimeoutInSecondsPerAction;
+
+        // Maximum number of outgoing calls that wait for their turn, per station
+        private final int wsOutgoingQueueCapacity;
+
+        // Process incoming messages on a separate pool instead of the Jetty thread that read them
+        private final boolean wsIncomingOffload;
+
+        // Maximum number of incoming messages that wait for processing, per session, before reading is suspended
+        private final int wsIncomingMailboxCapacity;
+
+        // Maximum number of stations that an operation sends its request to at the same time
+        private final int operationConcurrency;
+
+        // 0 disables the deadline, i.e. the result of a station is awaited as long as the transport does
+        private final int operationDeadlineInSeconds;
+
+        // Maximum number of tasks in memory. Unfinished tasks are never evicted, so this might be exceeded
+        private final int taskStoreMaxSize;
+
+        // Finished tasks are evicted from memory after this duration
+        private final int taskStoreMaxAgeInMinutes;
+
+        // Write finished tasks to the database
+        private final boolean taskStorePersist;
+
+        // Maximum number of tasks in the database, if persistence is enabled
+        private final int taskHistoryMaxSize;
+
+        // Tasks are deleted from the database after this duration
+        private final int taskHistoryMaxAgeInDays;
     }
 
 }
@@ -10,6 +10,7 @@ import de.rwth.idsg.steve.service.GithubReleaseCheckService;
 import de.rwth.idsg.steve.service.ReleaseCheckService;
 import de.rwth.idsg.steve.utils.DateTimeUtils;
 import de.rwth.idsg.steve.utils.InternetChecker;
+import de.rwth.idsg.steve.utils.MonitoredThreadPoolExecutor;
 import lombok.extern.slf4j.Slf4j;
 import org.jooq.DSLContext;
 import org.jooq.SQLDialect;
@@ -20,9 +21,11 @@ import org.jooq.impl.DefaultConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableMBeanExport;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.core.Ordered;
+import org.springframework.jmx.support.RegistrationPolicy;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
@@ -33,10 +36,13 @@ import org.springframework.web.servlet.view.InternalResourceViewResolver;
 
 import javax.annotation.PreDestroy;
 import javax.validation.Validator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import static de.rwth.idsg.steve.SteveConfiguration.CONFIG;
@@ -51,11 +57,13 @@ import static de.rwth.idsg.steve.SteveConfiguration.CONFIG;
 @Configuration
 @EnableWebMvc
 @EnableScheduling
+@EnableMBeanExport(registration = RegistrationPolicy.REPLACE_EXISTING)
 @ComponentScan("de.rwth.idsg.steve")
 public class BeanConfiguration implements WebMvcConfigurer {
 
     private HikariDataSource dataSource;
     private ScheduledThreadPoolExecutor executor;
+    private final List<ExecutorService> boundedExecutors = new CopyOnWriteArrayList<>();
 
     /**
      * https://github.com/brettwooldridge/HikariCP/wiki/MySQL-Configuration
@@ -96,7 +104,9 @@ public class BeanConfiguration implements WebMvcConfigurer {
      */
     @Bean
     public DSLContext dslContext() {
-        initDataSource();
+        if (dataSource == null) {
+            initDataSource();
+        }
 
         Settings settings = new Settings()
                 // Normally, the records are "attached" to the Configuration that created (i.e. fetch/insert) them.
@@ -116,15 +126,97 @@ public class BeanConfiguration implements WebMvcConfigurer {
         return DSL.using(conf);
     }
 
+    /**
+     * Only for scheduling periodic or delayed tasks, which must be short. Long running work should be handed over to
+     * one of the executors below, so that it cannot delay the others (e.g. WebSocket pings).
+     */
     @Bean
     public ScheduledExecutorService scheduledExecutorService() {
-        ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("SteVe-Executor-%d")
+        ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("SteVe-Scheduler-%d")
                                                                 .build();
 
         executor = new ScheduledThreadPoolExecutor(5, threadFactory);
+        // Timeouts of outgoing calls are cancelled when the response arrives. Do not keep them until they are due
+        executor.setRemoveOnCancelPolicy(true);
         return executor;
     }
 
+    /**
+     * Sends the requests of operations (e.g. ChangeConfiguration) to single stations, and the queued calls whose
+     * turn it is (see OutgoingCallQueue). The callers are HTTP threads or threads that process incoming messages, so
+     * they must not send the request themselves. When the queue is full, the request is rejected and fails.
+     */
+    @Bean
+    public ExecutorService operationExecutor() {
+        return register(new MonitoredThreadPoolExecutor("Operation", 10, 1_000,
+                new ThreadPoolExecutor.AbortPolicy()));
+    }
+
+    /**
+     * Workers of operations to many stations (see BackgroundService). A worker sends the requests to the stations of
+     * its task one after the other, so it is busy much longer than a single request. Having their own threads, they
+     * do not delay the queued calls on the operation executor. When the queue is full, the task fails right away.
+     */
+    @Bean
+    public ExecutorService fanOutExecutor() {
+        return register(new MonitoredThreadPoolExecutor("FanOut", 10, 1_000,
+                new ThreadPoolExecutor.AbortPolicy()));
+    }
+
+    /**
+     * Notifications to users (e.g. mails). They are not critical, so they are dropped when the queue is full.
+     */
+    @Bean
+    public ExecutorService notificationExecutor() {
+        return register(new MonitoredThreadPoolExecutor("Notification", 1, 100,
+                MonitoredThreadPoolExecutor.discardAndLog()));
+    }
+
+    /**
+     * Pings of the WebSocket sessions (see KeepAliveScheduler). A ping can block as long as the socket does not accept
+     * data. Pings are rejected when the queue is full, and the caller tries again at the next interval.
+     */
+    @Bean
+    public ExecutorService pingExecutor() {
+        return register(new MonitoredThreadPoolExecutor("Ping", 4, 10_000,
+                new ThreadPoolExecutor.AbortPolicy()));
+    }
+
+    /**
+     * Sends the progress of tasks to the browsers (see TaskEventService). A send blocks as long as the browser does
+     * not read. Sends are rejected when the queue is full, and the caller tries again at the next interval.
+     */
+    @Bean
+    public ExecutorService taskEventExecutor() {
+        return register(new MonitoredThreadPoolExecutor("TaskEvent", 4, 1_000,
+                new ThreadPoolExecutor.AbortPolicy()));
+    }
+
+    /**
+     * Database writes that are side effects of incoming messages (e.g. the endpoint address of a SOAP station), and
+     * that do not need to finish before the response. They are dropped when the queue is full, since they are
+     * repeated with the next message anyway.
+     */
+    @Bean
+    public ExecutorService dbExecutor() {
+        return register(new MonitoredThreadPoolExecutor("DB", 2, 10_000,
+                MonitoredThreadPoolExecutor.discardAndLog()));
+    }
+
+    /**
+     * Processing of incoming OCPP-J messages, if enabled (ws.incoming.offload). Most of the processing is
+     * waiting for the database, so there is no point in having more threads than DB connections. When the queue is
+     * full, the Jetty thread processes the message itself, as it would without this executor.
+     */
+    @Bean
+    public ExecutorService incomingExecutor() {
+        if (dataSource == null) {
+            initDataSource();
+        }
+        return register(new MonitoredThreadPoolExecutor("Incoming", dataSource.getMaximumPoolSize(), 10_000,
+                new ThreadPoolExecutor.CallerRunsPolicy()));
+    }
+
     @Bean
     public Validator validator() {
         return new LocalValidatorFactoryBean();
@@ -159,6 +251,13 @@ public class BeanConfiguration implements WebMvcConfigurer {
         if (executor != null) {
             gracefulShutDown(executor);
         }
+
+        boundedExecutors.forEach(this::gracefulShutDown);
+    }
+
+    private ExecutorService register(MonitoredThreadPoolExecutor executor) {
+        boundedExecutors.add(executor);
+        return executor;
     }
 
     private void gracefulShutDown(ExecutorService executor) {
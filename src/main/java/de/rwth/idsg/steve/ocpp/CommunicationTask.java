@@ -8,16 +8,21 @@ import de.rwth.idsg.steve.utils.StringUtils;
 import de.rwth.idsg.steve.web.dto.ocpp.ChargePointSelection;
 import lombok.AccessLevel;
 import lombok.Getter;
+import org.jetbrains.annotations.Nullable;
 import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.xml.ws.AsyncHandler;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * Contains the context for a request/response communication and callbacks for handling responses/errors.
@@ -36,17 +41,33 @@ public abstract class CommunicationTask<S extends ChargePointSelection, RESPONSE
     private final String caller;
     protected final S params;
 
+    // One slot per station. The keys are fixed at construction, the slots are safe for concurrent writers
     private final Map<String, RequestResult> resultMap;
     private final int resultSize;
 
     private final DateTime startTimestamp = DateTime.now();
-    private DateTime endTimestamp;
+    private volatile DateTime endTimestamp;
 
-    private AtomicInteger errorCount = new AtomicInteger(0);
-    private AtomicInteger responseCount = new AtomicInteger(0);
+    private final AtomicInteger errorCount = new AtomicInteger(0);
+    private final AtomicInteger responseCount = new AtomicInteger(0);
 
-    @Getter(AccessLevel.NONE) // disable getter generation
-    private final Object lockObject = new Object();
+    // Number of stations with a result (response or error). The task is finished when it reaches resultSize
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger completedCount = new AtomicInteger(0);
+
+    @Getter(AccessLevel.NONE)
+    private final CompletableFuture<CommunicationTask<S, RESPONSE>> completionFuture = new CompletableFuture<>();
+
+    // Number of stations that the request was sent to (or tried to) so far
+    private final AtomicInteger dispatchedCount = new AtomicInteger(0);
+
+    // Set while the requests are being sent. Stops sending to the remaining stations
+    @Getter(AccessLevel.NONE)
+    private volatile Runnable cancelHandler;
+
+    // Called with the chargeBoxId, when the result of a station is set
+    @Getter(AccessLevel.NONE)
+    private final List<Consumer<String>> completionListeners = new CopyOnWriteArrayList<>();
 
     // The default initial capacity is 10. We probably won't need that much.
     private ArrayList<OcppCallback<RESPONSE>> callbackList = new ArrayList<>(2);
@@ -62,15 +83,18 @@ public abstract class CommunicationTask<S extends ChargePointSelection, RESPONSE
         List<ChargePointSelect> cpsList = params.getChargePointSelectList();
 
         this.ocppVersion = ocppVersion;
-        this.resultSize = cpsList.size();
         this.origin = origin;
         this.caller = caller;
         this.params = params;
 
-        resultMap = new HashMap<>(resultSize);
+        Map<String, RequestResult> map = new HashMap<>(cpsList.size());
         for (ChargePointSelect cps : cpsList) {
-            resultMap.put(cps.getChargeBoxId(), new RequestResult());
+            map.put(cps.getChargeBoxId(), new RequestResult());
         }
+        this.resultMap = Collections.unmodifiableMap(map);
+
+        // Not the size of the list, since a station selected twice gets only one result
+        this.resultSize = resultMap.size();
 
         callbackList.add(defaultCallback());
         operationName = StringUtils.getOperationName(this);
@@ -80,28 +104,98 @@ public abstract class CommunicationTask<S extends ChargePointSelection, RESPONSE
         callbackList.add(cb);
     }
 
-    public boolean isFinished() {
-        synchronized (lockObject) {
-            return endTimestamp != null;
+    /**
+     * The listener is called with the chargeBoxId of every station that gets its result from now on, by the thread
+     * that set the result. Therefore, it must not block.
+     */
+    public void addCompletionListener(Consumer<String> listener) {
+        completionListeners.add(listener);
+    }
+
+    public void removeCompletionListener(Consumer<String> listener) {
+        completionListeners.remove(listener);
+    }
+
+    public void setCancelHandler(Runnable cancelHandler) {
+        this.cancelHandler = cancelHandler;
+    }
+
+    /**
+     * @return false, if the task is already finished or cannot be cancelled
+     */
+    public boolean cancel() {
+        Runnable handler = cancelHandler;
+        if (handler == null || isFinished()) {
+            return false;
         }
+        handler.run();
+        return true;
+    }
+
+    public boolean isFinished() {
+        return endTimestamp != null;
+    }
+
+    /**
+     * Completes with the task, when every station has a result. Completing or cancelling the returned future does not
+     * affect the task.
+     */
+    public CompletableFuture<CommunicationTask<S, RESPONSE>> getCompletion() {
+        return completionFuture.copy();
     }
 
     public void addNewResponse(String chargeBoxId, String response) {
-        resultMap.get(chargeBoxId).setResponse(response);
+        addNewResponse(chargeBoxId, response, null);
+    }
 
-        synchronized (lockObject) {
-            if (resultSize == (errorCount.get() + responseCount.incrementAndGet())) {
-                endTimestamp = DateTime.now();
-            }
+    /**
+     * Only the first result of a station counts. A late response after the deadline (or after cancelling) is ignored.
+     *
+     * @param details are set before the result is published, such that whoever sees the result also sees them
+     */
+    public void addNewResponse(String chargeBoxId, String response, @Nullable Object details) {
+        RequestResult result = resultMap.get(chargeBoxId);
+        if (!result.complete()) {
+            return;
         }
+        result.setResponse(response);
+        if (details != null) {
+            result.setDetails(details);
+        }
+        responseCount.incrementAndGet();
+        onCompletion(chargeBoxId);
     }
 
     public void addNewError(String chargeBoxId, String errorMessage) {
-        resultMap.get(chargeBoxId).setErrorMessage(errorMessage);
+        RequestResult result = resultMap.get(chargeBoxId);
+        if (!result.complete()) {
+            return;
+        }
+        result.setErrorMessage(errorMessage);
+        errorCount.incrementAndGet();
+        onCompletion(chargeBoxId);
+    }
+
+    private void onCompletion(String chargeBoxId) {
+        boolean last = completedCount.incrementAndGet() == resultSize;
+        if (last) {
+            endTimestamp = DateTime.now();
+        }
 
-        synchronized (lockObject) {
-            if (resultSize == (errorCount.incrementAndGet() + responseCount.get())) {
-                endTimestamp = DateTime.now();
+        notifyCompletion(chargeBoxId);
+
+        // After the listeners, such that whoever waits for the task also sees their effects
+        if (last) {
+            completionFuture.complete(this);
+        }
+    }
+
+    private void notifyCompletion(String chargeBoxId) {
+        for (Consumer<String> listener : completionListeners) {
+            try {
+                listener.accept(chargeBoxId);
+            } catch (Exception e) {
+                log.error("Exception occurred in completion listener", e);
             }
         }
     }
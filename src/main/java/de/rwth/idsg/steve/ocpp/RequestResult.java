@@ -1,10 +1,13 @@
 package de.rwth.idsg.steve.ocpp;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 /**
  * @author Sevket Goekay <goekay@dbis.rwth-aachen.de>
  * @since 13.10.2015
@@ -12,9 +15,13 @@ import org.jetbrains.annotations.Nullable;
 @Getter
 @Setter
 public class RequestResult {
-    private String response;
-    private String errorMessage;
-    private Object details;
+    private volatile String response;
+    private volatile String errorMessage;
+    private volatile Object details;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final AtomicBoolean completed = new AtomicBoolean(false);
 
     @Nullable
     @SuppressWarnings("unchecked")
@@ -25,4 +32,13 @@ public class RequestResult {
     public <T> void setDetails(@NotNull T item) {
         this.details = item;
     }
+
+    /**
+     * Claims the result for the first writer, without locking
+     *
+     * @return true, if this call completed the result, i.e. it was not completed before
+     */
+    boolean complete() {
+        return completed.compareAndSet(false, true);
+    }
 }
@@ -3,7 +3,6 @@ package de.rwth.idsg.steve.ocpp.task;
 import de.rwth.idsg.steve.ocpp.Ocpp16AndAboveTask;
 import de.rwth.idsg.steve.ocpp.OcppCallback;
 import de.rwth.idsg.steve.ocpp.OcppVersion;
-import de.rwth.idsg.steve.ocpp.RequestResult;
 import de.rwth.idsg.steve.web.dto.ocpp.GetCompositeScheduleParams;
 import ocpp.cp._2015._10.GetCompositeScheduleRequest;
 import ocpp.cp._2015._10.GetCompositeScheduleResponse;
@@ -28,12 +27,9 @@ public class GetCompositeScheduleTask extends Ocpp16AndAboveTask<GetCompositeSch
 
             @Override
             public void success(String chargeBoxId, GetCompositeScheduleResponse response) {
-                addNewResponse(chargeBoxId, response.getStatus().value());
-
-                if (response.getStatus() == GetCompositeScheduleStatus.ACCEPTED) {
-                    RequestResult result = getResultMap().get(chargeBoxId);
-                    result.setDetails(response);
-                }
+                // Details only for accepted, since the response has no schedule otherwise
+                Object details = (response.getStatus() == GetCompositeScheduleStatus.ACCEPTED) ? response : null;
+                addNewResponse(chargeBoxId, response.getStatus().value(), details);
             }
         };
     }
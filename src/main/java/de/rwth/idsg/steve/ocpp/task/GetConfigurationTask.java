@@ -4,7 +4,6 @@ import com.google.common.base.Joiner;
 import de.rwth.idsg.steve.ocpp.Ocpp15AndAboveTask;
 import de.rwth.idsg.steve.ocpp.OcppCallback;
 import de.rwth.idsg.steve.ocpp.OcppVersion;
-import de.rwth.idsg.steve.ocpp.RequestResult;
 import de.rwth.idsg.steve.web.dto.ocpp.GetConfigurationParams;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -32,10 +31,7 @@ public class GetConfigurationTask extends Ocpp15AndAboveTask<GetConfigurationPar
         return new DefaultOcppCallback<ResponseWrapper>() {
             @Override
             public void success(String chargeBoxId, ResponseWrapper response) {
-                addNewResponse(chargeBoxId, "OK");
-
-                RequestResult result = getResultMap().get(chargeBoxId);
-                result.setDetails(response);
+                addNewResponse(chargeBoxId, "OK", response);
             }
         };
     }
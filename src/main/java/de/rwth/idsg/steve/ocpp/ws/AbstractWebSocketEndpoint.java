@@ -1,15 +1,17 @@
 package de.rwth.idsg.steve.ocpp.ws;
 
 import com.google.common.base.Strings;
-import de.rwth.idsg.steve.config.WebSocketConfiguration;
 import de.rwth.idsg.steve.ocpp.OcppVersion;
 import de.rwth.idsg.steve.ocpp.ws.data.CommunicationContext;
 import de.rwth.idsg.steve.ocpp.ws.data.SessionContext;
+import de.rwth.idsg.steve.ocpp.ws.pipeline.AbstractCallHandler;
+import de.rwth.idsg.steve.ocpp.ws.pipeline.Deserializer;
 import de.rwth.idsg.steve.ocpp.ws.pipeline.IncomingPipeline;
 import de.rwth.idsg.steve.repository.OcppServerRepository;
 import de.rwth.idsg.steve.service.NotificationService;
 import org.joda.time.DateTime;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jmx.export.MBeanExporter;
 import org.springframework.web.socket.BinaryMessage;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.PongMessage;
@@ -22,9 +24,6 @@ import java.util.ArrayList;
 import java.util.Deque;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 /**
@@ -33,10 +32,12 @@ import java.util.function.Consumer;
  */
 public abstract class AbstractWebSocketEndpoint extends ConcurrentWebSocketHandler {
 
-    @Autowired private ScheduledExecutorService service;
+    @Autowired private KeepAliveScheduler keepAliveScheduler;
+    @Autowired private IncomingMessageDispatcher incomingMessageDispatcher;
     @Autowired private OcppServerRepository ocppServerRepository;
     @Autowired private FutureResponseContextStore futureResponseContextStore;
     @Autowired private NotificationService notificationService;
+    @Autowired private MBeanExporter mbeanExporter;
 
     public static final String CHARGEBOX_ID_KEY = "CHARGEBOX_ID_KEY";
 
@@ -49,8 +50,11 @@ public abstract class AbstractWebSocketEndpoint extends ConcurrentWebSocketHandl
 
     public abstract OcppVersion getVersion();
 
-    public void init(IncomingPipeline pipeline) {
-        this.pipeline = pipeline;
+    public void init(Deserializer deserializer, AbstractCallHandler callHandler) {
+        this.pipeline = new IncomingPipeline(deserializer, callHandler);
+
+        // Not a bean, therefore not exported automatically
+        mbeanExporter.registerManagedResource(callHandler);
 
         connectedCallbackList.add((chargeBoxId) -> notificationService.ocppStationWebSocketConnected(chargeBoxId));
         disconnectedCallbackList.add((chargeBoxId) -> notificationService.ocppStationWebSocketDisconnected(chargeBoxId));
@@ -83,15 +87,19 @@ public abstract class AbstractWebSocketEndpoint extends ConcurrentWebSocketHandl
         }
 
         WebSocketLogger.receivedText(chargeBoxId, session, incomingString);
+        keepAliveScheduler.onMessage(session);
 
-        CommunicationContext context = new CommunicationContext(session, chargeBoxId);
-        context.setIncomingString(incomingString);
+        incomingMessageDispatcher.dispatch(session, () -> {
+            CommunicationContext context = new CommunicationContext(session, chargeBoxId);
+            context.setIncomingString(incomingString);
 
-        pipeline.accept(context);
+            pipeline.accept(context);
+        });
     }
 
     private void handlePongMessage(WebSocketSession session) {
         WebSocketLogger.receivedPong(getChargeBoxId(session), session);
+        keepAliveScheduler.onPong(session);
         ocppServerRepository.updateChargeboxHeartbeat(getChargeBoxId(session), DateTime.now());
     }
 
@@ -101,21 +109,15 @@ public abstract class AbstractWebSocketEndpoint extends ConcurrentWebSocketHandl
 
         WebSocketLogger.connected(chargeBoxId, session);
 
-        // Just to keep the connection alive, such that the servers do not close
-        // the connection because of a idle timeout, we ping-pong at fixed intervals.
-        ScheduledFuture pingSchedule = service.scheduleAtFixedRate(
-                new PingTask(chargeBoxId, session),
-                WebSocketConfiguration.PING_INTERVAL,
-                WebSocketConfiguration.PING_INTERVAL,
-                TimeUnit.MINUTES);
-
+        incomingMessageDispatcher.onOpen(session);
+        keepAliveScheduler.add(chargeBoxId, session, this::evict);
         futureResponseContextStore.addSession(session);
 
         int sizeBeforeAdd;
 
         synchronized (sessionContextLock) {
             sizeBeforeAdd = sessionContextStore.getSize(chargeBoxId);
-            sessionContextStore.add(chargeBoxId, session, pingSchedule);
+            sessionContextStore.add(chargeBoxId, session);
         }
 
         // Take into account that there might be multiple connections to a charging station.
@@ -127,24 +129,8 @@ public abstract class AbstractWebSocketEndpoint extends ConcurrentWebSocketHandl
 
     @Override
     public void onClose(WebSocketSession session, CloseStatus closeStatus) throws Exception {
-        String chargeBoxId = getChargeBoxId(session);
-
-        WebSocketLogger.closed(chargeBoxId, session, closeStatus);
-
-        futureResponseContextStore.removeSession(session);
-
-        int sizeAfterRemove;
-
-        synchronized (sessionContextLock) {
-            sessionContextStore.remove(chargeBoxId, session);
-            sizeAfterRemove = sessionContextStore.getSize(chargeBoxId);
-        }
-
-        // Take into account that there might be multiple connections to a charging station.
-        // Send notification only for the change 1 -> 0.
-        if (sizeAfterRemove == 0) {
-            disconnectedCallbackList.forEach(consumer -> consumer.accept(chargeBoxId));
-        }
+        WebSocketLogger.closed(getChargeBoxId(session), session, closeStatus);
+        evict(session);
     }
 
     @Override
@@ -161,6 +147,35 @@ public abstract class AbstractWebSocketEndpoint extends ConcurrentWebSocketHandl
     // Helpers
     // -------------------------------------------------------------------------
 
+    /**
+     * Removes the session from all stores. This is idempotent, since a reaped session is evicted before the container
+     * reports its close.
+     */
+    private void evict(WebSocketSession session) {
+        String chargeBoxId = getChargeBoxId(session);
+
+        keepAliveScheduler.remove(session);
+
+        int sizeBeforeRemove;
+        int sizeAfterRemove;
+
+        synchronized (sessionContextLock) {
+            sizeBeforeRemove = sessionContextStore.getSize(chargeBoxId);
+            sessionContextStore.remove(chargeBoxId, session);
+            sizeAfterRemove = sessionContextStore.getSize(chargeBoxId);
+        }
+
+        // Only after the session is not to be found anymore: Failing the pending calls lets the queue send the next
+        // call, which must not pick this session
+        futureResponseContextStore.removeSession(session);
+
+        // Take into account that there might be multiple connections to a charging station.
+        // Send notification only for the change 1 -> 0.
+        if (sizeBeforeRemove > sizeAfterRemove && sizeAfterRemove == 0) {
+            disconnectedCallbackList.forEach(consumer -> consumer.accept(chargeBoxId));
+        }
+    }
+
     protected String getChargeBoxId(WebSocketSession session) {
         return (String) session.getAttributes().get(CHARGEBOX_ID_KEY);
     }
@@ -7,6 +7,7 @@ import de.rwth.idsg.steve.ocpp.ws.data.ActionResponsePair;
 import de.rwth.idsg.steve.ocpp.ws.data.CommunicationContext;
 import de.rwth.idsg.steve.ocpp.ws.data.FutureResponseContext;
 import de.rwth.idsg.steve.ocpp.ws.data.OcppJsonCall;
+import de.rwth.idsg.steve.ocpp.ws.data.OutgoingCall;
 import de.rwth.idsg.steve.ocpp.ws.pipeline.OutgoingCallPipeline;
 import de.rwth.idsg.steve.repository.dto.ChargePointSelect;
 import lombok.RequiredArgsConstructor;
@@ -24,6 +25,7 @@ public class ChargePointServiceInvoker {
     private final Logger log = LoggerFactory.getLogger(getClass());
 
     private final OutgoingCallPipeline outgoingCallPipeline;
+    private final OutgoingCallQueue outgoingCallQueue;
     private final AbstractWebSocketEndpoint endpoint;
     private final TypeStore typeStore;
 
@@ -33,7 +35,7 @@ public class ChargePointServiceInvoker {
     public void runPipeline(ChargePointSelect cps, CommunicationTask task) {
         String chargeBoxId = cps.getChargeBoxId();
         try {
-            run(chargeBoxId, task);
+            enqueue(chargeBoxId, task);
         } catch (Exception e) {
             log.error("Exception occurred", e);
             // Outgoing call failed due to technical problems. Pass the exception to handler to inform the user
@@ -41,24 +43,51 @@ public class ChargePointServiceInvoker {
         }
     }
 
-    /**
-     * Actual processing
-     */
-    private void run(String chargeBoxId, CommunicationTask task) {
+    private void enqueue(String chargeBoxId, CommunicationTask task) {
         RequestType request = task.getRequest();
 
-        String messageId = UUID.randomUUID().toString();
         ActionResponsePair pair = typeStore.findActionResponse(request);
         if (pair == null) {
             throw new SteveException("Action name is not found");
         }
 
+        OutgoingCall call = new OutgoingCall(chargeBoxId, pair, request, this::send);
+        call.getTasks().add(task);
+
+        outgoingCallQueue.submit(call);
+    }
+
+    /**
+     * Called by the queue, when it is the turn of the call
+     */
+    private void send(OutgoingCall call) {
+        String chargeBoxId = call.getChargeBoxId();
+        try {
+            run(call);
+        } catch (Exception e) {
+            log.error("Exception occurred", e);
+            // The call is not outstanding. Let the next one go
+            outgoingCallQueue.onCompleted(chargeBoxId);
+            for (CommunicationTask task : call.getTasks()) {
+                task.defaultCallback().failed(chargeBoxId, e);
+            }
+        }
+    }
+
+    /**
+     * Actual processing
+     */
+    private void run(OutgoingCall outgoingCall) {
+        String chargeBoxId = outgoingCall.getChargeBoxId();
+        String messageId = UUID.randomUUID().toString();
+
         OcppJsonCall call = new OcppJsonCall();
         call.setMessageId(messageId);
-        call.setPayload(request);
-        call.setAction(pair.getAction());
+        call.setPayload(outgoingCall.getRequest());
+        call.setAction(outgoingCall.getAction());
 
-        FutureResponseContext frc = new FutureResponseContext(task, pair.getResponseClass());
+        FutureResponseContext frc = new FutureResponseContext(outgoingCall.getTasks(), chargeBoxId,
+                outgoingCall.getAction(), outgoingCall.getActionResponsePair().getResponseClass());
 
         CommunicationContext context = new CommunicationContext(endpoint.getSession(chargeBoxId), chargeBoxId);
         context.setOutgoingMessage(call);
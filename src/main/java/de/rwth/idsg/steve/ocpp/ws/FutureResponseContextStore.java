@@ -13,4 +13,9 @@ public interface FutureResponseContextStore {
     void removeSession(WebSocketSession session);
     void add(WebSocketSession session, String messageId, FutureResponseContext context);
     @Nullable FutureResponseContext get(WebSocketSession session, String messageId);
+
+    /**
+     * Removes the context of a call that could not be sent, without notifying anybody
+     */
+    void discard(WebSocketSession session, String messageId);
 }
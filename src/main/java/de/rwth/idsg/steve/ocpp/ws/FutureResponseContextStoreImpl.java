@@ -1,62 +1,186 @@
 package de.rwth.idsg.steve.ocpp.ws;
 
+import de.rwth.idsg.steve.SteveException;
+import de.rwth.idsg.steve.ocpp.CommunicationTask;
 import de.rwth.idsg.steve.ocpp.ws.data.FutureResponseContext;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
 import org.springframework.stereotype.Service;
 import org.springframework.web.socket.WebSocketSession;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiFunction;
 
+import static de.rwth.idsg.steve.SteveConfiguration.CONFIG;
+
 /**
  * Presumption: The responses must be sent using the same connection as the requests!
  *
+ * Every call has a deadline (configurable per action). If the response does not arrive in time or the connection is
+ * closed before, the context is removed and the task is failed. Otherwise, the task would never finish.
+ *
  * @author Sevket Goekay <goekay@dbis.rwth-aachen.de>
  * @since 21.03.2015
  */
 @Slf4j
 @Service
+@ManagedResource(objectName = "de.rwth.idsg.steve:type=PendingCalls",
+                 description = "Outgoing calls that wait for their responses")
 public class FutureResponseContextStoreImpl implements FutureResponseContextStore {
 
+    @Autowired private ScheduledExecutorService executorService;
+    @Autowired private OutgoingCallQueue outgoingCallQueue;
+
+    private final int defaultTimeoutInSeconds = CONFIG.getOcpp().getWsCallTimeoutInSeconds();
+    private final Map<String, Integer> timeoutInSecondsPerAction = CONFIG.getOcpp().getWsCallTimeoutInSecondsPerAction();
+
+    private final AtomicInteger inFlightCount = new AtomicInteger();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong closedCount = new AtomicLong();
+
     // We store for each chargeBox connection, multiple pairs of (messageId, context)
     // (session, (messageId, context))
     private final Map<WebSocketSession, Map<String, FutureResponseContext>> lookupTable = new ConcurrentHashMap<>();
 
     @Override
     public void addSession(WebSocketSession session) {
-        addIfAbsent(session);
+        lookupTable.computeIfAbsent(session, innerSession -> {
+            log.debug("Creating new store for sessionId '{}'", innerSession.getId());
+            return new ConcurrentHashMap<>();
+        });
     }
 
     @Override
     public void removeSession(WebSocketSession session) {
         log.debug("Deleting the store for sessionId '{}'", session.getId());
-        lookupTable.remove(session);
+        Map<String, FutureResponseContext> map = lookupTable.remove(session);
+        if (map == null) {
+            return;
+        }
+
+        for (FutureResponseContext context : map.values()) {
+            onRemoved(context);
+            closedCount.incrementAndGet();
+            fail(context, new SteveException("The connection was closed before the response to '%s' arrived",
+                    context.getAction()));
+        }
     }
 
+    /**
+     * Does not create the store of a session that was removed (i.e. closed) already, since nobody would remove it again
+     *
+     * @throws SteveException if the session was removed. The caller fails the call
+     */
     @Override
     public void add(WebSocketSession session, String messageId, FutureResponseContext context) {
-        Map<String, FutureResponseContext> map = addIfAbsent(session);
-        map.put(messageId, context);
+        Map<String, FutureResponseContext> map = lookupTable.computeIfPresent(session, (innerSession, innerMap) -> {
+            innerMap.put(messageId, context);
+            return innerMap;
+        });
+
+        if (map == null) {
+            throw new SteveException("The connection was closed before '%s' could be sent", context.getAction());
+        }
+
+        inFlightCount.incrementAndGet();
         log.debug("Store size for sessionId '{}': {}", session.getId(), map.size());
+
+        // After adding, since the timeout must not expire a context that is not in the store. If the session is
+        // removed in between, the timeout will find nothing to expire
+        int timeout = timeoutInSecondsPerAction.getOrDefault(context.getAction(), defaultTimeoutInSeconds);
+        context.setTimeoutSchedule(
+                executorService.schedule(() -> expire(session, messageId, timeout), timeout, TimeUnit.SECONDS)
+        );
     }
 
     @Nullable
     @Override
     public FutureResponseContext get(WebSocketSession session, String messageId) {
+        FutureResponseContext context = remove(session, messageId);
+        if (context != null) {
+            onRemoved(context);
+        }
+        return context;
+    }
+
+    @Override
+    public void discard(WebSocketSession session, String messageId) {
+        FutureResponseContext context = remove(session, messageId);
+        if (context != null) {
+            release(context);
+        }
+    }
+
+    @ManagedAttribute(description = "Number of calls that wait for their responses")
+    public int getInFlightCount() {
+        return inFlightCount.get();
+    }
+
+    @ManagedAttribute(description = "Number of calls that were failed, because the response did not arrive in time")
+    public long getTimeoutCount() {
+        return timeoutCount.get();
+    }
+
+    @ManagedAttribute(description = "Number of calls that were failed, because the connection was closed")
+    public long getClosedCount() {
+        return closedCount.get();
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private void expire(WebSocketSession session, String messageId, int timeout) {
+        // If the response arrived in the meantime, it already removed the context
+        FutureResponseContext context = remove(session, messageId);
+        if (context == null) {
+            return;
+        }
+
+        onRemoved(context);
+        timeoutCount.incrementAndGet();
+        log.warn("No response to '{}' with messageId '{}' from chargeBoxId '{}' within {} seconds",
+                context.getAction(), messageId, context.getChargeBoxId(), timeout);
+        fail(context, new SteveException("No response to '%s' within %s seconds", context.getAction(), timeout));
+    }
+
+    @Nullable
+    private FutureResponseContext remove(WebSocketSession session, String messageId) {
         RemoveFunction removeFunction = new RemoveFunction(messageId);
         lookupTable.computeIfPresent(session, removeFunction);
         return removeFunction.removedContext;
     }
 
-    private Map<String, FutureResponseContext> addIfAbsent(WebSocketSession session) {
-        return lookupTable.computeIfAbsent(session, innerSession -> {
-            log.debug("Creating new store for sessionId '{}'", innerSession.getId());
-            return new ConcurrentHashMap<>();
-        });
+    private void onRemoved(FutureResponseContext context) {
+        release(context);
+        outgoingCallQueue.onCompleted(context.getChargeBoxId());
+    }
+
+    private void release(FutureResponseContext context) {
+        inFlightCount.decrementAndGet();
+        if (context.getTimeoutSchedule() != null) {
+            context.getTimeoutSchedule().cancel(false);
+        }
+    }
+
+    private static void fail(FutureResponseContext context, Exception e) {
+        for (CommunicationTask task : context.getTasks()) {
+            try {
+                task.defaultCallback().failed(context.getChargeBoxId(), e);
+            } catch (Exception ex) {
+                log.error("Exception occurred", ex);
+            }
+        }
     }
 
     @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
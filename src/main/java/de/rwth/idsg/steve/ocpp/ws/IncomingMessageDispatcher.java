@@ -0,0 +1,150 @@
+package de.rwth.idsg.steve.ocpp.ws;
+
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.SuspendToken;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+import static de.rwth.idsg.steve.SteveConfiguration.CONFIG;
+
+/**
+ * Decides where incoming messages are processed: either right away by the Jetty thread that read them, or (if
+ * offloading is enabled) by the incoming executor, such that a slow database cannot occupy all Jetty threads.
+ *
+ * The mode is fixed per session when it opens. Otherwise, switching the mode while messages of the session are
+ * waiting in its mailbox would reorder them. When the mailbox of a session fills up, reading from its socket is
+ * suspended until the mailbox is drained halfway.
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+@Component
+@ManagedResource(objectName = "de.rwth.idsg.steve:type=IncomingMessageDispatcher",
+                 description = "Processing mode of incoming OCPP-J messages")
+public class IncomingMessageDispatcher {
+
+    private static final String MAILBOX_KEY = "MAILBOX_KEY";
+
+    @Autowired @Qualifier("incomingExecutor") private ExecutorService incomingExecutor;
+
+    private volatile boolean offload = CONFIG.getOcpp().isWsIncomingOffload();
+    private final int mailboxCapacity = CONFIG.getOcpp().getWsIncomingMailboxCapacity();
+
+    private final LongAdder inlineCount = new LongAdder();
+    private final LongAdder offloadedCount = new LongAdder();
+    private final LongAdder pauseCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    public void onOpen(WebSocketSession session) {
+        if (offload) {
+            SessionMailbox mailbox =
+                    new SessionMailbox(incomingExecutor, mailboxCapacity, new SocketBackpressure(session));
+            session.getAttributes().put(MAILBOX_KEY, mailbox);
+        }
+    }
+
+    public void dispatch(WebSocketSession session, Runnable task) throws IOException {
+        SessionMailbox mailbox = (SessionMailbox) session.getAttributes().get(MAILBOX_KEY);
+        if (mailbox == null) {
+            inlineCount.increment();
+            task.run();
+            return;
+        }
+
+        try {
+            mailbox.execute(task);
+            offloadedCount.increment();
+        } catch (RejectedExecutionException e) {
+            // Dropping a message silently would break the conversation with the station. It will reconnect and retry
+            rejectedCount.increment();
+            log.warn("The mailbox of session '{}' is full. Closing the session", session.getId());
+            session.close(CloseStatus.SESSION_NOT_RELIABLE.withReason("Too many pending messages"));
+        }
+    }
+
+    @ManagedAttribute(description = "Whether sessions that open from now on are processed by the incoming executor")
+    public boolean isOffload() {
+        return offload;
+    }
+
+    @ManagedAttribute
+    public void setOffload(boolean offload) {
+        log.info("Incoming messages of new sessions are processed by {}", offload ? "the incoming executor" : "Jetty");
+        this.offload = offload;
+    }
+
+    @ManagedAttribute(description = "Number of messages processed by the Jetty thread that read them")
+    public long getInlineCount() {
+        return inlineCount.sum();
+    }
+
+    @ManagedAttribute(description = "Number of messages handed to the incoming executor")
+    public long getOffloadedCount() {
+        return offloadedCount.sum();
+    }
+
+    @ManagedAttribute(description = "Number of times that reading from a socket was suspended")
+    public long getPauseCount() {
+        return pauseCount.sum();
+    }
+
+    @ManagedAttribute(description = "Number of sessions closed, because their mailbox overflowed")
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    // -------------------------------------------------------------------------
+    // Classes
+    // -------------------------------------------------------------------------
+
+    /**
+     * Suspends reading from the socket of the session. Jetty finishes the frame that it is reading, so that the mailbox
+     * might receive one more message after pausing.
+     */
+    private class SocketBackpressure implements SessionMailbox.Backpressure {
+        @Nullable private final Session nativeSession;
+
+        // Guarded by the lock of the mailbox
+        @Nullable private SuspendToken suspendToken;
+
+        private SocketBackpressure(WebSocketSession session) {
+            WebSocketSession s = session;
+            if (s instanceof WebSocketSessionDecorator) {
+                s = ((WebSocketSessionDecorator) s).getLastSession();
+            }
+            this.nativeSession = (s instanceof NativeWebSocketSession)
+                    ? ((NativeWebSocketSession) s).getNativeSession(Session.class)
+                    : null;
+        }
+
+        @Override
+        public void pause() {
+            pauseCount.increment();
+            if (nativeSession != null) {
+                suspendToken = nativeSession.suspend();
+            }
+        }
+
+        @Override
+        public void resume() {
+            if (suspendToken != null) {
+                suspendToken.resume();
+                suspendToken = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package de.rwth.idsg.steve.ocpp.ws;
+
+import de.rwth.idsg.steve.config.WebSocketConfiguration;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import javax.annotation.PostConstruct;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static de.rwth.idsg.steve.SteveConfiguration.CONFIG;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Just to keep the connections alive, such that the servers do not close them because of an idle timeout, we ping-pong
+ * at fixed intervals.
+ *
+ * Instead of one scheduled task per session, all sessions are kept in a timer wheel: one slot per second of the ping
+ * interval, and a single task that visits one slot per second. A session is put into a random slot, which spreads the
+ * pings of stations that connected at the same time across the interval. Adding and removing a session are O(1).
+ * The pings themselves are sent by a separate executor, since a stalled socket blocks the sending thread.
+ *
+ * When visited, a session is only pinged if it did not send a message during the last interval. A session is reaped,
+ * i.e. closed and evicted, if it does not answer the configured number of pings in a row or if sending the ping fails.
+ * Eviction removes the session from the stores of its endpoint right away, since the close handshake of a half-open
+ * connection never completes and the container would report the close only after its idle timeout.
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+@Component
+@ManagedResource(objectName = "de.rwth.idsg.steve:type=KeepAlive",
+                 description = "Pings of the WebSocket sessions and reaping of dead sessions")
+public class KeepAliveScheduler {
+
+    private static final PingMessage PING_MESSAGE = new PingMessage(ByteBuffer.wrap("ping".getBytes(UTF_8)));
+
+    private static final long INTERVAL_IN_MILLIS = TimeUnit.MINUTES.toMillis(WebSocketConfiguration.PING_INTERVAL);
+    private static final int WHEEL_SIZE = (int) TimeUnit.MINUTES.toSeconds(WebSocketConfiguration.PING_INTERVAL);
+
+    @Autowired private ScheduledExecutorService executorService;
+    @Autowired @Qualifier("pingExecutor") private ExecutorService pingExecutor;
+
+    private final int maxMissedPongs = CONFIG.getOcpp().getWsMaxMissedPongs();
+
+    /**
+     * Key   (String) = WebSocket session id
+     * Value (Entry)  = Keep-alive state of the session
+     */
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final List<Set<Entry>> wheel = new ArrayList<>(WHEEL_SIZE);
+
+    // Only accessed by the tick task, which never runs concurrently with itself
+    private int cursor = 0;
+
+    private final AtomicLong pingsSent = new AtomicLong();
+    private final AtomicLong pingsSkipped = new AtomicLong();
+    private final AtomicLong pingFailures = new AtomicLong();
+    private final AtomicLong reapedMissedPongs = new AtomicLong();
+    private final AtomicLong reapedPingFailures = new AtomicLong();
+    private final AtomicLong evictedClosed = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel.add(ConcurrentHashMap.newKeySet());
+        }
+        executorService.scheduleAtFixedRate(this::tickSafely, 1, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @param evictor removes the session from the stores of its endpoint. Must be idempotent, since the container
+     *                might still report the close of the session afterwards.
+     */
+    public void add(String chargeBoxId, WebSocketSession session, Consumer<WebSocketSession> evictor) {
+        int slot = ThreadLocalRandom.current().nextInt(WHEEL_SIZE);
+        Entry entry = new Entry(chargeBoxId, session, evictor, slot);
+        entries.put(session.getId(), entry);
+        wheel.get(entry.slot).add(entry);
+    }
+
+    public void remove(WebSocketSession session) {
+        Entry entry = entries.remove(session.getId());
+        if (entry != null) {
+            wheel.get(entry.slot).remove(entry);
+        }
+    }
+
+    /**
+     * A message proves that the connection is alive and keeps it from being idle. No need to ping.
+     */
+    public void onMessage(WebSocketSession session) {
+        Entry entry = entries.get(session.getId());
+        if (entry != null) {
+            entry.lastMessageAt = System.currentTimeMillis();
+            entry.lastInboundAt = entry.lastMessageAt;
+            entry.missedPongs.set(0);
+        }
+    }
+
+    public void onPong(WebSocketSession session) {
+        Entry entry = entries.get(session.getId());
+        if (entry != null) {
+            entry.lastPongAt = System.currentTimeMillis();
+            entry.lastInboundAt = entry.lastPongAt;
+            entry.missedPongs.set(0);
+        }
+    }
+
+    @ManagedAttribute(description = "Number of sessions that are kept alive")
+    public int getSessionCount() {
+        return entries.size();
+    }
+
+    @ManagedAttribute(description = "Number of pings that were sent")
+    public long getPingsSent() {
+        return pingsSent.get();
+    }
+
+    @ManagedAttribute(description = "Number of pings that were not sent, because the session sent a message recently"
+            + " or the executor was busy")
+    public long getPingsSkipped() {
+        return pingsSkipped.get();
+    }
+
+    @ManagedAttribute(description = "Number of pings that could not be sent")
+    public long getPingFailures() {
+        return pingFailures.get();
+    }
+
+    @ManagedAttribute(description = "Number of sessions that were reaped, because they did not answer pings")
+    public long getReapedMissedPongs() {
+        return reapedMissedPongs.get();
+    }
+
+    @ManagedAttribute(description = "Number of sessions that were reaped, because a ping could not be sent")
+    public long getReapedPingFailures() {
+        return reapedPingFailures.get();
+    }
+
+    @ManagedAttribute(description = "Number of sessions that were evicted, because they were closed without the"
+            + " container reporting it")
+    public long getEvictedClosed() {
+        return evictedClosed.get();
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private void tickSafely() {
+        try {
+            tick();
+        } catch (Exception e) {
+            // An exception would stop the subsequent executions of the schedule
+            log.error("Failed to process the keep-alive slot {}", cursor, e);
+        }
+    }
+
+    private void tick() {
+        Set<Entry> slot = wheel.get(cursor);
+        cursor = (cursor + 1) % WHEEL_SIZE;
+
+        long now = System.currentTimeMillis();
+        for (Entry entry : slot) {
+            try {
+                process(entry, now);
+            } catch (Exception e) {
+                // Do not abort the rest of the slot
+                log.error("Failed to process the keep-alive of the session '{}' of chargeBoxId '{}'",
+                        entry.session.getId(), entry.chargeBoxId, e);
+            }
+        }
+    }
+
+    private void process(Entry entry, long now) {
+        if (!entry.session.isOpen()) {
+            log.warn("The session '{}' of chargeBoxId '{}' is closed, but was not removed. Evicting it",
+                    entry.session.getId(), entry.chargeBoxId);
+            evictedClosed.incrementAndGet();
+            evict(entry);
+            return;
+        }
+
+        if (now - entry.lastMessageAt < INTERVAL_IN_MILLIS) {
+            pingsSkipped.incrementAndGet();
+            return;
+        }
+
+        if (maxMissedPongs > 0 && entry.missedPongs.get() >= maxMissedPongs) {
+            log.warn("Reaping the session '{}' of chargeBoxId '{}', since it did not answer {} pings (last inbound"
+                    + " frame: {}, last pong: {})", entry.session.getId(), entry.chargeBoxId, entry.missedPongs.get(),
+                    ago(now, entry.lastInboundAt), ago(now, entry.lastPongAt));
+            reapedMissedPongs.incrementAndGet();
+            reap(entry, "Missed pongs");
+            return;
+        }
+
+        // Sending blocks, if the socket does not accept data or another thread is writing to the session. This must
+        // not delay the pings of the other sessions.
+        if (entry.pingInFlight.compareAndSet(false, true)) {
+            try {
+                pingExecutor.execute(() -> ping(entry));
+            } catch (RejectedExecutionException e) {
+                // The next visit tries again
+                entry.pingInFlight.set(false);
+                pingsSkipped.incrementAndGet();
+            }
+        }
+    }
+
+    private void ping(Entry entry) {
+        try {
+            pingInternal(entry);
+        } finally {
+            entry.pingInFlight.set(false);
+        }
+    }
+
+    private void pingInternal(Entry entry) {
+        // Only count the pings that are actually sent. A ping that was rejected by the executor is not missed
+        entry.missedPongs.incrementAndGet();
+        WebSocketLogger.sendingPing(entry.chargeBoxId, entry.session);
+        try {
+            entry.session.sendMessage(PING_MESSAGE);
+            pingsSent.incrementAndGet();
+        } catch (Exception e) {
+            // Not only IOException: The session might refuse the message, e.g. when its send buffer is full
+            WebSocketLogger.pingError(entry.chargeBoxId, entry.session, e);
+            pingFailures.incrementAndGet();
+            // The connection is broken. Do not route further messages into it
+            reapedPingFailures.incrementAndGet();
+            reap(entry, "Ping failed");
+        }
+    }
+
+    private void reap(Entry entry, String reason) {
+        try {
+            entry.session.close(CloseStatus.SESSION_NOT_RELIABLE.withReason(reason));
+        } catch (Exception e) {
+            log.warn("Failed to close the session '{}' of chargeBoxId '{}'",
+                    entry.session.getId(), entry.chargeBoxId, e);
+        }
+        evict(entry);
+    }
+
+    private void evict(Entry entry) {
+        remove(entry.session);
+        entry.evictor.accept(entry.session);
+    }
+
+    private static String ago(long now, long timestamp) {
+        return timestamp == 0 ? "never" : (now - timestamp) + " ms ago";
+    }
+
+    @RequiredArgsConstructor
+    private static class Entry {
+        private final String chargeBoxId;
+        private final WebSocketSession session;
+        private final Consumer<WebSocketSession> evictor;
+        private final int slot;
+
+        // 0 means: no message yet, such that the session is pinged at its first visit
+        private volatile long lastMessageAt = 0;
+        private volatile long lastPongAt = 0;
+        private volatile long lastInboundAt = 0;
+        private final AtomicInteger missedPongs = new AtomicInteger();
+        private final AtomicBoolean pingInFlight = new AtomicBoolean(false);
+    }
+}
@@ -0,0 +1,277 @@
+package de.rwth.idsg.steve.ocpp.ws;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import de.rwth.idsg.steve.SteveException;
+import de.rwth.idsg.steve.ocpp.CommunicationTask;
+import de.rwth.idsg.steve.ocpp.ws.data.OutgoingCall;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import static de.rwth.idsg.steve.SteveConfiguration.CONFIG;
+
+/**
+ * OCPP-J allows only one outstanding call per direction. Therefore, outgoing calls are queued per station and the next
+ * call is sent only after the response to the previous one arrived (or it timed out, or the connection was closed).
+ *
+ * Calls that need immediate action (e.g. RemoteStartTransaction) overtake the ones that do not (e.g.
+ * GetDiagnostics). An idempotent call that is equal to a queued one is not queued again, but waits for the response
+ * of the queued one.
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+@Component
+@ManagedResource(objectName = "de.rwth.idsg.steve:type=OutgoingCallQueue",
+                 description = "Per-station queues of outgoing calls")
+public class OutgoingCallQueue {
+
+    private enum Priority { HIGH, NORMAL, LOW }
+
+    private static final Map<String, Priority> PRIORITIES = ImmutableMap.<String, Priority>builder()
+            .put("RemoteStartTransaction", Priority.HIGH)
+            .put("RemoteStopTransaction", Priority.HIGH)
+            .put("UnlockConnector", Priority.HIGH)
+            .put("ReserveNow", Priority.HIGH)
+            .put("CancelReservation", Priority.HIGH)
+            .put("GetDiagnostics", Priority.LOW)
+            .put("UpdateFirmware", Priority.LOW)
+            .put("SendLocalList", Priority.LOW)
+            .put("DataTransfer", Priority.LOW)
+            .build();
+
+    /**
+     * Sending these twice with the same payload has the same effect as sending them once
+     */
+    private static final Set<String> IDEMPOTENT_ACTIONS = ImmutableSet.of(
+            "ChangeAvailability", "ChangeConfiguration", "ClearCache", "GetConfiguration", "GetLocalListVersion",
+            "GetCompositeSchedule", "TriggerMessage", "UnlockConnector"
+    );
+
+    private static final Comparator<Entry> ORDER = Comparator.<Entry, Priority>comparing(e -> e.priority)
+                                                             .thenComparingLong(e -> e.sequence);
+
+    @Autowired @Qualifier("operationExecutor") private ExecutorService operationExecutor;
+
+    private final ObjectMapper mapper = JsonObjectMapper.INSTANCE.getMapper();
+    private final int capacity = CONFIG.getOcpp().getWsOutgoingQueueCapacity();
+
+    /**
+     * Key   (String)  = chargeBoxId
+     * Value (Station) = Queue and statistics of the station
+     */
+    private final ConcurrentHashMap<String, Station> stations = new ConcurrentHashMap<>();
+
+    /**
+     * Sends the call right away, if there is no outstanding call to the station. Otherwise, the call is queued.
+     *
+     * @throws SteveException if the queue of the station is full
+     */
+    public void submit(OutgoingCall call) {
+        Station station = stations.computeIfAbsent(call.getChargeBoxId(), k -> new Station());
+        String coalescingKey = getCoalescingKey(call);
+
+        Entry toSend;
+        synchronized (station) {
+            if (coalescingKey != null) {
+                for (Entry e : station.queue) {
+                    if (coalescingKey.equals(e.coalescingKey)) {
+                        e.call.getTasks().addAll(call.getTasks());
+                        station.coalescedCount++;
+                        return;
+                    }
+                }
+            }
+
+            if (station.queue.size() >= capacity) {
+                station.rejectedCount++;
+                throw new SteveException("The queue of outgoing calls to chargeBoxId '%s' is full",
+                        call.getChargeBoxId());
+            }
+
+            Priority priority = PRIORITIES.getOrDefault(call.getAction(), Priority.NORMAL);
+            station.queue.add(new Entry(call, priority, station.sequence++, coalescingKey));
+            toSend = station.pollIfIdle();
+        }
+
+        if (toSend != null) {
+            send(toSend);
+        }
+    }
+
+    /**
+     * The outstanding call to the station is done (successfully or not). Sends the next call, if any.
+     */
+    public void onCompleted(String chargeBoxId) {
+        Station station = stations.get(chargeBoxId);
+        if (station == null) {
+            return;
+        }
+
+        Entry toSend;
+        synchronized (station) {
+            station.complete();
+            toSend = station.pollIfIdle();
+        }
+
+        while (toSend != null) {
+            Entry entry = toSend;
+            try {
+                // The caller might be a thread that we should not block (e.g. processing of incoming messages)
+                operationExecutor.execute(() -> send(entry));
+                return;
+            } catch (RejectedExecutionException e) {
+                // Do not send it from this thread either. Fail the call and try the next one
+                log.warn("Could not hand off the '{}' call to chargeBoxId '{}'", entry.call.getAction(), chargeBoxId);
+                synchronized (station) {
+                    station.complete();
+                    station.rejectedCount++;
+                    toSend = station.pollIfIdle();
+                }
+                failed(entry, e);
+            }
+        }
+    }
+
+    @ManagedAttribute(description = "Number of calls that wait in the queues")
+    public int getQueuedCount() {
+        int count = 0;
+        for (Station station : stations.values()) {
+            synchronized (station) {
+                count += station.queue.size();
+            }
+        }
+        return count;
+    }
+
+    @ManagedAttribute(description = "Number of stations with an outstanding call")
+    public int getBusyStationCount() {
+        int count = 0;
+        for (Station station : stations.values()) {
+            synchronized (station) {
+                count += station.sentAt != 0 ? 1 : 0;
+            }
+        }
+        return count;
+    }
+
+    @ManagedOperation(description = "Throughput and latency statistics of the queue of a station")
+    public String getStationStats(String chargeBoxId) {
+        Station station = stations.get(chargeBoxId);
+        if (station == null) {
+            return "No calls to chargeBoxId '" + chargeBoxId + "' yet";
+        }
+
+        synchronized (station) {
+            long completed = Math.max(station.completedCount, 1);
+            long sent = Math.max(station.sentCount, 1);
+            return String.format("queued=%d, busy=%s, sent=%d, completed=%d, coalesced=%d, rejected=%d, "
+                            + "avgWaitMs=%d, avgLatencyMs=%d, maxLatencyMs=%d",
+                    station.queue.size(), station.sentAt != 0, station.sentCount, station.completedCount,
+                    station.coalescedCount, station.rejectedCount, station.totalWaitMs / sent,
+                    station.totalLatencyMs / completed, station.maxLatencyMs);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private static void send(Entry entry) {
+        OutgoingCall call = entry.call;
+        call.getSender().accept(call);
+    }
+
+    private static void failed(Entry entry, Exception e) {
+        OutgoingCall call = entry.call;
+        for (CommunicationTask task : call.getTasks()) {
+            task.defaultCallback().failed(call.getChargeBoxId(), e);
+        }
+    }
+
+    @Nullable
+    private String getCoalescingKey(OutgoingCall call) {
+        if (!IDEMPOTENT_ACTIONS.contains(call.getAction())) {
+            return null;
+        }
+
+        try {
+            return call.getAction() + mapper.writeValueAsString(call.getRequest());
+        } catch (JsonProcessingException e) {
+            // Not a reason to fail. The call just will not be coalesced
+            log.warn("Could not serialize the payload of '{}' to compare it", call.getAction(), e);
+            return null;
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class Entry {
+        private final OutgoingCall call;
+        private final Priority priority;
+        private final long sequence;
+        @Nullable private final String coalescingKey;
+    }
+
+    /**
+     * All fields are guarded by the lock of the instance
+     */
+    private static class Station {
+        private final PriorityQueue<Entry> queue = new PriorityQueue<>(ORDER);
+        private long sequence = 0;
+
+        // 0 means: no outstanding call
+        private long sentAt = 0;
+
+        private long sentCount = 0;
+        private long completedCount = 0;
+        private long coalescedCount = 0;
+        private long rejectedCount = 0;
+        private long totalWaitMs = 0;
+        private long totalLatencyMs = 0;
+        private long maxLatencyMs = 0;
+
+        @Nullable
+        private Entry pollIfIdle() {
+            if (sentAt != 0) {
+                return null;
+            }
+
+            Entry entry = queue.poll();
+            if (entry != null) {
+                sentAt = System.currentTimeMillis();
+                sentCount++;
+                totalWaitMs += sentAt - entry.call.getEnqueuedAt();
+            }
+            return entry;
+        }
+
+        private void complete() {
+            if (sentAt == 0) {
+                return;
+            }
+
+            long latency = System.currentTimeMillis() - sentAt;
+            sentAt = 0;
+            completedCount++;
+            totalLatencyMs += latency;
+            maxLatencyMs = Math.max(maxLatencyMs, latency);
+        }
+    }
+}
@@ -16,7 +16,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.locks.Lock;
 
 import static de.rwth.idsg.steve.SteveConfiguration.CONFIG;
@@ -39,11 +38,11 @@ public class SessionContextStoreImpl implements SessionContextStore {
     private final WsSessionSelectStrategy wsSessionSelectStrategy = CONFIG.getOcpp().getWsSessionSelectStrategy();
 
     @Override
-    public void add(String chargeBoxId, WebSocketSession session, ScheduledFuture pingSchedule) {
+    public void add(String chargeBoxId, WebSocketSession session) {
         Lock l = locks.get(chargeBoxId);
         l.lock();
         try {
-            SessionContext context = new SessionContext(session, pingSchedule, DateTime.now());
+            SessionContext context = new SessionContext(session, DateTime.now());
 
             Deque<SessionContext> endpointDeque = lookupTable.computeIfAbsent(chargeBoxId, str -> new ArrayDeque<>());
             endpointDeque.addLast(context); // Adding at the end
@@ -79,14 +78,12 @@ public class SessionContextStoreImpl implements SessionContextStore {
             }
 
             if (toRemove != null) {
-                // 1. Cancel the ping task
-                toRemove.getPingSchedule().cancel(true);
-                // 2. Delete from collection
+                // 1. Delete from collection
                 if (endpointDeque.remove(toRemove)) {
                     log.debug("A SessionContext is removed for chargeBoxId '{}'. Store size: {}",
                             chargeBoxId, endpointDeque.size());
                 }
-                // 3. Delete empty collection from lookup table in order to correctly calculate
+                // 2. Delete empty collection from lookup table in order to correctly calculate
                 // the number of connected chargeboxes with getNumberOfChargeBoxes()
                 if (endpointDeque.size() == 0) {
                     lookupTable.remove(chargeBoxId);
@@ -0,0 +1,123 @@
+package de.rwth.idsg.steve.ocpp.ws;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs the tasks of one WebSocket session one after the other, in the order of submission, on a shared executor.
+ * Tasks of different sessions run in parallel. At most one task of the session is queued in the shared executor at
+ * any time, the rest wait here.
+ *
+ * The mailbox is bounded: When it holds capacity tasks, the producer is asked to pause (e.g. stop reading from the
+ * socket), and asked to resume when half of them are done. Since a producer might not stop immediately, tasks are
+ * rejected only above twice the capacity.
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+public class SessionMailbox implements Executor {
+
+    /**
+     * After this many tasks in a row, the mailbox goes to the back of the shared executor, such that a busy session
+     * cannot hold a thread forever
+     */
+    private static final int MAX_TASKS_PER_RUN = 32;
+
+    private final Executor executor;
+    private final int capacity;
+    private final Backpressure backpressure;
+
+    // Guarded by the lock of the instance
+    private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+    private boolean running = false;
+    private boolean paused = false;
+
+    public SessionMailbox(Executor executor, int capacity, Backpressure backpressure) {
+        this.executor = executor;
+        this.capacity = capacity;
+        this.backpressure = backpressure;
+    }
+
+    /**
+     * @throws RejectedExecutionException if the producer did not pause and the mailbox is full
+     */
+    @Override
+    public void execute(Runnable task) {
+        boolean start = false;
+        synchronized (this) {
+            if (tasks.size() >= 2 * capacity) {
+                throw new RejectedExecutionException("Mailbox is full");
+            }
+
+            tasks.add(task);
+            if (!paused && tasks.size() >= capacity) {
+                paused = true;
+                backpressure.pause();
+            }
+
+            if (!running) {
+                running = true;
+                start = true;
+            }
+        }
+
+        if (start) {
+            executor.execute(this::drain);
+        }
+    }
+
+    public synchronized int size() {
+        return tasks.size();
+    }
+
+    public synchronized boolean isPaused() {
+        return paused;
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private void drain() {
+        for (int i = 0; i < MAX_TASKS_PER_RUN; i++) {
+            Runnable task;
+            synchronized (this) {
+                task = tasks.poll();
+                if (task == null) {
+                    running = false;
+                    return;
+                }
+                if (paused && tasks.size() <= capacity / 2) {
+                    paused = false;
+                    backpressure.resume();
+                }
+            }
+
+            try {
+                task.run();
+            } catch (Exception e) {
+                // Must not stop the processing of the following tasks
+                log.error("Exception occurred", e);
+            }
+        }
+
+        // Still running. Continue after the others
+        executor.execute(this::drain);
+    }
+
+    // -------------------------------------------------------------------------
+    // Classes
+    // -------------------------------------------------------------------------
+
+    /**
+     * Called with the lock of the mailbox held (such that pause and resume cannot overtake each other), therefore
+     * must not block
+     */
+    public interface Backpressure {
+        void pause();
+        void resume();
+    }
+}
@@ -9,6 +9,7 @@ import lombok.Setter;
 import org.springframework.web.socket.WebSocketSession;
 
 import javax.xml.ws.Response;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
@@ -43,16 +44,16 @@ public class CommunicationContext {
     }
 
     @SuppressWarnings("unchecked")
-    public void createResultHandler(CommunicationTask task) {
+    public void createResultHandler(List<CommunicationTask> tasks) {
         // TODO: not so sure about this
-        resultHandler = result -> task.getHandler(chargeBoxId)
-                                      .handleResponse(new DummyResponse(result.getPayload()));
+        resultHandler = result -> tasks.forEach(task -> task.getHandler(chargeBoxId)
+                                                            .handleResponse(new DummyResponse(result.getPayload())));
     }
 
-    public void createErrorHandler(CommunicationTask task) {
+    public void createErrorHandler(List<CommunicationTask> tasks) {
         // TODO: not so sure about this
-        errorHandler = result -> task.defaultCallback()
-                                     .success(chargeBoxId, result);
+        errorHandler = result -> tasks.forEach(task -> task.defaultCallback()
+                                                           .success(chargeBoxId, result));
     }
 
     @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
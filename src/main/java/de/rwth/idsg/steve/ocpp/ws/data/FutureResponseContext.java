@@ -6,6 +6,9 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+
 /**
  * @author Sevket Goekay <goekay@dbis.rwth-aachen.de>
  * @since 23.03.2015
@@ -14,6 +17,12 @@ import lombok.Setter;
 @Setter
 @RequiredArgsConstructor
 public class FutureResponseContext {
-    private final CommunicationTask task;
+    // More than one, if equal calls were coalesced
+    private final List<CommunicationTask> tasks;
+    private final String chargeBoxId;
+    private final String action;
     private final Class<? extends ResponseType> responseClass;
+
+    // Fails the task, if the response does not arrive in time
+    private ScheduledFuture<?> timeoutSchedule;
 }
@@ -0,0 +1,34 @@
+package de.rwth.idsg.steve.ocpp.ws.data;
+
+import de.rwth.idsg.ocpp.jaxb.RequestType;
+import de.rwth.idsg.steve.ocpp.CommunicationTask;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A call that waits in the outgoing queue of a station. Equal idempotent calls are coalesced into one, which is why
+ * there might be multiple tasks waiting for the response of the call.
+ *
+ * @since 18.10.2026
+ */
+@Getter
+@RequiredArgsConstructor
+public class OutgoingCall {
+    private final String chargeBoxId;
+    private final ActionResponsePair actionResponsePair;
+    private final RequestType request;
+
+    // Sends the call, when it is its turn
+    private final Consumer<OutgoingCall> sender;
+
+    private final List<CommunicationTask> tasks = new ArrayList<>(1);
+    private final long enqueuedAt = System.currentTimeMillis();
+
+    public String getAction() {
+        return actionResponsePair.getAction();
+    }
+}
@@ -11,9 +11,6 @@ public final class Ocpp12TypeStore extends AbstractTypeStore {
     public static final Ocpp12TypeStore INSTANCE = new Ocpp12TypeStore();
 
     private Ocpp12TypeStore() {
-        super(
-                ocpp.cs._2010._08.ObjectFactory.class.getPackage().getName(),
-                ocpp.cp._2010._08.ObjectFactory.class.getPackage().getName()
-        );
+        super(Ocpp12TypeStoreMaps.REQUEST_CLASSES, Ocpp12TypeStoreMaps.ACTION_RESPONSES);
     }
 }
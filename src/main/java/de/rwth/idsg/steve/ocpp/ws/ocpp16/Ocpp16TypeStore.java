@@ -11,9 +11,6 @@ public final class Ocpp16TypeStore extends AbstractTypeStore {
     public static final Ocpp16TypeStore INSTANCE = new Ocpp16TypeStore();
 
     private Ocpp16TypeStore() {
-        super(
-                ocpp.cs._2015._10.ObjectFactory.class.getPackage().getName(),
-                ocpp.cp._2015._10.ObjectFactory.class.getPackage().getName()
-        );
+        super(Ocpp16TypeStoreMaps.REQUEST_CLASSES, Ocpp16TypeStoreMaps.ACTION_RESPONSES);
     }
 }
@@ -1,7 +1,5 @@
 package de.rwth.idsg.steve.ocpp.ws.ocpp16;
 
-import de.rwth.idsg.ocpp.jaxb.RequestType;
-import de.rwth.idsg.ocpp.jaxb.ResponseType;
 import de.rwth.idsg.steve.ocpp.OcppProtocol;
 import de.rwth.idsg.steve.ocpp.OcppVersion;
 import de.rwth.idsg.steve.ocpp.soap.CentralSystemService16_SoapServer;
@@ -9,8 +7,6 @@ import de.rwth.idsg.steve.ocpp.ws.AbstractWebSocketEndpoint;
 import de.rwth.idsg.steve.ocpp.ws.FutureResponseContextStore;
 import de.rwth.idsg.steve.ocpp.ws.pipeline.AbstractCallHandler;
 import de.rwth.idsg.steve.ocpp.ws.pipeline.Deserializer;
-import de.rwth.idsg.steve.ocpp.ws.pipeline.IncomingPipeline;
-import lombok.RequiredArgsConstructor;
 import ocpp.cs._2015._10.AuthorizeRequest;
 import ocpp.cs._2015._10.BootNotificationRequest;
 import ocpp.cs._2015._10.DataTransferRequest;
@@ -39,8 +35,7 @@ public class Ocpp16WebSocketEndpoint extends AbstractWebSocketEndpoint {
     @PostConstruct
     public void init() {
         Deserializer deserializer = new Deserializer(futureResponseContextStore, Ocpp16TypeStore.INSTANCE);
-        IncomingPipeline pipeline = new IncomingPipeline(deserializer, new Ocpp16CallHandler(server));
-        super.init(pipeline);
+        super.init(deserializer, new Ocpp16CallHandler(server));
     }
 
     @Override
@@ -48,49 +43,22 @@ public class Ocpp16WebSocketEndpoint extends AbstractWebSocketEndpoint {
         return OcppVersion.V_16;
     }
 
-    @RequiredArgsConstructor
     private static class Ocpp16CallHandler extends AbstractCallHandler {
 
-        private final CentralSystemService16_SoapServer server;
-
-        @Override
-        protected ResponseType dispatch(RequestType params, String chargeBoxId) {
-            ResponseType r;
-
-            if (params instanceof BootNotificationRequest) {
-                r = server.bootNotificationWithTransport((BootNotificationRequest) params, chargeBoxId, OcppProtocol.V_16_JSON);
-
-            } else if (params instanceof FirmwareStatusNotificationRequest) {
-                r = server.firmwareStatusNotification((FirmwareStatusNotificationRequest) params, chargeBoxId);
-
-            } else if (params instanceof StatusNotificationRequest) {
-                r = server.statusNotification((StatusNotificationRequest) params, chargeBoxId);
-
-            } else if (params instanceof MeterValuesRequest) {
-                r = server.meterValues((MeterValuesRequest) params, chargeBoxId);
-
-            } else if (params instanceof DiagnosticsStatusNotificationRequest) {
-                r = server.diagnosticsStatusNotification((DiagnosticsStatusNotificationRequest) params, chargeBoxId);
-
-            } else if (params instanceof StartTransactionRequest) {
-                r = server.startTransaction((StartTransactionRequest) params, chargeBoxId);
-
-            } else if (params instanceof StopTransactionRequest) {
-                r = server.stopTransaction((StopTransactionRequest) params, chargeBoxId);
-
-            } else if (params instanceof HeartbeatRequest) {
-                r = server.heartbeat((HeartbeatRequest) params, chargeBoxId);
-
-            } else if (params instanceof AuthorizeRequest) {
-                r = server.authorize((AuthorizeRequest) params, chargeBoxId);
-
-            } else if (params instanceof DataTransferRequest) {
-                r = server.dataTransfer((DataTransferRequest) params, chargeBoxId);
-            } else {
-                throw new IllegalArgumentException("Unexpected RequestType, dispatch method not found");
-            }
-
-            return r;
+        private Ocpp16CallHandler(CentralSystemService16_SoapServer server) {
+            super(OcppVersion.V_16);
+
+            register(HeartbeatRequest.class, server::heartbeat);
+            register(MeterValuesRequest.class, server::meterValues);
+            register(StatusNotificationRequest.class, server::statusNotification);
+            register(BootNotificationRequest.class, (params, chargeBoxId) ->
+                    server.bootNotificationWithTransport(params, chargeBoxId, OcppProtocol.V_16_JSON));
+            register(StartTransactionRequest.class, server::startTransaction);
+            register(StopTransactionRequest.class, server::stopTransaction);
+            register(AuthorizeRequest.class, server::authorize);
+            register(FirmwareStatusNotificationRequest.class, server::firmwareStatusNotification);
+            register(DiagnosticsStatusNotificationRequest.class, server::diagnosticsStatusNotification);
+            register(DataTransferRequest.class, server::dataTransfer);
         }
     }
 }
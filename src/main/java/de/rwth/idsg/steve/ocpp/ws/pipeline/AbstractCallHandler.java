@@ -2,34 +2,85 @@ package de.rwth.idsg.steve.ocpp.ws.pipeline;
 
 import de.rwth.idsg.ocpp.jaxb.RequestType;
 import de.rwth.idsg.ocpp.jaxb.ResponseType;
+import de.rwth.idsg.steve.ocpp.OcppVersion;
 import de.rwth.idsg.steve.ocpp.ws.ErrorFactory;
 import de.rwth.idsg.steve.ocpp.ws.data.CommunicationContext;
 import de.rwth.idsg.steve.ocpp.ws.data.OcppJsonCall;
 import de.rwth.idsg.steve.ocpp.ws.data.OcppJsonResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.jmx.export.naming.SelfNaming;
 
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 
 /**
+ * Dispatches incoming calls with a table: request class (as resolved by the TypeStore) --> handler of the action.
+ * The handlers are registered by the extending classes at construction time. Every handler counts its invocations
+ * and their latency, which are exposed via JMX (under the name of the OCPP version).
+ *
  * @author Sevket Goekay <goekay@dbis.rwth-aachen.de>
  * @since 17.03.2015
  */
-public abstract class AbstractCallHandler implements Consumer<CommunicationContext> {
+@ManagedResource(description = "Processing of incoming calls per action")
+public abstract class AbstractCallHandler implements Consumer<CommunicationContext>, SelfNaming {
     private final Logger log = LoggerFactory.getLogger(getClass());
 
+    /**
+     * Upper bounds (inclusive) of the latency buckets. The last bucket counts everything above.
+     */
+    private static final long[] LATENCY_BUCKETS_IN_MILLIS = {1, 5, 10, 50, 100, 500, 1000};
+
+    private final OcppVersion version;
+
+    // Written only at construction time
+    private final Map<Class<? extends RequestType>, ActionHandler> handlers = new HashMap<>();
+
+    protected AbstractCallHandler(OcppVersion version) {
+        this.version = version;
+    }
+
     @Override
     public void accept(CommunicationContext context) {
         OcppJsonCall call = (OcppJsonCall) context.getIncomingMessage();
         String messageId = call.getMessageId();
+        RequestType params = call.getPayload();
+
+        // e.g. a call with null as payload
+        if (params == null) {
+            log.error("The call '{}' has no payload", call.getAction());
+            context.setOutgoingMessage(ErrorFactory.payloadProcessingError(messageId, "The call has no payload"));
+            return;
+        }
+
+        ActionHandler handler = handlers.get(params.getClass());
+        if (handler == null) {
+            log.error("Unexpected RequestType '{}', dispatch method not found", params.getClass().getName());
+            context.setOutgoingMessage(ErrorFactory.payloadProcessingError(messageId,
+                    "Unexpected RequestType, dispatch method not found"));
+            return;
+        }
 
         ResponseType response;
+        long start = System.nanoTime();
         try {
-            response = dispatch(call.getPayload(), context.getChargeBoxId());
+            response = handler.function.apply(params, context.getChargeBoxId());
         } catch (Exception e) {
+            handler.errorCount.increment();
             log.error("Exception occurred", e);
             context.setOutgoingMessage(ErrorFactory.payloadProcessingError(messageId, e.getMessage()));
             return;
+        } finally {
+            handler.record(System.nanoTime() - start);
         }
 
         OcppJsonResult result = new OcppJsonResult();
@@ -38,5 +89,73 @@ public abstract class AbstractCallHandler implements Consumer<CommunicationConte
         context.setOutgoingMessage(result);
     }
 
-    protected abstract ResponseType dispatch(RequestType params, String chargeBoxId);
+    @Override
+    public ObjectName getObjectName() throws MalformedObjectNameException {
+        return new ObjectName("de.rwth.idsg.steve:type=IncomingCalls,version=" + version.name());
+    }
+
+    @ManagedAttribute(description = "Per action: number of calls, errors, average latency and latency histogram")
+    public String[] getStatistics() {
+        return handlers.values()
+                       .stream()
+                       .map(ActionHandler::toString)
+                       .sorted()
+                       .toArray(String[]::new);
+    }
+
+    @SuppressWarnings("unchecked")
+    protected <T extends RequestType> void register(Class<T> requestClass,
+                                                    BiFunction<T, String, ? extends ResponseType> function) {
+        // The cast is safe, since the handler is only looked up with the class of the request
+        String action = requestClass.getSimpleName().replaceFirst("Request$", "");
+        handlers.put(requestClass, new ActionHandler(action,
+                (BiFunction<RequestType, String, ? extends ResponseType>) function));
+    }
+
+    // -------------------------------------------------------------------------
+    // Classes
+    // -------------------------------------------------------------------------
+
+    private static class ActionHandler {
+        private final String name;
+        private final BiFunction<RequestType, String, ? extends ResponseType> function;
+
+        private final LongAdder errorCount = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLongArray histogram = new AtomicLongArray(LATENCY_BUCKETS_IN_MILLIS.length + 1);
+
+        private ActionHandler(String name, BiFunction<RequestType, String, ? extends ResponseType> function) {
+            this.name = name;
+            this.function = function;
+        }
+
+        private void record(long nanos) {
+            totalNanos.add(nanos);
+
+            long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+            int bucket = 0;
+            while (bucket < LATENCY_BUCKETS_IN_MILLIS.length && millis > LATENCY_BUCKETS_IN_MILLIS[bucket]) {
+                bucket++;
+            }
+            histogram.incrementAndGet(bucket);
+        }
+
+        @Override
+        public String toString() {
+            long count = 0;
+            StringBuilder buckets = new StringBuilder();
+            for (int i = 0; i < histogram.length(); i++) {
+                long c = histogram.get(i);
+                count += c;
+                String label = i < LATENCY_BUCKETS_IN_MILLIS.length
+                        ? "<=" + LATENCY_BUCKETS_IN_MILLIS[i]
+                        : ">" + LATENCY_BUCKETS_IN_MILLIS[i - 1];
+                buckets.append(label).append("ms=").append(c).append(' ');
+            }
+
+            long avgMicros = count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalNanos.sum() / count);
+            return String.format("%s: count=%d, errors=%d, avgMicros=%d, %s",
+                    name, count, errorCount.sum(), avgMicros, buckets.toString().trim());
+        }
+    }
 }
@@ -2,7 +2,6 @@ package de.rwth.idsg.steve.ocpp.ws.pipeline;
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.TreeNode;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import de.rwth.idsg.ocpp.jaxb.RequestType;
 import de.rwth.idsg.ocpp.jaxb.ResponseType;
@@ -34,7 +33,8 @@ import java.util.function.Consumer;
 @RequiredArgsConstructor
 public class Deserializer implements Consumer<CommunicationContext> {
 
-    private final ObjectMapper mapper = JsonObjectMapper.INSTANCE.getMapper();
+    private final JsonObjectMapper jsonObjectMapper = JsonObjectMapper.INSTANCE;
+    private final ObjectMapper mapper = jsonObjectMapper.getMapper();
 
     private final FutureResponseContextStore futureResponseContextStore;
     private final TypeStore typeStore;
@@ -102,12 +102,11 @@ public class Deserializer implements Consumer<CommunicationContext> {
             return;
         }
 
-        // parse request payload
+        // parse request payload, directly from the stream without an intermediate tree
         RequestType req;
         try {
             parser.nextToken();
-            JsonNode requestPayload = parser.readValueAsTree();
-            req = mapper.treeToValue(requestPayload, clazz);
+            req = jsonObjectMapper.getReader(clazz).readValue(parser);
         } catch (IOException e) {
             log.error("Exception occurred", e);
             context.setOutgoingMessage(ErrorFactory.payloadDeserializeError(messageId, e.getMessage()));
@@ -138,8 +137,7 @@ public class Deserializer implements Consumer<CommunicationContext> {
         ResponseType res;
         try {
             parser.nextToken();
-            JsonNode responsePayload = parser.readValueAsTree();
-            res = mapper.treeToValue(responsePayload, responseContext.getResponseClass());
+            res = jsonObjectMapper.getReader(responseContext.getResponseClass()).readValue(parser);
         } catch (IOException e) {
             throw new SteveException("Deserialization of incoming response payload failed", e);
         }
@@ -149,7 +147,7 @@ public class Deserializer implements Consumer<CommunicationContext> {
         result.setPayload(res);
 
         context.setIncomingMessage(result);
-        context.createResultHandler(responseContext.getTask());
+        context.createResultHandler(responseContext.getTasks());
     }
 
     /**
@@ -201,7 +199,7 @@ public class Deserializer implements Consumer<CommunicationContext> {
         error.setErrorDetails(details);
 
         context.setIncomingMessage(error);
-        context.createErrorHandler(responseContext.getTask());
+        context.createErrorHandler(responseContext.getTasks());
     }
 
 }
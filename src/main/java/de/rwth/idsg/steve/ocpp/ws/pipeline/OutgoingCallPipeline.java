@@ -23,8 +23,8 @@ public class OutgoingCallPipeline implements Consumer<CommunicationContext> {
     @Autowired
     public OutgoingCallPipeline(FutureResponseContextStore store) {
         chainedConsumers = OutgoingCallPipeline.start(Serializer.INSTANCE)
-                                               .andThen(Sender.INSTANCE)
-                                               .andThen(saveInStore(store));
+                                               .andThen(saveInStore(store))
+                                               .andThen(send(store));
     }
 
     @Override
@@ -34,13 +34,25 @@ public class OutgoingCallPipeline implements Consumer<CommunicationContext> {
 
     private static Consumer<CommunicationContext> saveInStore(FutureResponseContextStore store) {
         return context -> {
-            // All went well, and the call is sent. Store the response context for later lookup.
+            // Before sending, since the response might arrive before the sending thread returns
             store.add(context.getSession(),
                       context.getOutgoingMessage().getMessageId(),
                       context.getFutureResponseContext());
         };
     }
 
+    private static Consumer<CommunicationContext> send(FutureResponseContextStore store) {
+        return context -> {
+            try {
+                Sender.INSTANCE.accept(context);
+            } catch (RuntimeException e) {
+                // No response will come. The caller handles the failure
+                store.discard(context.getSession(), context.getOutgoingMessage().getMessageId());
+                throw e;
+            }
+        };
+    }
+
     private static Consumer<CommunicationContext> start(Consumer<CommunicationContext> starter) {
         return starter;
     }
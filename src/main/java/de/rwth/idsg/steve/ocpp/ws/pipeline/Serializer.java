@@ -1,9 +1,8 @@
 package de.rwth.idsg.steve.ocpp.ws.pipeline;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SegmentedStringWriter;
 import de.rwth.idsg.steve.SteveException;
 import de.rwth.idsg.steve.ocpp.ws.ErrorFactory;
 import de.rwth.idsg.steve.ocpp.ws.JsonObjectMapper;
@@ -30,13 +29,14 @@ import java.util.function.Consumer;
 public enum Serializer implements Consumer<CommunicationContext> {
     INSTANCE;
 
-    private final ObjectMapper mapper = JsonObjectMapper.INSTANCE.getMapper();
+    private final JsonObjectMapper jsonObjectMapper = JsonObjectMapper.INSTANCE;
+    private final JsonFactory factory = jsonObjectMapper.getMapper().getFactory();
 
     @Override
     public void accept(CommunicationContext context) {
         OcppJsonMessage message = context.getOutgoingMessage();
 
-        ArrayNode str;
+        String str;
         MessageType messageType = message.getMessageType();
         switch (messageType) {
             case CALL:
@@ -55,12 +55,7 @@ public enum Serializer implements Consumer<CommunicationContext> {
                 throw new SteveException("Unknown enum type");
         }
 
-        try {
-            String result = mapper.writeValueAsString(str);
-            context.setOutgoingString(result);
-        } catch (IOException e) {
-            throw new SteveException("The outgoing message could not be serialized", e);
-        }
+        context.setOutgoingString(str);
     }
 
     // -------------------------------------------------------------------------
@@ -71,43 +66,40 @@ public enum Serializer implements Consumer<CommunicationContext> {
      * Do NOT catch and handle exceptions for outgoing CALLs. Do NOT send the message.
      * Let the processing fail and acknowledge the user.
      */
-    private ArrayNode handleCall(OcppJsonCall call) {
-        JsonNode payloadNode;
+    private String handleCall(OcppJsonCall call) {
         try {
-            payloadNode = mapper.valueToTree(call.getPayload());
-        } catch (IllegalArgumentException e) {
+            return write(gen -> {
+                gen.writeNumber(call.getMessageType().getTypeNr());
+                gen.writeString(call.getMessageId());
+                gen.writeString(call.getAction());
+                writePayload(gen, call.getPayload());
+            });
+        } catch (IOException | IllegalArgumentException e) {
             throw new SteveException("The payload of the outgoing call could not be converted to JSON", e);
         }
-
-        return mapper.createArrayNode()
-                     .add(call.getMessageType().getTypeNr())
-                     .add(call.getMessageId())
-                     .add(call.getAction())
-                     .add(payloadNode);
     }
 
     /**
      * Catch exceptions and wrap them in outgoing ERRORs for outgoing RESPONSEs.
      */
-    private ArrayNode handleResult(OcppJsonResult result) {
-        JsonNode payloadNode;
+    private String handleResult(OcppJsonResult result) {
         try {
-            payloadNode = mapper.valueToTree(result.getPayload());
-        } catch (IllegalArgumentException e) {
+            return write(gen -> {
+                gen.writeNumber(result.getMessageType().getTypeNr());
+                gen.writeString(result.getMessageId());
+                writePayload(gen, result.getPayload());
+            });
+        } catch (IOException | IllegalArgumentException e) {
+            // The partially written result is discarded together with its buffer
             log.error("Exception occurred", e);
             return handleError(ErrorFactory.payloadSerializeError(result.getMessageId(), e.getMessage()));
         }
-
-        return mapper.createArrayNode()
-                     .add(result.getMessageType().getTypeNr())
-                     .add(result.getMessageId())
-                     .add(payloadNode);
     }
 
     /**
-     * No exception to catch during serialization, since the fields of the error are simple Strings.
+     * No exception to expect during serialization, since the fields of the error are simple Strings.
      */
-    private ArrayNode handleError(OcppJsonError error) {
+    private String handleError(OcppJsonError error) {
         // From spec:
         // ErrorDescription - Should be filled in if possible, otherwise a clear empty string "".
         String description;
@@ -117,19 +109,52 @@ public enum Serializer implements Consumer<CommunicationContext> {
             description = "";
         }
 
-        // From spec:
-        // ErrorDetails - This JSON object describes error details in an undefined way.
-        // If there are no error details you should fill in an empty object {}, missing or null is not allowed
-        ObjectNode detailsNode = mapper.createObjectNode();
-        if (error.isSetDetails()) {
-            detailsNode.set("errorMsg", mapper.getNodeFactory().textNode(error.toStringErrorDetails()));
+        try {
+            return write(gen -> {
+                gen.writeNumber(error.getMessageType().getTypeNr());
+                gen.writeString(error.getMessageId());
+                gen.writeString(error.getErrorCode().name());
+                gen.writeString(description);
+
+                // From spec:
+                // ErrorDetails - This JSON object describes error details in an undefined way.
+                // If there are no error details you should fill in an empty object {}, missing or null is not allowed
+                gen.writeStartObject();
+                if (error.isSetDetails()) {
+                    gen.writeStringField("errorMsg", error.toStringErrorDetails());
+                }
+                gen.writeEndObject();
+            });
+        } catch (IOException e) {
+            throw new SteveException("The outgoing message could not be serialized", e);
         }
+    }
+
+    /**
+     * Streams the JSON array of the message into a buffer (recycled per thread by Jackson), instead of building a tree
+     * of the message first.
+     */
+    private String write(ElementWriter elements) throws IOException {
+        try (SegmentedStringWriter out = new SegmentedStringWriter(factory._getBufferRecycler())) {
+            try (JsonGenerator gen = factory.createGenerator(out)) {
+                gen.writeStartArray();
+                elements.write(gen);
+                gen.writeEndArray();
+            }
+            return out.getAndClear();
+        }
+    }
+
+    private void writePayload(JsonGenerator gen, Object payload) throws IOException {
+        if (payload == null) {
+            gen.writeNull();
+        } else {
+            jsonObjectMapper.getWriter(payload.getClass()).writeValue(gen, payload);
+        }
+    }
 
-        return mapper.createArrayNode()
-                     .add(error.getMessageType().getTypeNr())
-                     .add(error.getMessageId())
-                     .add(error.getErrorCode().name())
-                     .add(description)
-                     .add(detailsNode);
+    @FunctionalInterface
+    private interface ElementWriter {
+        void write(JsonGenerator gen) throws IOException;
     }
 }
@@ -0,0 +1,28 @@
+package de.rwth.idsg.steve.repository;
+
+import com.google.common.collect.ImmutableSet;
+
+import java.util.Set;
+
+/**
+ * Operations that can be rolled out to many stations with a campaign
+ *
+ * @since 18.10.2026
+ */
+public enum CampaignOperation {
+    UPDATE_FIRMWARE("OK"),
+    CHANGE_CONFIGURATION("Accepted", "RebootRequired"),
+    SEND_LOCAL_LIST("Accepted");
+
+    // The responses (as set by the task) with which a station succeeded. Any other response, like Rejected or an
+    // OCPP-J CALL_ERROR, means that the station failed
+    private final Set<String> successResponses;
+
+    CampaignOperation(String... successResponses) {
+        this.successResponses = ImmutableSet.copyOf(successResponses);
+    }
+
+    public boolean isSuccess(String response) {
+        return successResponses.contains(response);
+    }
+}
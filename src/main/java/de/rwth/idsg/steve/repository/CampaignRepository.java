@@ -0,0 +1,36 @@
+package de.rwth.idsg.steve.repository;
+
+import de.rwth.idsg.steve.ocpp.OcppVersion;
+import de.rwth.idsg.steve.repository.dto.Campaign;
+import de.rwth.idsg.steve.repository.dto.CampaignStation;
+import de.rwth.idsg.steve.repository.dto.ChargePointSelect;
+import de.rwth.idsg.steve.web.dto.CampaignSettings;
+
+import java.util.List;
+
+/**
+ * @since 18.10.2026
+ */
+public interface CampaignRepository {
+    int add(CampaignOperation operation, OcppVersion version, String params, CampaignSettings settings,
+            List<ChargePointSelect> stations);
+
+    List<Campaign> getOverview();
+    Campaign get(int campaignPk);
+    List<Campaign> getActive();
+    List<CampaignStation> getStations(int campaignPk);
+
+    /**
+     * Ordered by chargeBoxId, such that the batches are deterministic
+     */
+    List<ChargePointSelect> getPendingStations(int campaignPk, int limit);
+
+    void updateStatus(int campaignPk, CampaignStatus status, String reason);
+
+    /**
+     * Stores the results of the stations in one transaction
+     */
+    void updateStationResults(int campaignPk, List<CampaignStation> results);
+
+    void updateStations(int campaignPk, List<String> chargeBoxIds, CampaignStationStatus status, String result);
+}
@@ -0,0 +1,12 @@
+package de.rwth.idsg.steve.repository;
+
+/**
+ * @since 18.10.2026
+ */
+public enum CampaignStationStatus {
+
+    PENDING,    // Not sent yet
+    SENT,       // Sent, the result is not known yet (or was lost with a restart)
+    SUCCEEDED,  // The station responded
+    FAILED      // The request could not be delivered or the station did not respond
+}
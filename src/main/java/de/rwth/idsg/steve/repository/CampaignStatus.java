@@ -0,0 +1,17 @@
+package de.rwth.idsg.steve.repository;
+
+/**
+ * @since 18.10.2026
+ */
+public enum CampaignStatus {
+
+    RUNNING,    // Sends batches to the stations, as the rate allows
+    PAUSED,     // Paused by the user. The batch that was sent before is still collected
+    HALTED,     // Paused automatically, because too many stations failed
+    FINISHED,   // All stations were sent to
+    CANCELLED;  // Stopped by the user. The remaining stations are not sent to
+
+    public boolean isActive() {
+        return this == RUNNING || this == PAUSED || this == HALTED;
+    }
+}
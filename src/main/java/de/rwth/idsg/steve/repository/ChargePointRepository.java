@@ -18,6 +18,12 @@ import java.util.Map;
  */
 public interface ChargePointRepository {
     boolean isRegistered(String chargeBoxId);
+
+    /**
+     * @return the cached result of {@link #isRegistered(String)} without a DB lookup, or null if there is none
+     */
+    @Nullable Boolean getCachedRegistration(String chargeBoxId);
+
     List<ChargePointSelect> getChargePointSelect(OcppProtocol protocol);
     List<String> getChargeBoxIds();
     Map<String, Integer> getChargeBoxIdPkPair(List<String> chargeBoxIdList);
@@ -37,4 +43,12 @@ public interface ChargePointRepository {
     int addChargePoint(ChargePointForm form);
     void updateChargePoint(ChargePointForm form);
     void deleteChargePoint(int chargeBoxPk);
+
+    /**
+     * The table CONNECTOR_STATUS_LATEST is maintained by the application with every new connector status. If it ever
+     * gets out of sync (e.g. after manual changes to the connector status log), this rebuilds it from scratch.
+     *
+     * @return the number of connectors with a status
+     */
+    int rebuildConnectorStatusLatest();
 }
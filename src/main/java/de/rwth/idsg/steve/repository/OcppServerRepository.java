@@ -1,6 +1,7 @@
 package de.rwth.idsg.steve.repository;
 
 import de.rwth.idsg.steve.repository.dto.InsertConnectorStatusParams;
+import de.rwth.idsg.steve.repository.dto.InsertMeterValuesParams;
 import de.rwth.idsg.steve.repository.dto.InsertTransactionParams;
 import de.rwth.idsg.steve.repository.dto.UpdateChargeboxParams;
 import de.rwth.idsg.steve.repository.dto.UpdateTransactionParams;
@@ -26,6 +27,12 @@ public interface OcppServerRepository {
     void insertMeterValues(String chargeBoxIdentity, List<MeterValue> list, int connectorId, Integer transactionId);
     void insertMeterValues(String chargeBoxIdentity, List<MeterValue> list, int transactionId);
 
+    /**
+     * Writes the meter values of many messages (possibly from different stations) with multi-row inserts
+     * in one transaction.
+     */
+    void insertMeterValues(List<InsertMeterValuesParams> paramsList);
+
     Integer insertTransaction(InsertTransactionParams params);
     void updateTransaction(UpdateTransactionParams params);
 }
@@ -0,0 +1,42 @@
+package de.rwth.idsg.steve.repository;
+
+import de.rwth.idsg.steve.ocpp.CommunicationTask;
+import de.rwth.idsg.steve.repository.dto.TaskHistory;
+import de.rwth.idsg.steve.repository.dto.TaskOverview;
+import org.jetbrains.annotations.Nullable;
+import org.joda.time.DateTime;
+
+import java.util.List;
+
+/**
+ * @since 18.10.2026
+ */
+public interface TaskHistoryRepository {
+    void insert(int taskId, CommunicationTask<?, ?> task);
+
+    /**
+     * @return 0, if there are no tasks
+     */
+    int getMaxTaskId();
+
+    int getCount();
+
+    /**
+     * The latest tasks, in descending order of their ids
+     */
+    List<TaskOverview> getOverview(int limit);
+
+    @Nullable TaskHistory get(int taskId);
+
+    /**
+     * @return the number of deleted tasks
+     */
+    int deleteFinishedBefore(DateTime threshold);
+
+    /**
+     * Deletes the oldest tasks, such that at most maxSize are left
+     *
+     * @return the number of deleted tasks
+     */
+    int deleteAllButLatest(int maxSize);
+}
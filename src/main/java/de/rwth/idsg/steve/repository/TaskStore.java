@@ -1,6 +1,7 @@
 package de.rwth.idsg.steve.repository;
 
 import de.rwth.idsg.steve.ocpp.CommunicationTask;
+import de.rwth.idsg.steve.repository.dto.TaskHistory;
 import de.rwth.idsg.steve.repository.dto.TaskOverview;
 
 import java.util.List;
@@ -10,8 +11,31 @@ import java.util.List;
  * @since 29.12.2014
  */
 public interface TaskStore {
-    List<TaskOverview> getOverview();
+
+    /**
+     * In descending order of the task ids
+     */
+    List<TaskOverview> getOverview(int offset, int limit);
+
+    int getCount();
+
+    /**
+     * @return whether the task is in memory, i.e. get() can return it
+     */
+    boolean contains(Integer taskId);
+
     CommunicationTask get(Integer taskId);
+
+    /**
+     * For finished tasks that were evicted from memory, if persistence is enabled
+     */
+    TaskHistory getHistory(Integer taskId);
+
     Integer add(CommunicationTask task);
+
+    /**
+     * Only clears the memory. The history in the database stays, and so do the tasks that are not persisted yet (they
+     * are evicted after the next maintenance)
+     */
     void clearFinished();
 }
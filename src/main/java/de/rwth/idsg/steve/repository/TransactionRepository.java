@@ -29,4 +29,12 @@ public interface TransactionRepository {
      * Therefore, we have to consider that multiple stations might have active transactions for the same ocppIdTag.
      */
     List<String> getChargeBoxIdsOfActiveTransactions(String ocppIdTag);
+
+    /**
+     * The table ACTIVE_TRANSACTION is maintained by the application, when transactions start and stop. If it ever gets
+     * out of sync (e.g. after manual changes to the transaction tables), this rebuilds it from scratch.
+     *
+     * @return the number of active transactions
+     */
+    int rebuildActiveTransactions();
 }
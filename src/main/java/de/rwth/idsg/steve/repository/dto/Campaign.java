@@ -0,0 +1,44 @@
+package de.rwth.idsg.steve.repository.dto;
+
+import de.rwth.idsg.steve.ocpp.OcppVersion;
+import de.rwth.idsg.steve.repository.CampaignOperation;
+import de.rwth.idsg.steve.repository.CampaignStationStatus;
+import de.rwth.idsg.steve.repository.CampaignStatus;
+import lombok.Builder;
+import lombok.Getter;
+import org.joda.time.DateTime;
+
+import java.util.Map;
+
+/**
+ * @since 18.10.2026
+ */
+@Getter
+@Builder
+public final class Campaign {
+    private final int campaignPk;
+    private final CampaignOperation operation;
+    private final OcppVersion ocppVersion;
+
+    // Parameters of the operation (without the stations), as JSON
+    private final String params;
+
+    private final double stationsPerSecond;
+    private final int batchSize;
+    private final int maxErrorPercentage;
+
+    private final CampaignStatus status;
+    private final String statusReason;
+    private final DateTime createdOn;
+
+    // Number of stations per status
+    private final Map<CampaignStationStatus, Integer> stationCounts;
+
+    public int getStationCount(CampaignStationStatus status) {
+        return stationCounts.getOrDefault(status, 0);
+    }
+
+    public int getTotalStationCount() {
+        return stationCounts.values().stream().mapToInt(Integer::intValue).sum();
+    }
+}
@@ -0,0 +1,18 @@
+package de.rwth.idsg.steve.repository.dto;
+
+import de.rwth.idsg.steve.repository.CampaignStationStatus;
+import lombok.Builder;
+import lombok.Getter;
+import org.joda.time.DateTime;
+
+/**
+ * @since 18.10.2026
+ */
+@Getter
+@Builder
+public final class CampaignStation {
+    private final String chargeBoxId;
+    private final CampaignStationStatus status;
+    private final String result;
+    private final DateTime statusTimestamp;
+}
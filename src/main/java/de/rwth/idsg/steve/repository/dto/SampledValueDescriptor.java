@@ -0,0 +1,18 @@
+package de.rwth.idsg.steve.repository.dto;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * The optional fields of a sampled value, which are stored once in METER_VALUE_DESCRIPTOR and referenced by the
+ * meter values. Unset fields are null.
+ *
+ * @since 18.10.2026
+ */
+@Getter
+@EqualsAndHashCode
+@Builder
+public final class SampledValueDescriptor {
+    private final String readingContext, format, measurand, location, unit, phase;
+}
@@ -0,0 +1,35 @@
+package de.rwth.idsg.steve.repository.dto;
+
+import de.rwth.idsg.steve.ocpp.OcppVersion;
+import de.rwth.idsg.steve.ocpp.RequestResult;
+import de.rwth.idsg.steve.ocpp.TaskOrigin;
+import lombok.Builder;
+import lombok.Getter;
+import org.joda.time.DateTime;
+
+import java.util.Map;
+
+/**
+ * A finished task as stored in the database. Has the same properties as CommunicationTask (as far as they are
+ * stored), such that the same page can display both.
+ *
+ * @since 18.10.2026
+ */
+@Getter
+@Builder
+public final class TaskHistory {
+    private final int taskId;
+    private final OcppVersion ocppVersion;
+    private final String operationName;
+    private final TaskOrigin origin;
+    private final String caller;
+    private final DateTime startTimestamp, endTimestamp;
+    private final int dispatchedCount, responseCount, errorCount;
+
+    // Without the details of the responses, since they are not stored
+    private final Map<String, RequestResult> resultMap;
+
+    public boolean isFinished() {
+        return true;
+    }
+}
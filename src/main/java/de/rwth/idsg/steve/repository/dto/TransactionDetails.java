@@ -32,6 +32,9 @@ public class TransactionDetails {
         private final DateTime valueTimestamp;
         private final String value, readingContext, format, measurand, location, unit;
 
+        // Null, if the value is not a number (e.g. signed data)
+        @Nullable private final Double numericValue;
+
         // New in OCPP 1.6
         private final String phase;
     }
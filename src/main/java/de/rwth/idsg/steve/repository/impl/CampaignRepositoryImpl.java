@@ -0,0 +1,213 @@
+package de.rwth.idsg.steve.repository.impl;
+
+import de.rwth.idsg.steve.ocpp.OcppTransport;
+import de.rwth.idsg.steve.ocpp.OcppVersion;
+import de.rwth.idsg.steve.repository.CampaignOperation;
+import de.rwth.idsg.steve.repository.CampaignRepository;
+import de.rwth.idsg.steve.repository.CampaignStationStatus;
+import de.rwth.idsg.steve.repository.CampaignStatus;
+import de.rwth.idsg.steve.repository.dto.Campaign;
+import de.rwth.idsg.steve.repository.dto.CampaignStation;
+import de.rwth.idsg.steve.repository.dto.ChargePointSelect;
+import de.rwth.idsg.steve.web.dto.CampaignSettings;
+import jooq.steve.db.tables.records.CampaignRecord;
+import jooq.steve.db.tables.records.CampaignStationRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.joda.time.DateTime;
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.UpdateConditionStep;
+import org.jooq.impl.DSL;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static jooq.steve.db.tables.Campaign.CAMPAIGN;
+import static jooq.steve.db.tables.CampaignStation.CAMPAIGN_STATION;
+
+/**
+ * @since 18.10.2026
+ */
+@Slf4j
+@Repository
+public class CampaignRepositoryImpl implements CampaignRepository {
+
+    private final DSLContext ctx;
+
+    @Autowired
+    public CampaignRepositoryImpl(DSLContext ctx) {
+        this.ctx = ctx;
+    }
+
+    @Override
+    public int add(CampaignOperation operation, OcppVersion version, String params, CampaignSettings settings,
+                   List<ChargePointSelect> stations) {
+        int campaignPk = ctx.transactionResult(configuration -> {
+            DSLContext ctx = DSL.using(configuration);
+
+            int pk = ctx.insertInto(CAMPAIGN)
+                        .set(CAMPAIGN.OPERATION, operation.name())
+                        .set(CAMPAIGN.OCPP_VERSION, version.name())
+                        .set(CAMPAIGN.PARAMS, params)
+                        .set(CAMPAIGN.STATIONS_PER_SECOND, settings.getStationsPerSecond())
+                        .set(CAMPAIGN.BATCH_SIZE, settings.getBatchSize())
+                        .set(CAMPAIGN.MAX_ERROR_PERCENTAGE, settings.getMaxErrorPercentage())
+                        .set(CAMPAIGN.STATUS, CampaignStatus.RUNNING.name())
+                        .returning(CAMPAIGN.CAMPAIGN_PK)
+                        .fetchOne()
+                        .getCampaignPk();
+
+            List<CampaignStationRecord> batch =
+                    stations.stream()
+                            .map(s -> ctx.newRecord(CAMPAIGN_STATION)
+                                         .setCampaignPk(pk)
+                                         .setChargeBoxId(s.getChargeBoxId())
+                                         .setOcppTransport(s.getOcppTransport().name())
+                                         .setEndpointAddress(s.getEndpointAddress())
+                                         .setStatus(CampaignStationStatus.PENDING.name()))
+                            .collect(Collectors.toList());
+
+            ctx.batchInsert(batch).execute();
+            return pk;
+        });
+
+        log.debug("A new campaign '{}' with {} stations is inserted.", campaignPk, stations.size());
+        return campaignPk;
+    }
+
+    @Override
+    public List<Campaign> getOverview() {
+        return getInternal(DSL.trueCondition());
+    }
+
+    @Override
+    public Campaign get(int campaignPk) {
+        return getInternal(CAMPAIGN.CAMPAIGN_PK.equal(campaignPk)).stream()
+                                                                  .findFirst()
+                                                                  .orElse(null);
+    }
+
+    @Override
+    public List<Campaign> getActive() {
+        List<String> active = Arrays.stream(CampaignStatus.values())
+                                    .filter(CampaignStatus::isActive)
+                                    .map(CampaignStatus::name)
+                                    .collect(Collectors.toList());
+
+        return getInternal(CAMPAIGN.STATUS.in(active));
+    }
+
+    @Override
+    public List<CampaignStation> getStations(int campaignPk) {
+        return ctx.selectFrom(CAMPAIGN_STATION)
+                  .where(CAMPAIGN_STATION.CAMPAIGN_PK.equal(campaignPk))
+                  .orderBy(CAMPAIGN_STATION.CHARGE_BOX_ID)
+                  .fetch()
+                  .map(r -> CampaignStation.builder()
+                                           .chargeBoxId(r.getChargeBoxId())
+                                           .status(CampaignStationStatus.valueOf(r.getStatus()))
+                                           .result(r.getResult())
+                                           .statusTimestamp(r.getStatusTimestamp())
+                                           .build());
+    }
+
+    @Override
+    public List<ChargePointSelect> getPendingStations(int campaignPk, int limit) {
+        return ctx.selectFrom(CAMPAIGN_STATION)
+                  .where(CAMPAIGN_STATION.CAMPAIGN_PK.equal(campaignPk))
+                  .and(CAMPAIGN_STATION.STATUS.equal(CampaignStationStatus.PENDING.name()))
+                  .orderBy(CAMPAIGN_STATION.CHARGE_BOX_ID)
+                  .limit(limit)
+                  .fetch()
+                  .map(r -> new ChargePointSelect(OcppTransport.fromName(r.getOcppTransport()),
+                                                  r.getChargeBoxId(),
+                                                  r.getEndpointAddress()));
+    }
+
+    @Override
+    public void updateStatus(int campaignPk, CampaignStatus status, String reason) {
+        ctx.update(CAMPAIGN)
+           .set(CAMPAIGN.STATUS, status.name())
+           .set(CAMPAIGN.STATUS_REASON, reason)
+           .where(CAMPAIGN.CAMPAIGN_PK.equal(campaignPk))
+           .execute();
+    }
+
+    @Override
+    public void updateStationResults(int campaignPk, List<CampaignStation> results) {
+        DateTime now = DateTime.now();
+        ctx.transaction(configuration -> {
+            DSLContext ctx = DSL.using(configuration);
+
+            List<UpdateConditionStep<CampaignStationRecord>> updates =
+                    results.stream()
+                           .map(r -> ctx.update(CAMPAIGN_STATION)
+                                        .set(CAMPAIGN_STATION.STATUS, r.getStatus().name())
+                                        .set(CAMPAIGN_STATION.RESULT, r.getResult())
+                                        .set(CAMPAIGN_STATION.STATUS_TIMESTAMP, now)
+                                        .where(CAMPAIGN_STATION.CAMPAIGN_PK.equal(campaignPk))
+                                        .and(CAMPAIGN_STATION.CHARGE_BOX_ID.equal(r.getChargeBoxId())))
+                           .collect(Collectors.toList());
+
+            ctx.batch(updates).execute();
+        });
+    }
+
+    @Override
+    public void updateStations(int campaignPk, List<String> chargeBoxIds, CampaignStationStatus status,
+                               String result) {
+        ctx.update(CAMPAIGN_STATION)
+           .set(CAMPAIGN_STATION.STATUS, status.name())
+           .set(CAMPAIGN_STATION.RESULT, result)
+           .set(CAMPAIGN_STATION.STATUS_TIMESTAMP, DateTime.now())
+           .where(CAMPAIGN_STATION.CAMPAIGN_PK.equal(campaignPk))
+           .and(CAMPAIGN_STATION.CHARGE_BOX_ID.in(chargeBoxIds))
+           .execute();
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private List<Campaign> getInternal(Condition condition) {
+        List<CampaignRecord> campaigns = ctx.selectFrom(CAMPAIGN)
+                                            .where(condition)
+                                            .orderBy(CAMPAIGN.CAMPAIGN_PK.desc())
+                                            .fetch();
+
+        List<Integer> pks = campaigns.stream().map(CampaignRecord::getCampaignPk).collect(Collectors.toList());
+
+        // Key: campaignPk
+        Map<Integer, Map<CampaignStationStatus, Integer>> counts = new HashMap<>();
+        ctx.select(CAMPAIGN_STATION.CAMPAIGN_PK, CAMPAIGN_STATION.STATUS, DSL.count())
+           .from(CAMPAIGN_STATION)
+           .where(CAMPAIGN_STATION.CAMPAIGN_PK.in(pks))
+           .groupBy(CAMPAIGN_STATION.CAMPAIGN_PK, CAMPAIGN_STATION.STATUS)
+           .fetch()
+           .forEach(r -> counts.computeIfAbsent(r.value1(), k -> new EnumMap<>(CampaignStationStatus.class))
+                               .put(CampaignStationStatus.valueOf(r.value2()), r.value3()));
+
+        return campaigns.stream()
+                        .map(r -> Campaign.builder()
+                                          .campaignPk(r.getCampaignPk())
+                                          .operation(CampaignOperation.valueOf(r.getOperation()))
+                                          .ocppVersion(OcppVersion.valueOf(r.getOcppVersion()))
+                                          .params(r.getParams())
+                                          .stationsPerSecond(r.getStationsPerSecond())
+                                          .batchSize(r.getBatchSize())
+                                          .maxErrorPercentage(r.getMaxErrorPercentage())
+                                          .status(CampaignStatus.valueOf(r.getStatus()))
+                                          .statusReason(r.getStatusReason())
+                                          .createdOn(r.getCreatedOn())
+                                          .stationCounts(counts.getOrDefault(r.getCampaignPk(),
+                                                  new EnumMap<>(CampaignStationStatus.class)))
+                                          .build())
+                        .collect(Collectors.toList());
+    }
+}
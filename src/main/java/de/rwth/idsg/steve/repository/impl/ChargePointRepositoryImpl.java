@@ -1,5 +1,7 @@
 package de.rwth.idsg.steve.repository.impl;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import de.rwth.idsg.steve.SteveException;
 import de.rwth.idsg.steve.ocpp.OcppProtocol;
 import de.rwth.idsg.steve.ocpp.OcppTransport;
@@ -15,6 +17,7 @@ import de.rwth.idsg.steve.web.dto.ConnectorStatusForm;
 import jooq.steve.db.tables.records.AddressRecord;
 import jooq.steve.db.tables.records.ChargeBoxRecord;
 import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
 import org.joda.time.DateTime;
 import org.jooq.Condition;
 import org.jooq.DSLContext;
@@ -30,15 +33,23 @@ import org.jooq.impl.DSL;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import javax.annotation.PostConstruct;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
+import static de.rwth.idsg.steve.SteveConfiguration.CONFIG;
 import static de.rwth.idsg.steve.utils.CustomDSL.date;
 import static de.rwth.idsg.steve.utils.CustomDSL.includes;
 import static jooq.steve.db.tables.ChargeBox.CHARGE_BOX;
 import static jooq.steve.db.tables.Connector.CONNECTOR;
+import static jooq.steve.db.tables.ConnectorMeterValue.CONNECTOR_METER_VALUE;
 import static jooq.steve.db.tables.ConnectorStatus.CONNECTOR_STATUS;
+import static jooq.steve.db.tables.ConnectorStatusLatest.CONNECTOR_STATUS_LATEST;
+import static jooq.steve.db.tables.TransactionStart.TRANSACTION_START;
 
 /**
  * @author Sevket Goekay <goekay@dbis.rwth-aachen.de>
@@ -50,20 +61,63 @@ public class ChargePointRepositoryImpl implements ChargePointRepository {
 
     private final DSLContext ctx;
     private final AddressRepository addressRepository;
+    private final HeartbeatCoalescer heartbeatCoalescer;
+    private final ConnectorPkCache connectorPkCache;
+
+    // Key: chargeBoxId, value: whether the station is registered. Null, if disabled
+    @Nullable private final Cache<String, Boolean> registrationCache;
+
+    // Incremented before every invalidation, see isRegistered(..)
+    private final AtomicLong registrationVersion = new AtomicLong(0);
 
     @Autowired
-    public ChargePointRepositoryImpl(DSLContext ctx, AddressRepository addressRepository) {
+    public ChargePointRepositoryImpl(DSLContext ctx, AddressRepository addressRepository,
+                                     HeartbeatCoalescer heartbeatCoalescer, ConnectorPkCache connectorPkCache) {
         this.ctx = ctx;
         this.addressRepository = addressRepository;
+        this.heartbeatCoalescer = heartbeatCoalescer;
+        this.connectorPkCache = connectorPkCache;
+        this.registrationCache = buildRegistrationCache();
+    }
+
+    /**
+     * After a restart all stations reconnect at once. Load the known ones beforehand, so that their admission
+     * does not hit the DB.
+     */
+    @PostConstruct
+    public void initRegistrationCache() {
+        if (registrationCache != null) {
+            getChargeBoxIds().forEach(id -> registrationCache.put(id, Boolean.TRUE));
+        }
     }
 
     @Override
     public boolean isRegistered(String chargeBoxId) {
-        Record1<Integer> r = ctx.selectOne()
-                                .from(CHARGE_BOX)
-                                .where(CHARGE_BOX.CHARGE_BOX_ID.eq(chargeBoxId))
-                                .fetchOne();
-        return (r != null) && (r.value1() == 1);
+        if (registrationCache == null) {
+            return isRegisteredInternal(chargeBoxId);
+        }
+
+        Boolean cached = registrationCache.getIfPresent(chargeBoxId);
+        if (cached != null) {
+            return cached;
+        }
+
+        // An add or delete that is committed and invalidated between our lookup and put would be overwritten with a
+        // stale value (e.g. a station that was just added would be refused until the entry expires). Every
+        // invalidation increments the version first, so drop our entry again if the version changed meanwhile.
+        long version = registrationVersion.get();
+        boolean isRegistered = isRegisteredInternal(chargeBoxId);
+        registrationCache.put(chargeBoxId, isRegistered);
+        if (registrationVersion.get() != version) {
+            registrationCache.invalidate(chargeBoxId);
+        }
+        return isRegistered;
+    }
+
+    @Nullable
+    @Override
+    public Boolean getCachedRegistration(String chargeBoxId) {
+        return (registrationCache == null) ? null : registrationCache.getIfPresent(chargeBoxId);
     }
 
     @Override
@@ -96,15 +150,17 @@ public class ChargePointRepositoryImpl implements ChargePointRepository {
     @Override
     public List<ChargePoint.Overview> getOverview(ChargePointQueryForm form) {
         return getOverviewInternal(form)
-                .map(r -> ChargePoint.Overview.builder()
-                                              .chargeBoxPk(r.value1())
-                                              .chargeBoxId(r.value2())
-                                              .description(r.value3())
-                                              .ocppProtocol(r.value4())
-                                              .lastHeartbeatTimestampDT(r.value5())
-                                              .lastHeartbeatTimestamp(DateTimeUtils.humanize(r.value5()))
-                                              .build()
-                );
+                .map(r -> {
+                    DateTime lastHeartbeat = heartbeatCoalescer.merge(r.value2(), r.value5());
+                    return ChargePoint.Overview.builder()
+                                               .chargeBoxPk(r.value1())
+                                               .chargeBoxId(r.value2())
+                                               .description(r.value3())
+                                               .ocppProtocol(r.value4())
+                                               .lastHeartbeatTimestampDT(lastHeartbeat)
+                                               .lastHeartbeatTimestamp(DateTimeUtils.humanize(lastHeartbeat))
+                                               .build();
+                });
     }
 
     @SuppressWarnings("unchecked")
@@ -133,6 +189,11 @@ public class ChargePointRepositoryImpl implements ChargePointRepository {
             selectQuery.addConditions(includes(CHARGE_BOX.CHARGE_BOX_ID, form.getChargeBoxId()));
         }
 
+        if (form.getHeartbeatPeriod() != ChargePointQueryForm.QueryPeriodType.ALL) {
+            // The pending heartbeats cannot be merged into the condition below
+            heartbeatCoalescer.flush();
+        }
+
         switch (form.getHeartbeatPeriod()) {
             case ALL:
                 break;
@@ -175,6 +236,8 @@ public class ChargePointRepositoryImpl implements ChargePointRepository {
             throw new SteveException("Charge point not found");
         }
 
+        cbr.setLastHeartbeatTimestamp(heartbeatCoalescer.merge(cbr.getChargeBoxId(), cbr.getLastHeartbeatTimestamp()));
+
         AddressRecord ar = addressRepository.get(ctx, cbr.getAddressPk());
 
         return new ChargePoint.Details(cbr, ar);
@@ -182,26 +245,6 @@ public class ChargePointRepositoryImpl implements ChargePointRepository {
 
     @Override
     public List<ConnectorStatus> getChargePointConnectorStatus(ConnectorStatusForm form) {
-        // find out the latest timestamp for each connector
-        Field<Integer> t1Pk = CONNECTOR_STATUS.CONNECTOR_PK.as("t1_pk");
-        Field<DateTime> t1TsMax = DSL.max(CONNECTOR_STATUS.STATUS_TIMESTAMP).as("t1_ts_max");
-        Table<?> t1 = ctx.select(t1Pk, t1TsMax)
-                         .from(CONNECTOR_STATUS)
-                         .groupBy(CONNECTOR_STATUS.CONNECTOR_PK)
-                         .asTable("t1");
-
-        // get the status table with latest timestamps only
-        Field<Integer> t2Pk = CONNECTOR_STATUS.CONNECTOR_PK.as("t2_pk");
-        Field<DateTime> t2Ts = CONNECTOR_STATUS.STATUS_TIMESTAMP.as("t2_ts");
-        Field<String> t2Status = CONNECTOR_STATUS.STATUS.as("t2_status");
-        Field<String> t2Error = CONNECTOR_STATUS.ERROR_CODE.as("t2_error");
-        Table<?> t2 = ctx.selectDistinct(t2Pk, t2Ts, t2Status, t2Error)
-                         .from(CONNECTOR_STATUS)
-                         .join(t1)
-                            .on(CONNECTOR_STATUS.CONNECTOR_PK.equal(t1.field(t1Pk)))
-                            .and(CONNECTOR_STATUS.STATUS_TIMESTAMP.equal(t1.field(t1TsMax)))
-                         .asTable("t2");
-
         final Condition chargeBoxCondition;
         if (form == null || form.getChargeBoxId() == null) {
             chargeBoxCondition = DSL.noCondition();
@@ -213,23 +256,25 @@ public class ChargePointRepositoryImpl implements ChargePointRepository {
         if (form == null || form.getStatus() == null) {
             statusCondition = DSL.noCondition();
         } else {
-            statusCondition = t2.field(t2Status).eq(form.getStatus());
+            statusCondition = CONNECTOR_STATUS_LATEST.STATUS.eq(form.getStatus());
         }
 
+        // a status without timestamp cannot be ordered, and was never listed as the latest one
         return ctx.select(
                         CHARGE_BOX.CHARGE_BOX_PK,
                         CONNECTOR.CHARGE_BOX_ID,
                         CONNECTOR.CONNECTOR_ID,
-                        t2.field(t2Ts),
-                        t2.field(t2Status),
-                        t2.field(t2Error))
-                  .from(t2)
+                        CONNECTOR_STATUS_LATEST.STATUS_TIMESTAMP,
+                        CONNECTOR_STATUS_LATEST.STATUS,
+                        CONNECTOR_STATUS_LATEST.ERROR_CODE)
+                  .from(CONNECTOR_STATUS_LATEST)
                   .join(CONNECTOR)
-                        .on(CONNECTOR.CONNECTOR_PK.eq(t2.field(t2Pk)))
+                        .on(CONNECTOR.CONNECTOR_PK.eq(CONNECTOR_STATUS_LATEST.CONNECTOR_PK))
                   .join(CHARGE_BOX)
                         .on(CHARGE_BOX.CHARGE_BOX_ID.eq(CONNECTOR.CHARGE_BOX_ID))
                   .where(chargeBoxCondition, statusCondition)
-                  .orderBy(t2.field(t2Ts).desc())
+                  .and(CONNECTOR_STATUS_LATEST.STATUS_TIMESTAMP.isNotNull())
+                  .orderBy(CONNECTOR_STATUS_LATEST.STATUS_TIMESTAMP.desc())
                   .fetch()
                   .map(r -> ConnectorStatus.builder()
                                            .chargeBoxPk(r.value1())
@@ -261,11 +306,12 @@ public class ChargePointRepositoryImpl implements ChargePointRepository {
                                                      .collect(Collectors.toList());
 
         ctx.batchInsert(batch).execute();
+        invalidateRegistration(chargeBoxIdList);
     }
 
     @Override
     public int addChargePoint(ChargePointForm form) {
-        return ctx.transactionResult(configuration -> {
+        int chargeBoxPk = ctx.transactionResult(configuration -> {
             DSLContext ctx = DSL.using(configuration);
             try {
                 Integer addressId = addressRepository.updateOrInsert(ctx, form.getAddress());
@@ -276,6 +322,9 @@ public class ChargePointRepositoryImpl implements ChargePointRepository {
                         form.getChargeBoxId(), e);
             }
         });
+
+        invalidateRegistration(Collections.singletonList(form.getChargeBoxId()));
+        return chargeBoxPk;
     }
 
     @Override
@@ -295,22 +344,106 @@ public class ChargePointRepositoryImpl implements ChargePointRepository {
 
     @Override
     public void deleteChargePoint(int chargeBoxPk) {
-        ctx.transaction(configuration -> {
+        String chargeBoxId = ctx.transactionResult(configuration -> {
             DSLContext ctx = DSL.using(configuration);
             try {
+                String id = selectChargeBoxId(ctx, chargeBoxPk);
                 addressRepository.delete(ctx, selectAddressId(chargeBoxPk));
                 deleteChargePointInternal(ctx, chargeBoxPk);
+                return id;
 
             } catch (DataAccessException e) {
                 throw new SteveException("Failed to delete the charge point", e);
             }
         });
+
+        // The connectors are deleted with the charge box (ON DELETE CASCADE)
+        if (chargeBoxId != null) {
+            connectorPkCache.invalidate(chargeBoxId);
+            heartbeatCoalescer.remove(chargeBoxId);
+            invalidateRegistration(Collections.singletonList(chargeBoxId));
+        }
+    }
+
+    @Override
+    public int rebuildConnectorStatusLatest() {
+        return ctx.transactionResult(configuration -> {
+            DSLContext ctx = DSL.using(configuration);
+
+            ctx.deleteFrom(CONNECTOR_STATUS_LATEST).execute();
+
+            // find out the latest timestamp for each connector
+            Field<Integer> t1Pk = CONNECTOR_STATUS.CONNECTOR_PK.as("t1_pk");
+            Field<DateTime> t1TsMax = DSL.max(CONNECTOR_STATUS.STATUS_TIMESTAMP).as("t1_ts_max");
+            Table<?> t1 = ctx.select(t1Pk, t1TsMax)
+                             .from(CONNECTOR_STATUS)
+                             .groupBy(CONNECTOR_STATUS.CONNECTOR_PK)
+                             .asTable("t1");
+
+            // if there are multiple entries with the same latest timestamp, keep any one of them
+            return ctx.insertInto(CONNECTOR_STATUS_LATEST,
+                                  CONNECTOR_STATUS_LATEST.CONNECTOR_PK,
+                                  CONNECTOR_STATUS_LATEST.STATUS_TIMESTAMP,
+                                  CONNECTOR_STATUS_LATEST.STATUS,
+                                  CONNECTOR_STATUS_LATEST.ERROR_CODE,
+                                  CONNECTOR_STATUS_LATEST.ERROR_INFO,
+                                  CONNECTOR_STATUS_LATEST.VENDOR_ID,
+                                  CONNECTOR_STATUS_LATEST.VENDOR_ERROR_CODE)
+                      .select(DSL.select(CONNECTOR_STATUS.CONNECTOR_PK,
+                                         CONNECTOR_STATUS.STATUS_TIMESTAMP,
+                                         CONNECTOR_STATUS.STATUS,
+                                         CONNECTOR_STATUS.ERROR_CODE,
+                                         CONNECTOR_STATUS.ERROR_INFO,
+                                         CONNECTOR_STATUS.VENDOR_ID,
+                                         CONNECTOR_STATUS.VENDOR_ERROR_CODE)
+                                 .from(CONNECTOR_STATUS)
+                                 .join(t1)
+                                    .on(CONNECTOR_STATUS.CONNECTOR_PK.equal(t1.field(t1Pk)))
+                                    .and(CONNECTOR_STATUS.STATUS_TIMESTAMP.equal(t1.field(t1TsMax))))
+                      .onDuplicateKeyIgnore()
+                      .execute();
+        });
     }
 
     // -------------------------------------------------------------------------
     // Helpers
     // -------------------------------------------------------------------------
 
+    private boolean isRegisteredInternal(String chargeBoxId) {
+        Record1<Integer> r = ctx.selectOne()
+                                .from(CHARGE_BOX)
+                                .where(CHARGE_BOX.CHARGE_BOX_ID.eq(chargeBoxId))
+                                .fetchOne();
+        return (r != null) && (r.value1() == 1);
+    }
+
+    @Nullable
+    private static Cache<String, Boolean> buildRegistrationCache() {
+        int ttl = CONFIG.getOcpp().getRegistrationCacheTtlInSeconds();
+        if (ttl <= 0) {
+            return null;
+        }
+
+        return CacheBuilder.newBuilder()
+                           .expireAfterWrite(ttl, TimeUnit.SECONDS)
+                           .maximumSize(CONFIG.getOcpp().getRegistrationCacheMaxSize())
+                           .build();
+    }
+
+    private void invalidateRegistration(List<String> chargeBoxIdList) {
+        if (registrationCache != null) {
+            registrationVersion.incrementAndGet();
+            registrationCache.invalidateAll(chargeBoxIdList);
+        }
+    }
+
+    private static String selectChargeBoxId(DSLContext ctx, int chargeBoxPk) {
+        return ctx.select(CHARGE_BOX.CHARGE_BOX_ID)
+                  .from(CHARGE_BOX)
+                  .where(CHARGE_BOX.CHARGE_BOX_PK.eq(chargeBoxPk))
+                  .fetchOne(CHARGE_BOX.CHARGE_BOX_ID);
+    }
+
     private SelectConditionStep<Record1<Integer>> selectAddressId(int chargeBoxPk) {
         return ctx.select(CHARGE_BOX.ADDRESS_PK)
                   .from(CHARGE_BOX)
@@ -346,6 +479,32 @@ public class ChargePointRepositoryImpl implements ChargePointRepository {
     }
 
     private void deleteChargePointInternal(DSLContext ctx, int chargeBoxPk) {
+        // If these are partitioned (see PartitionManager), they are not deleted with the connectors via foreign keys
+        SelectConditionStep<Record1<Integer>> connectorPks =
+                DSL.select(CONNECTOR.CONNECTOR_PK)
+                   .from(CONNECTOR)
+                   .join(CHARGE_BOX)
+                        .on(CHARGE_BOX.CHARGE_BOX_ID.eq(CONNECTOR.CHARGE_BOX_ID))
+                   .where(CHARGE_BOX.CHARGE_BOX_PK.eq(chargeBoxPk));
+
+        ctx.delete(CONNECTOR_METER_VALUE)
+           .where(CONNECTOR_METER_VALUE.CONNECTOR_PK.in(connectorPks))
+           .execute();
+
+        // The transactions are deleted with the connectors. Meter values of other connectors that refer to them
+        // were set to NULL by the foreign key before (which a partitioned table does not have).
+        ctx.update(CONNECTOR_METER_VALUE)
+           .set(CONNECTOR_METER_VALUE.TRANSACTION_PK, (Integer) null)
+           .where(CONNECTOR_METER_VALUE.TRANSACTION_PK.in(
+                   DSL.select(TRANSACTION_START.TRANSACTION_PK)
+                      .from(TRANSACTION_START)
+                      .where(TRANSACTION_START.CONNECTOR_PK.in(connectorPks))))
+           .execute();
+
+        ctx.delete(CONNECTOR_STATUS)
+           .where(CONNECTOR_STATUS.CONNECTOR_PK.in(connectorPks))
+           .execute();
+
         ctx.delete(CHARGE_BOX)
            .where(CHARGE_BOX.CHARGE_BOX_PK.equal(chargeBoxPk))
            .execute();
@@ -0,0 +1,111 @@
+package de.rwth.idsg.steve.repository.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jooq.DSLContext;
+import org.jooq.Record3;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static jooq.steve.db.tables.Connector.CONNECTOR;
+
+/**
+ * Cache of the CONNECTOR table: (chargeBoxId, connectorId) -> connectorPk.
+ *
+ * Connectors are never updated, and only deleted together with their charge box (ON DELETE CASCADE). Therefore,
+ * a cached value stays valid until the charge box is deleted, which is when {@link #invalidate(String)} must be called.
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+@Component
+public class ConnectorPkCache {
+
+    @Autowired private DSLContext ctx;
+
+    /**
+     * Key   (String)               = chargeBoxId
+     * Value (Map<Integer, Integer>) = connectorId -> connectorPk
+     */
+    private final ConcurrentHashMap<String, Map<Integer, Integer>> cache = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        int count = 0;
+        for (Record3<String, Integer, Integer> r : ctx.select(CONNECTOR.CHARGE_BOX_ID,
+                                                              CONNECTOR.CONNECTOR_ID,
+                                                              CONNECTOR.CONNECTOR_PK)
+                                                      .from(CONNECTOR)
+                                                      .fetch()) {
+            put(r.value1(), r.value2(), r.value3());
+            count++;
+        }
+        log.info("Loaded {} connectors into cache", count);
+    }
+
+    /**
+     * Returns the primary key of the connector. If the connector is new to us, it is inserted first.
+     *
+     * Important: Do not call this within a transaction that might be rolled back. Otherwise, we might cache the primary
+     * key of a row that does not exist.
+     */
+    public int getOrInsert(String chargeBoxId, int connectorId) {
+        Integer connectorPk = get(chargeBoxId, connectorId);
+        if (connectorPk != null) {
+            return connectorPk;
+        }
+
+        insertIgnoreConnector(chargeBoxId, connectorId);
+
+        connectorPk = ctx.select(CONNECTOR.CONNECTOR_PK)
+                         .from(CONNECTOR)
+                         .where(CONNECTOR.CHARGE_BOX_ID.equal(chargeBoxId))
+                         .and(CONNECTOR.CONNECTOR_ID.equal(connectorId))
+                         .fetchOne()
+                         .value1();
+
+        put(chargeBoxId, connectorId, connectorPk);
+        return connectorPk;
+    }
+
+    public void invalidate(String chargeBoxId) {
+        cache.remove(chargeBoxId);
+    }
+
+    /**
+     * For when the table was modified bypassing the application
+     */
+    public void reload() {
+        cache.clear();
+        init();
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private Integer get(String chargeBoxId, int connectorId) {
+        Map<Integer, Integer> connectors = cache.get(chargeBoxId);
+        return (connectors == null) ? null : connectors.get(connectorId);
+    }
+
+    private void put(String chargeBoxId, int connectorId, int connectorPk) {
+        cache.computeIfAbsent(chargeBoxId, k -> new ConcurrentHashMap<>())
+             .put(connectorId, connectorPk);
+    }
+
+    private void insertIgnoreConnector(String chargeBoxIdentity, int connectorId) {
+        int count = ctx.insertInto(CONNECTOR,
+                            CONNECTOR.CHARGE_BOX_ID, CONNECTOR.CONNECTOR_ID)
+                       .values(chargeBoxIdentity, connectorId)
+                       .onDuplicateKeyIgnore() // Important detail
+                       .execute();
+
+        if (count == 1) {
+            log.info("The connector {}/{} is NEW, and inserted into DB.", chargeBoxIdentity, connectorId);
+        }
+    }
+}
@@ -33,12 +33,16 @@ import static org.jooq.impl.DSL.select;
 public class GenericRepositoryImpl implements GenericRepository {
 
     @Autowired private DSLContext ctx;
+    @Autowired private HeartbeatCoalescer heartbeatCoalescer;
 
     @Override
     public Statistics getStats() {
         DateTime now = DateTime.now();
         DateTime yesterdaysNow = now.minusDays(1);
 
+        // The pending heartbeats cannot be merged into the counts below
+        heartbeatCoalescer.flush();
+
         Field<Integer> numChargeBoxes =
                 ctx.selectCount()
                    .from(CHARGE_BOX)
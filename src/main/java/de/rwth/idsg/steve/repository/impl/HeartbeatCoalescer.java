@@ -0,0 +1,174 @@
+package de.rwth.idsg.steve.repository.impl;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+import org.joda.time.DateTime;
+import org.jooq.CaseWhenStep;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.impl.DSL;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static de.rwth.idsg.steve.SteveConfiguration.CONFIG;
+import static jooq.steve.db.tables.ChargeBox.CHARGE_BOX;
+
+/**
+ * Write-behind buffer for CHARGE_BOX.LAST_HEARTBEAT_TIMESTAMP.
+ *
+ * Heartbeats and WebSocket pongs only bump a timestamp. Instead of one UPDATE per message, we keep the latest
+ * timestamp per station in memory and write all of them periodically with one multi-row UPDATE. Readers of the
+ * column must either merge the pending values with the values in DB (see {@link #merge(String, DateTime)}), or
+ * {@link #flush()} before filtering on it.
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+@Component
+public class HeartbeatCoalescer {
+
+    // Upper bound for the number of stations in one UPDATE statement
+    private static final int FLUSH_CHUNK_SIZE = 1_000;
+
+    @Autowired private DSLContext ctx;
+    @Autowired private ScheduledExecutorService executorService;
+
+    private final int flushIntervalInSeconds = CONFIG.getDb().getHeartbeatFlushIntervalInSeconds();
+
+    /**
+     * Key   (String)   = chargeBoxId
+     * Value (DateTime) = latest heartbeat timestamp not yet written to DB
+     */
+    private final ConcurrentHashMap<String, DateTime> pending = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        if (isEnabled()) {
+            executorService.scheduleWithFixedDelay(
+                    this::flushSafely, flushIntervalInSeconds, flushIntervalInSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutDown() {
+        flushSafely();
+    }
+
+    public boolean isEnabled() {
+        return flushIntervalInSeconds > 0;
+    }
+
+    public void record(String chargeBoxId, DateTime ts) {
+        pending.merge(chargeBoxId, ts, HeartbeatCoalescer::latest);
+    }
+
+    public void remove(String chargeBoxId) {
+        pending.remove(chargeBoxId);
+    }
+
+    @Nullable
+    public DateTime getPending(String chargeBoxId) {
+        return pending.get(chargeBoxId);
+    }
+
+    public Map<String, DateTime> getPendingSnapshot() {
+        return ImmutableMap.copyOf(pending);
+    }
+
+    /**
+     * @return the more recent one of the pending timestamp and the one read from DB
+     */
+    @Nullable
+    public DateTime merge(String chargeBoxId, @Nullable DateTime fromDb) {
+        return latest(fromDb, pending.get(chargeBoxId));
+    }
+
+    /**
+     * Writes the pending timestamps to DB. Called periodically, and by the readers that filter on
+     * CHARGE_BOX.LAST_HEARTBEAT_TIMESTAMP in SQL, since the pending values cannot be merged there.
+     */
+    public void flush() {
+        Map<String, DateTime> snapshot = getPendingSnapshot();
+        if (snapshot.isEmpty()) {
+            return;
+        }
+
+        for (List<Map.Entry<String, DateTime>> chunk : Iterables.partition(snapshot.entrySet(), FLUSH_CHUNK_SIZE)) {
+            updateHeartbeats(chunk);
+
+            // Only remove the entries that did not change in the meantime. Otherwise, we would lose a more recent
+            // heartbeat that arrived during the update.
+            chunk.forEach(e -> pending.remove(e.getKey(), e.getValue()));
+        }
+
+        log.debug("Flushed {} heartbeat timestamps to DB", snapshot.size());
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Failed to flush heartbeat timestamps to DB", e);
+        }
+    }
+
+    /**
+     * UPDATE charge_box
+     * SET last_heartbeat_timestamp = GREATEST(COALESCE(last_heartbeat_timestamp, x), x)
+     * WHERE charge_box_id IN (...)
+     *
+     * with x = CASE charge_box_id WHEN 'id1' THEN ts1 WHEN 'id2' THEN ts2 ... END
+     *
+     * GREATEST is needed, because a BootNotification writes its timestamp directly and a pending heartbeat must not
+     * overwrite it with an older value.
+     */
+    private void updateHeartbeats(List<Map.Entry<String, DateTime>> entries) {
+        CaseWhenStep<String, DateTime> caseStep = null;
+        for (Map.Entry<String, DateTime> e : entries) {
+            Field<DateTime> value = DSL.val(e.getValue(), CHARGE_BOX.LAST_HEARTBEAT_TIMESTAMP);
+            if (caseStep == null) {
+                caseStep = DSL.choose(CHARGE_BOX.CHARGE_BOX_ID).when(e.getKey(), value);
+            } else {
+                caseStep = caseStep.when(e.getKey(), value);
+            }
+        }
+
+        Field<DateTime> newValue = caseStep.otherwise(CHARGE_BOX.LAST_HEARTBEAT_TIMESTAMP);
+
+        List<String> chargeBoxIds = entries.stream()
+                                           .map(Map.Entry::getKey)
+                                           .collect(Collectors.toList());
+
+        ctx.update(CHARGE_BOX)
+           .set(CHARGE_BOX.LAST_HEARTBEAT_TIMESTAMP,
+                DSL.greatest(DSL.coalesce(CHARGE_BOX.LAST_HEARTBEAT_TIMESTAMP, newValue), newValue))
+           .where(CHARGE_BOX.CHARGE_BOX_ID.in(chargeBoxIds))
+           .execute();
+    }
+
+    @Nullable
+    private static DateTime latest(@Nullable DateTime a, @Nullable DateTime b) {
+        if (a == null) {
+            return b;
+        } else if (b == null) {
+            return a;
+        } else {
+            return a.isAfter(b) ? a : b;
+        }
+    }
+}
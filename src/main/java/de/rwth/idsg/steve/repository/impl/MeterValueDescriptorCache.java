@@ -0,0 +1,102 @@
+package de.rwth.idsg.steve.repository.impl;
+
+import com.google.common.base.Strings;
+import de.rwth.idsg.steve.repository.dto.SampledValueDescriptor;
+import jooq.steve.db.tables.records.MeterValueDescriptorRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.jooq.DSLContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static jooq.steve.db.tables.MeterValueDescriptor.METER_VALUE_DESCRIPTOR;
+
+/**
+ * Cache of the METER_VALUE_DESCRIPTOR table: descriptor -> descriptorPk.
+ *
+ * There are only a few distinct combinations of the OCPP enumerations in practice, and the rows are never updated or
+ * deleted. Therefore, we load all of them at startup and cached values stay valid forever.
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+@Component
+public class MeterValueDescriptorCache {
+
+    @Autowired private DSLContext ctx;
+
+    private final ConcurrentHashMap<SampledValueDescriptor, Integer> pks = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        ctx.selectFrom(METER_VALUE_DESCRIPTOR)
+           .fetch()
+           .forEach(this::put);
+
+        log.info("Loaded {} meter value descriptors into cache", pks.size());
+    }
+
+    /**
+     * For when the table was modified bypassing the application
+     */
+    public void reload() {
+        pks.clear();
+        init();
+    }
+
+    /**
+     * Returns the primary key of the descriptor. If the descriptor is new to us, it is inserted first.
+     *
+     * Important: Do not call this within a transaction that might be rolled back. Otherwise, we might cache the primary
+     * key of a row that does not exist.
+     */
+    public int getOrInsert(SampledValueDescriptor descriptor) {
+        Integer descriptorPk = pks.get(descriptor);
+        if (descriptorPk != null) {
+            return descriptorPk;
+        }
+
+        ctx.insertInto(METER_VALUE_DESCRIPTOR)
+           .set(METER_VALUE_DESCRIPTOR.READING_CONTEXT, Strings.nullToEmpty(descriptor.getReadingContext()))
+           .set(METER_VALUE_DESCRIPTOR.FORMAT, Strings.nullToEmpty(descriptor.getFormat()))
+           .set(METER_VALUE_DESCRIPTOR.MEASURAND, Strings.nullToEmpty(descriptor.getMeasurand()))
+           .set(METER_VALUE_DESCRIPTOR.LOCATION, Strings.nullToEmpty(descriptor.getLocation()))
+           .set(METER_VALUE_DESCRIPTOR.UNIT, Strings.nullToEmpty(descriptor.getUnit()))
+           .set(METER_VALUE_DESCRIPTOR.PHASE, Strings.nullToEmpty(descriptor.getPhase()))
+           .onDuplicateKeyIgnore() // Important detail
+           .execute();
+
+        MeterValueDescriptorRecord record =
+                ctx.selectFrom(METER_VALUE_DESCRIPTOR)
+                   .where(METER_VALUE_DESCRIPTOR.READING_CONTEXT.eq(Strings.nullToEmpty(descriptor.getReadingContext())))
+                   .and(METER_VALUE_DESCRIPTOR.FORMAT.eq(Strings.nullToEmpty(descriptor.getFormat())))
+                   .and(METER_VALUE_DESCRIPTOR.MEASURAND.eq(Strings.nullToEmpty(descriptor.getMeasurand())))
+                   .and(METER_VALUE_DESCRIPTOR.LOCATION.eq(Strings.nullToEmpty(descriptor.getLocation())))
+                   .and(METER_VALUE_DESCRIPTOR.UNIT.eq(Strings.nullToEmpty(descriptor.getUnit())))
+                   .and(METER_VALUE_DESCRIPTOR.PHASE.eq(Strings.nullToEmpty(descriptor.getPhase())))
+                   .fetchOne();
+
+        put(record);
+        return record.getDescriptorPk();
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private void put(MeterValueDescriptorRecord r) {
+        SampledValueDescriptor descriptor =
+                SampledValueDescriptor.builder()
+                                      .readingContext(Strings.emptyToNull(r.getReadingContext()))
+                                      .format(Strings.emptyToNull(r.getFormat()))
+                                      .measurand(Strings.emptyToNull(r.getMeasurand()))
+                                      .location(Strings.emptyToNull(r.getLocation()))
+                                      .unit(Strings.emptyToNull(r.getUnit()))
+                                      .phase(Strings.emptyToNull(r.getPhase()))
+                                      .build();
+
+        pks.put(descriptor, r.getDescriptorPk());
+    }
+}
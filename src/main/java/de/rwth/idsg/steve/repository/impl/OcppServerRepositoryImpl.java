@@ -1,35 +1,46 @@
 package de.rwth.idsg.steve.repository.impl;
 
+import com.google.common.collect.Iterables;
 import com.google.common.util.concurrent.Striped;
 import de.rwth.idsg.steve.SteveException;
 import de.rwth.idsg.steve.repository.OcppServerRepository;
 import de.rwth.idsg.steve.repository.ReservationRepository;
 import de.rwth.idsg.steve.repository.dto.InsertConnectorStatusParams;
+import de.rwth.idsg.steve.repository.dto.InsertMeterValuesParams;
 import de.rwth.idsg.steve.repository.dto.InsertTransactionParams;
+import de.rwth.idsg.steve.repository.dto.SampledValueDescriptor;
 import de.rwth.idsg.steve.repository.dto.TransactionStatusUpdate;
 import de.rwth.idsg.steve.repository.dto.UpdateChargeboxParams;
 import de.rwth.idsg.steve.repository.dto.UpdateTransactionParams;
+import jooq.steve.db.tables.ConnectorStatusLatest;
 import jooq.steve.db.tables.records.ConnectorMeterValueRecord;
+import jooq.steve.db.tables.records.ConnectorStatusRecord;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import ocpp.cs._2015._10.MeterValue;
+import ocpp.cs._2015._10.SampledValue;
+import org.jetbrains.annotations.Nullable;
 import org.joda.time.DateTime;
+import org.jooq.Condition;
 import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.InsertSetMoreStep;
 import org.jooq.Record1;
-import org.jooq.SelectConditionStep;
 import org.jooq.impl.DSL;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
 
+import static jooq.steve.db.tables.ActiveTransaction.ACTIVE_TRANSACTION;
 import static jooq.steve.db.tables.ChargeBox.CHARGE_BOX;
-import static jooq.steve.db.tables.Connector.CONNECTOR;
 import static jooq.steve.db.tables.ConnectorMeterValue.CONNECTOR_METER_VALUE;
 import static jooq.steve.db.tables.ConnectorStatus.CONNECTOR_STATUS;
+import static jooq.steve.db.tables.ConnectorStatusLatest.CONNECTOR_STATUS_LATEST;
 import static jooq.steve.db.tables.OcppTag.OCPP_TAG;
 import static jooq.steve.db.tables.TransactionStart.TRANSACTION_START;
 import static jooq.steve.db.tables.TransactionStop.TRANSACTION_STOP;
@@ -48,6 +59,12 @@ public class OcppServerRepositoryImpl implements OcppServerRepository {
 
     @Autowired private DSLContext ctx;
     @Autowired private ReservationRepository reservationRepository;
+    @Autowired private HeartbeatCoalescer heartbeatCoalescer;
+    @Autowired private ConnectorPkCache connectorPkCache;
+    @Autowired private OcppTagActivityCache ocppTagActivityCache;
+    @Autowired private MeterValueDescriptorCache meterValueDescriptorCache;
+
+    private static final int METER_VALUE_INSERT_CHUNK_SIZE = 1_000;
 
     private final Striped<Lock> transactionTableLocks = Striped.lock(16);
 
@@ -97,6 +114,11 @@ public class OcppServerRepositoryImpl implements OcppServerRepository {
 
     @Override
     public void updateChargeboxHeartbeat(String chargeBoxIdentity, DateTime ts) {
+        if (heartbeatCoalescer.isEnabled()) {
+            heartbeatCoalescer.record(chargeBoxIdentity, ts);
+            return;
+        }
+
         ctx.update(CHARGE_BOX)
            .set(CHARGE_BOX.LAST_HEARTBEAT_TIMESTAMP, ts)
            .where(CHARGE_BOX.CHARGE_BOX_ID.equal(chargeBoxIdentity))
@@ -105,75 +127,74 @@ public class OcppServerRepositoryImpl implements OcppServerRepository {
 
     @Override
     public void insertConnectorStatus(InsertConnectorStatusParams p) {
-        ctx.transaction(configuration -> {
-            DSLContext ctx = DSL.using(configuration);
+        // Step 1: Insert connector, if it is new to us
+        int connectorPk = connectorPkCache.getOrInsert(p.getChargeBoxId(), p.getConnectorId());
 
-            // Step 1
-            insertIgnoreConnector(ctx, p.getChargeBoxId(), p.getConnectorId());
+        // -------------------------------------------------------------------------
+        // Step 2: We store a log of connector statuses
+        // -------------------------------------------------------------------------
 
-            // -------------------------------------------------------------------------
-            // Step 2: We store a log of connector statuses
-            // -------------------------------------------------------------------------
+        ConnectorStatusRecord record = ctx.newRecord(CONNECTOR_STATUS);
+        record.setConnectorPk(connectorPk);
+        record.setStatusTimestamp(p.getTimestamp());
+        record.setStatus(p.getStatus());
+        record.setErrorCode(p.getErrorCode());
+        record.setErrorInfo(p.getErrorInfo());
+        record.setVendorId(p.getVendorId());
+        record.setVendorErrorCode(p.getVendorErrorCode());
 
-            ctx.insertInto(CONNECTOR_STATUS)
-               .set(CONNECTOR_STATUS.CONNECTOR_PK, DSL.select(CONNECTOR.CONNECTOR_PK)
-                                                      .from(CONNECTOR)
-                                                      .where(CONNECTOR.CHARGE_BOX_ID.equal(p.getChargeBoxId()))
-                                                      .and(CONNECTOR.CONNECTOR_ID.equal(p.getConnectorId()))
-               )
-               .set(CONNECTOR_STATUS.STATUS_TIMESTAMP, p.getTimestamp())
-               .set(CONNECTOR_STATUS.STATUS, p.getStatus())
-               .set(CONNECTOR_STATUS.ERROR_CODE, p.getErrorCode())
-               .set(CONNECTOR_STATUS.ERROR_INFO, p.getErrorInfo())
-               .set(CONNECTOR_STATUS.VENDOR_ID, p.getVendorId())
-               .set(CONNECTOR_STATUS.VENDOR_ERROR_CODE, p.getVendorErrorCode())
-               .execute();
+        insertConnectorStatus(record);
 
-            log.debug("Stored a new connector status for {}/{}.", p.getChargeBoxId(), p.getConnectorId());
-        });
+        log.debug("Stored a new connector status for {}/{}.", p.getChargeBoxId(), p.getConnectorId());
     }
 
     @Override
     public void insertMeterValues(String chargeBoxIdentity, List<MeterValue> list, int connectorId, Integer transactionId) {
+        int connectorPk = connectorPkCache.getOrInsert(chargeBoxIdentity, connectorId);
+        List<ConnectorMeterValueRecord> records = toRecords(list, connectorPk, transactionId);
+
         ctx.transaction(configuration -> {
             DSLContext ctx = DSL.using(configuration);
-
-            insertIgnoreConnector(ctx, chargeBoxIdentity, connectorId);
-            int connectorPk = getConnectorPkFromConnector(ctx, chargeBoxIdentity, connectorId);
-            batchInsertMeterValues(ctx, list, connectorPk, transactionId);
+            ctx.batchInsert(records).execute();
         });
     }
 
     @Override
     public void insertMeterValues(String chargeBoxIdentity, List<MeterValue> list, int transactionId) {
+        // First, get connector primary key from transaction table
+        int connectorPk = ctx.select(TRANSACTION_START.CONNECTOR_PK)
+                             .from(TRANSACTION_START)
+                             .where(TRANSACTION_START.TRANSACTION_PK.equal(transactionId))
+                             .fetchOne()
+                             .value1();
+
+        List<ConnectorMeterValueRecord> records = toRecords(list, connectorPk, transactionId);
+
         ctx.transaction(configuration -> {
             DSLContext ctx = DSL.using(configuration);
+            ctx.batchInsert(records).execute();
+        });
+    }
 
-            // First, get connector primary key from transaction table
-            int connectorPk = ctx.select(TRANSACTION_START.CONNECTOR_PK)
-                                 .from(TRANSACTION_START)
-                                 .where(TRANSACTION_START.TRANSACTION_PK.equal(transactionId))
-                                 .fetchOne()
-                                 .value1();
+    @Override
+    public void insertMeterValues(List<InsertMeterValuesParams> paramsList) {
+        List<ConnectorMeterValueRecord> records = new ArrayList<>();
+        for (InsertMeterValuesParams p : paramsList) {
+            int connectorPk = connectorPkCache.getOrInsert(p.getChargeBoxId(), p.getConnectorId());
+            records.addAll(toRecords(p.getMeterValues(), connectorPk, p.getTransactionId()));
+        }
 
-            batchInsertMeterValues(ctx, list, connectorPk, transactionId);
-        });
+        ctx.transaction(configuration -> multiRowInsertMeterValues(DSL.using(configuration), records));
     }
 
     @Override
     public Integer insertTransaction(InsertTransactionParams p) {
 
-        SelectConditionStep<Record1<Integer>> connectorPkQuery =
-                DSL.select(CONNECTOR.CONNECTOR_PK)
-                   .from(CONNECTOR)
-                   .where(CONNECTOR.CHARGE_BOX_ID.equal(p.getChargeBoxId()))
-                   .and(CONNECTOR.CONNECTOR_ID.equal(p.getConnectorId()));
-
         // -------------------------------------------------------------------------
         // Step 1: Insert connector and idTag, if they are new to us
         // -------------------------------------------------------------------------
 
-        insertIgnoreConnector(ctx, p.getChargeBoxId(), p.getConnectorId());
+        int connectorPk = connectorPkCache.getOrInsert(p.getChargeBoxId(), p.getConnectorId());
 
         // it is important to insert idTag before transaction, since the transaction table references it
         boolean unknownTagInserted = insertIgnoreIdTag(ctx, p);
@@ -182,13 +203,15 @@ public class OcppServerRepositoryImpl implements OcppServerRepository {
         // Step 2: Insert transaction if it does not exist already
         // -------------------------------------------------------------------------
 
-        TransactionDataHolder data = insertIgnoreTransaction(p, connectorPkQuery);
+        TransactionDataHolder data = insertIgnoreTransaction(p, connectorPk);
         Integer transactionId = data.transactionId;
 
         if (data.existsAlready) {
             return transactionId;
         }
 
+        ocppTagActivityCache.transactionStarted(p.getIdTag());
+
         if (unknownTagInserted) {
             log.warn("The transaction '{}' contains an unknown idTag '{}' which was inserted into DB "
                     + "to prevent information loss and has been blocked", transactionId, p.getIdTag());
@@ -199,7 +222,7 @@ public class OcppServerRepositoryImpl implements OcppServerRepository {
         // -------------------------------------------------------------------------
 
         if (p.isSetReservationId()) {
-            reservationRepository.used(connectorPkQuery, p.getIdTag(), p.getReservationId(), transactionId);
+            reservationRepository.used(DSL.select(DSL.val(connectorPk)), p.getIdTag(), p.getReservationId(), transactionId);
         }
 
         // -------------------------------------------------------------------------
@@ -207,7 +230,7 @@ public class OcppServerRepositoryImpl implements OcppServerRepository {
         // -------------------------------------------------------------------------
 
         if (shouldInsertConnectorStatusAfterTransactionMsg(p.getChargeBoxId())) {
-            insertConnectorStatus(ctx, connectorPkQuery, p.getStartTimestamp(), p.getStatusUpdate());
+            insertConnectorStatus(connectorPk, p.getStartTimestamp(), p.getStatusUpdate());
         }
 
         return transactionId;
@@ -217,21 +240,43 @@ public class OcppServerRepositoryImpl implements OcppServerRepository {
     public void updateTransaction(UpdateTransactionParams p) {
 
         // -------------------------------------------------------------------------
-        // Step 1: insert transaction stop data
+        // Step 1: insert transaction stop data, and the transaction is not active anymore
         // -------------------------------------------------------------------------
 
-        int transactionUpdateCount = ctx.insertInto(TRANSACTION_STOP)
-                                        .set(TRANSACTION_STOP.TRANSACTION_PK, p.getTransactionId())
-                                        .set(TRANSACTION_STOP.EVENT_TIMESTAMP, p.getEventTimestamp())
-                                        .set(TRANSACTION_STOP.EVENT_ACTOR, p.getEventActor())
-                                        .set(TRANSACTION_STOP.STOP_TIMESTAMP, p.getStopTimestamp())
-                                        .set(TRANSACTION_STOP.STOP_VALUE, p.getStopMeterValue())
-                                        .set(TRANSACTION_STOP.STOP_REASON, p.getStopReason())
-                                        .execute();
-
-        // Actually unnecessary, because JOOQ will throw an exception, if something goes wrong
-        if (transactionUpdateCount == 0) {
-            throw new SteveException("Failed to UPDATE transaction in database");
+        String stoppedIdTag = ctx.transactionResult(configuration -> {
+            DSLContext ctx = DSL.using(configuration);
+
+            int transactionUpdateCount = ctx.insertInto(TRANSACTION_STOP)
+                                            .set(TRANSACTION_STOP.TRANSACTION_PK, p.getTransactionId())
+                                            .set(TRANSACTION_STOP.EVENT_TIMESTAMP, p.getEventTimestamp())
+                                            .set(TRANSACTION_STOP.EVENT_ACTOR, p.getEventActor())
+                                            .set(TRANSACTION_STOP.STOP_TIMESTAMP, p.getStopTimestamp())
+                                            .set(TRANSACTION_STOP.STOP_VALUE, p.getStopMeterValue())
+                                            .set(TRANSACTION_STOP.STOP_REASON, p.getStopReason())
+                                            .execute();
+
+            // Actually unnecessary, because JOOQ will throw an exception, if something goes wrong
+            if (transactionUpdateCount == 0) {
+                throw new SteveException("Failed to UPDATE transaction in database");
+            }
+
+            // Null, if the transaction was already stopped before
+            String idTag = ctx.select(ACTIVE_TRANSACTION.ID_TAG)
+                              .from(ACTIVE_TRANSACTION)
+                              .where(ACTIVE_TRANSACTION.TRANSACTION_PK.equal(p.getTransactionId()))
+                              .forUpdate()
+                              .fetchOne(ACTIVE_TRANSACTION.ID_TAG);
+
+            if (idTag != null) {
+                ctx.deleteFrom(ACTIVE_TRANSACTION)
+                   .where(ACTIVE_TRANSACTION.TRANSACTION_PK.equal(p.getTransactionId()))
+                   .execute();
+            }
+            return idTag;
+        });
+
+        if (stoppedIdTag != null) {
+            ocppTagActivityCache.transactionStopped(stoppedIdTag);
         }
 
         // -------------------------------------------------------------------------
@@ -239,12 +284,14 @@ public class OcppServerRepositoryImpl implements OcppServerRepository {
         // -------------------------------------------------------------------------
 
         if (shouldInsertConnectorStatusAfterTransactionMsg(p.getChargeBoxId())) {
-            SelectConditionStep<Record1<Integer>> connectorPkQuery =
-                    DSL.select(TRANSACTION_START.CONNECTOR_PK)
-                       .from(TRANSACTION_START)
-                       .where(TRANSACTION_START.TRANSACTION_PK.equal(p.getTransactionId()));
+            Integer connectorPk = ctx.select(TRANSACTION_START.CONNECTOR_PK)
+                                     .from(TRANSACTION_START)
+                                     .where(TRANSACTION_START.TRANSACTION_PK.equal(p.getTransactionId()))
+                                     .fetchOne(TRANSACTION_START.CONNECTOR_PK);
 
-            insertConnectorStatus(ctx, connectorPkQuery, p.getStopTimestamp(), p.getStatusUpdate());
+            if (connectorPk != null) {
+                insertConnectorStatus(connectorPk, p.getStopTimestamp(), p.getStatusUpdate());
+            }
         }
     }
 
@@ -263,14 +310,13 @@ public class OcppServerRepositoryImpl implements OcppServerRepository {
      * problems the response of StartTransaction could not be delivered and station tries again later), we do not want
      * to insert this into database multiple times.
      */
-    private TransactionDataHolder insertIgnoreTransaction(InsertTransactionParams p,
-                                                          SelectConditionStep<Record1<Integer>> connectorPkQuery) {
+    private TransactionDataHolder insertIgnoreTransaction(InsertTransactionParams p, int connectorPk) {
         Lock l = transactionTableLocks.get(p.getChargeBoxId());
         l.lock();
         try {
             Record1<Integer> r = ctx.select(TRANSACTION_START.TRANSACTION_PK)
                                     .from(TRANSACTION_START)
-                                    .where(TRANSACTION_START.CONNECTOR_PK.eq(connectorPkQuery))
+                                    .where(TRANSACTION_START.CONNECTOR_PK.eq(connectorPk))
                                     .and(TRANSACTION_START.ID_TAG.eq(p.getIdTag()))
                                     .and(TRANSACTION_START.START_TIMESTAMP.eq(p.getStartTimestamp()))
                                     .and(TRANSACTION_START.START_VALUE.eq(p.getStartMeterValue()))
@@ -280,20 +326,31 @@ public class OcppServerRepositoryImpl implements OcppServerRepository {
                 return new TransactionDataHolder(true, r.value1());
             }
 
-            Integer transactionId = ctx.insertInto(TRANSACTION_START)
-                                       .set(TRANSACTION_START.EVENT_TIMESTAMP, p.getEventTimestamp())
-                                       .set(TRANSACTION_START.CONNECTOR_PK, connectorPkQuery)
-                                       .set(TRANSACTION_START.ID_TAG, p.getIdTag())
-                                       .set(TRANSACTION_START.START_TIMESTAMP, p.getStartTimestamp())
-                                       .set(TRANSACTION_START.START_VALUE, p.getStartMeterValue())
-                                       .returning(TRANSACTION_START.TRANSACTION_PK)
-                                       .fetchOne()
-                                       .getTransactionPk();
+            Integer transactionId = ctx.transactionResult(configuration -> {
+                DSLContext ctx = DSL.using(configuration);
 
-            // Actually unnecessary, because JOOQ will throw an exception, if something goes wrong
-            if (transactionId == null) {
-                throw new SteveException("Failed to INSERT transaction into database");
-            }
+                Integer id = ctx.insertInto(TRANSACTION_START)
+                                .set(TRANSACTION_START.EVENT_TIMESTAMP, p.getEventTimestamp())
+                                .set(TRANSACTION_START.CONNECTOR_PK, connectorPk)
+                                .set(TRANSACTION_START.ID_TAG, p.getIdTag())
+                                .set(TRANSACTION_START.START_TIMESTAMP, p.getStartTimestamp())
+                                .set(TRANSACTION_START.START_VALUE, p.getStartMeterValue())
+                                .returning(TRANSACTION_START.TRANSACTION_PK)
+                                .fetchOne()
+                                .getTransactionPk();
+
+                // Actually unnecessary, because JOOQ will throw an exception, if something goes wrong
+                if (id == null) {
+                    throw new SteveException("Failed to INSERT transaction into database");
+                }
+
+                ctx.insertInto(ACTIVE_TRANSACTION)
+                   .set(ACTIVE_TRANSACTION.TRANSACTION_PK, id)
+                   .set(ACTIVE_TRANSACTION.ID_TAG, p.getIdTag())
+                   .execute();
+
+                return id;
+            });
 
             return new TransactionDataHolder(false, transactionId);
         } finally {
@@ -310,31 +367,69 @@ public class OcppServerRepositoryImpl implements OcppServerRepository {
      * notification will be used as current. Or, if this transaction data was sent to us for a failed push from the past
      * and we have a "more recent" status, it will still be the current status.
      */
-    private void insertConnectorStatus(DSLContext ctx,
-                                       SelectConditionStep<Record1<Integer>> connectorPkQuery,
-                                       DateTime timestamp,
-                                       TransactionStatusUpdate statusUpdate) {
-        ctx.insertInto(CONNECTOR_STATUS)
-           .set(CONNECTOR_STATUS.CONNECTOR_PK, connectorPkQuery)
-           .set(CONNECTOR_STATUS.STATUS_TIMESTAMP, timestamp)
-           .set(CONNECTOR_STATUS.STATUS, statusUpdate.getStatus())
-           .set(CONNECTOR_STATUS.ERROR_CODE, statusUpdate.getErrorCode())
-           .execute();
+    private void insertConnectorStatus(int connectorPk, DateTime timestamp, TransactionStatusUpdate statusUpdate) {
+        ConnectorStatusRecord record = ctx.newRecord(CONNECTOR_STATUS);
+        record.setConnectorPk(connectorPk);
+        record.setStatusTimestamp(timestamp);
+        record.setStatus(statusUpdate.getStatus());
+        record.setErrorCode(statusUpdate.getErrorCode());
+
+        insertConnectorStatus(record);
     }
 
     /**
-     * If the connector information was not received before, insert it. Otherwise, ignore.
+     * Appends the status to the log, and in the same transaction replaces the latest status of the connector, if the
+     * new one is not older than it.
      */
-    private void insertIgnoreConnector(DSLContext ctx, String chargeBoxIdentity, int connectorId) {
-        int count = ctx.insertInto(CONNECTOR,
-                            CONNECTOR.CHARGE_BOX_ID, CONNECTOR.CONNECTOR_ID)
-                       .values(chargeBoxIdentity, connectorId)
-                       .onDuplicateKeyIgnore() // Important detail
-                       .execute();
+    private void insertConnectorStatus(ConnectorStatusRecord record) {
+        ctx.transaction(configuration -> {
+            DSLContext ctx = DSL.using(configuration);
 
-        if (count == 1) {
-            log.info("The connector {}/{} is NEW, and inserted into DB.", chargeBoxIdentity, connectorId);
+            ctx.insertInto(CONNECTOR_STATUS)
+               .set(record)
+               .execute();
+
+            upsertConnectorStatusLatest(ctx, record);
+        });
+    }
+
+    /**
+     * A status without timestamp cannot be ordered, and therefore replaces only another status without timestamp.
+     *
+     * MySQL evaluates the assignments of ON DUPLICATE KEY UPDATE from left to right, and later assignments see the
+     * values of earlier ones. This is why the timestamp, which the condition depends on, has to be updated last.
+     */
+    private static void upsertConnectorStatusLatest(DSLContext ctx, ConnectorStatusRecord r) {
+        ConnectorStatusLatest latest = CONNECTOR_STATUS_LATEST;
+        Field<DateTime> existingTimestamp = latest.STATUS_TIMESTAMP;
+
+        Condition isNotOlder;
+        if (r.getStatusTimestamp() == null) {
+            isNotOlder = existingTimestamp.isNull();
+        } else {
+            isNotOlder = existingTimestamp.isNull().or(existingTimestamp.lessOrEqual(r.getStatusTimestamp()));
         }
+
+        ctx.insertInto(latest)
+           .set(latest.CONNECTOR_PK, r.getConnectorPk())
+           .set(latest.STATUS_TIMESTAMP, r.getStatusTimestamp())
+           .set(latest.STATUS, r.getStatus())
+           .set(latest.ERROR_CODE, r.getErrorCode())
+           .set(latest.ERROR_INFO, r.getErrorInfo())
+           .set(latest.VENDOR_ID, r.getVendorId())
+           .set(latest.VENDOR_ERROR_CODE, r.getVendorErrorCode())
+           .onDuplicateKeyUpdate()
+           .set(latest.STATUS, ifNotOlder(isNotOlder, latest.STATUS, r.getStatus()))
+           .set(latest.ERROR_CODE, ifNotOlder(isNotOlder, latest.ERROR_CODE, r.getErrorCode()))
+           .set(latest.ERROR_INFO, ifNotOlder(isNotOlder, latest.ERROR_INFO, r.getErrorInfo()))
+           .set(latest.VENDOR_ID, ifNotOlder(isNotOlder, latest.VENDOR_ID, r.getVendorId()))
+           .set(latest.VENDOR_ERROR_CODE, ifNotOlder(isNotOlder, latest.VENDOR_ERROR_CODE, r.getVendorErrorCode()))
+           .set(latest.STATUS_TIMESTAMP, ifNotOlder(isNotOlder, latest.STATUS_TIMESTAMP, r.getStatusTimestamp()))
+           .execute();
+    }
+
+    private static <T> Field<T> ifNotOlder(Condition isNotOlder, Field<T> existing, T newValue) {
+        return DSL.when(isNotOlder, DSL.val(newValue, existing)).otherwise(existing);
     }
 
     /**
@@ -353,6 +448,11 @@ public class OcppServerRepositoryImpl implements OcppServerRepository {
                        .onDuplicateKeyIgnore() // Important detail
                        .execute();
 
+        if (count == 1) {
+            // Might be cached as unknown
+            ocppTagActivityCache.invalidate(p.getIdTag());
+        }
+
         return count == 1;
     }
 
@@ -366,34 +466,69 @@ public class OcppServerRepositoryImpl implements OcppServerRepository {
         return (r != null) && (r.value1() == 1);
     }
 
-    private int getConnectorPkFromConnector(DSLContext ctx, String chargeBoxIdentity, int connectorId) {
-        return ctx.select(CONNECTOR.CONNECTOR_PK)
-                  .from(CONNECTOR)
-                  .where(CONNECTOR.CHARGE_BOX_ID.equal(chargeBoxIdentity))
-                  .and(CONNECTOR.CONNECTOR_ID.equal(connectorId))
-                  .fetchOne()
-                  .value1();
+    /**
+     * INSERT INTO connector_meter_value (...) VALUES (...), (...), ...
+     *
+     * One statement per chunk, so that we stay well below max_allowed_packet of MySQL.
+     */
+    private void multiRowInsertMeterValues(DSLContext ctx, List<ConnectorMeterValueRecord> records) {
+        for (List<ConnectorMeterValueRecord> chunk : Iterables.partition(records, METER_VALUE_INSERT_CHUNK_SIZE)) {
+            InsertSetMoreStep<ConnectorMeterValueRecord> insert = null;
+            for (ConnectorMeterValueRecord r : chunk) {
+                if (insert == null) {
+                    insert = ctx.insertInto(CONNECTOR_METER_VALUE).set(r);
+                } else {
+                    insert = insert.newRecord().set(r);
+                }
+            }
+            insert.execute();
+        }
+    }
+
+    /**
+     * The descriptors are resolved via cache, which might insert new ones. Therefore, do not call this within the
+     * transaction that inserts the records.
+     */
+    private List<ConnectorMeterValueRecord> toRecords(List<MeterValue> list, int connectorPk, Integer transactionId) {
+        return list.stream()
+                   .flatMap(t -> t.getSampledValue()
+                                  .stream()
+                                  .map(k -> ctx.newRecord(CONNECTOR_METER_VALUE)
+                                               .setConnectorPk(connectorPk)
+                                               .setTransactionPk(transactionId)
+                                               .setValueTimestamp(t.getTimestamp())
+                                               .setValue(k.getValue())
+                                               .setNumericValue(toNumericValue(k.getValue()))
+                                               .setDescriptorPk(meterValueDescriptorCache.getOrInsert(toDescriptor(k)))))
+                   .collect(Collectors.toList());
+    }
+
+    private static SampledValueDescriptor toDescriptor(SampledValue k) {
+        // These are optional fields!
+        return SampledValueDescriptor.builder()
+                                     .readingContext(k.isSetContext() ? k.getContext().value() : null)
+                                     .format(k.isSetFormat() ? k.getFormat().value() : null)
+                                     .measurand(k.isSetMeasurand() ? k.getMeasurand().value() : null)
+                                     .location(k.isSetLocation() ? k.getLocation().value() : null)
+                                     .unit(k.isSetUnit() ? k.getUnit().value() : null)
+                                     .phase(k.isSetPhase() ? k.getPhase().value() : null)
+                                     .build();
     }
 
-    private void batchInsertMeterValues(DSLContext ctx, List<MeterValue> list, int connectorPk, Integer transactionId) {
-        List<ConnectorMeterValueRecord> batch =
-                list.stream()
-                    .flatMap(t -> t.getSampledValue()
-                                   .stream()
-                                   .map(k -> ctx.newRecord(CONNECTOR_METER_VALUE)
-                                                .setConnectorPk(connectorPk)
-                                                .setTransactionPk(transactionId)
-                                                .setValueTimestamp(t.getTimestamp())
-                                                .setValue(k.getValue())
-                                                // The following are optional fields!
-                                                .setReadingContext(k.isSetContext() ? k.getContext().value() : null)
-                                                .setFormat(k.isSetFormat() ? k.getFormat().value() : null)
-                                                .setMeasurand(k.isSetMeasurand() ? k.getMeasurand().value() : null)
-                                                .setLocation(k.isSetLocation() ? k.getLocation().value() : null)
-                                                .setUnit(k.isSetUnit() ? k.getUnit().value() : null)
-                                                .setPhase(k.isSetPhase() ? k.getPhase().value() : null)))
-                    .collect(Collectors.toList());
-
-        ctx.batchInsert(batch).execute();
+    /**
+     * @return null, if the value is not a finite number (e.g. signed data)
+     */
+    @Nullable
+    private static Double toNumericValue(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            double d = Double.parseDouble(value);
+            return Double.isFinite(d) ? d : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
 }
@@ -0,0 +1,113 @@
+package de.rwth.idsg.steve.repository.impl;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import jooq.steve.db.tables.records.OcppTagActivityRecord;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.Nullable;
+import org.jooq.DSLContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static de.rwth.idsg.steve.SteveConfiguration.CONFIG;
+import static jooq.steve.db.tables.OcppTagActivity.OCPP_TAG_ACTIVITY;
+
+/**
+ * Cache of OCPP_TAG_ACTIVITY for the authorization decisions of OCPP messages.
+ *
+ * The view aggregates the whole transaction table to find the number of active transactions of a tag. We load it only
+ * once per tag and afterwards keep the number of active transactions up to date with
+ * {@link #transactionStarted(String)} and {@link #transactionStopped(String)}. Changes to the tags themselves must
+ * invalidate the affected entries.
+ *
+ * The entries expire after a while, so that the counter cannot drift forever, if a transaction was started or stopped
+ * exactly while its tag was being loaded. A TTL of 0 keeps no entries at all, i.e. every lookup goes to DB.
+ *
+ * @since 18.10.2026
+ */
+@Component
+public class OcppTagActivityCache {
+
+    @Autowired private DSLContext ctx;
+
+    private final LoadingCache<String, Entry> cache =
+            CacheBuilder.newBuilder()
+                        .expireAfterWrite(CONFIG.getOcpp().getOcppTagActivityCacheTtlInSeconds(), TimeUnit.SECONDS)
+                        .maximumSize(CONFIG.getOcpp().getOcppTagActivityCacheMaxSize())
+                        .build(CacheLoader.from(this::load));
+
+    /**
+     * @return a copy of the record with the current number of active transactions, or null if the tag is unknown
+     */
+    @Nullable
+    public OcppTagActivityRecord get(String idTag) {
+        Entry entry = cache.getUnchecked(idTag);
+        if (entry.record == null) {
+            // Do not keep unknown tags. An invalidation does not affect a load that is in progress, so a tag that is
+            // added during the load would be rejected until the entry expires.
+            cache.asMap().remove(idTag, entry);
+            return null;
+        }
+
+        OcppTagActivityRecord copy = entry.record.into(OCPP_TAG_ACTIVITY);
+        copy.setActiveTransactionCount(entry.activeTransactionCount.get());
+        return copy;
+    }
+
+    public void transactionStarted(String idTag) {
+        Entry entry = cache.getIfPresent(idTag);
+        if (entry != null) {
+            entry.activeTransactionCount.incrementAndGet();
+        }
+    }
+
+    public void transactionStopped(String idTag) {
+        Entry entry = cache.getIfPresent(idTag);
+        if (entry != null) {
+            entry.activeTransactionCount.updateAndGet(i -> Math.max(0, i - 1));
+        }
+    }
+
+    /**
+     * To correct the counter, when the actual number of active transactions is known anyway
+     */
+    public void setActiveTransactionCount(String idTag, long count) {
+        Entry entry = cache.getIfPresent(idTag);
+        if (entry != null) {
+            entry.activeTransactionCount.set(count);
+        }
+    }
+
+    public void invalidate(String idTag) {
+        cache.invalidate(idTag);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private Entry load(String idTag) {
+        OcppTagActivityRecord record = ctx.selectFrom(OCPP_TAG_ACTIVITY)
+                                          .where(OCPP_TAG_ACTIVITY.ID_TAG.equal(idTag))
+                                          .fetchOne();
+        if (record == null) {
+            return new Entry(null, new AtomicLong(0));
+        } else {
+            return new Entry(record, new AtomicLong(record.getActiveTransactionCount()));
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class Entry {
+        @Nullable private final OcppTagActivityRecord record;
+        private final AtomicLong activeTransactionCount;
+    }
+}
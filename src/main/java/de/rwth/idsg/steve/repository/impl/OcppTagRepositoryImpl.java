@@ -18,6 +18,7 @@ import org.jooq.Result;
 import org.jooq.SelectQuery;
 import org.jooq.TableField;
 import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DSL;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
@@ -27,8 +28,10 @@ import java.util.stream.Collectors;
 
 import static de.rwth.idsg.steve.utils.DateTimeUtils.humanize;
 import static de.rwth.idsg.steve.utils.DateTimeUtils.toDateTime;
+import static jooq.steve.db.tables.ConnectorMeterValue.CONNECTOR_METER_VALUE;
 import static jooq.steve.db.tables.OcppTag.OCPP_TAG;
 import static jooq.steve.db.tables.OcppTagActivity.OCPP_TAG_ACTIVITY;
+import static jooq.steve.db.tables.TransactionStart.TRANSACTION_START;
 
 /**
  * @author Sevket Goekay <goekay@dbis.rwth-aachen.de>
@@ -39,10 +42,12 @@ import static jooq.steve.db.tables.OcppTagActivity.OCPP_TAG_ACTIVITY;
 public class OcppTagRepositoryImpl implements OcppTagRepository {
 
     private final DSLContext ctx;
+    private final OcppTagActivityCache ocppTagActivityCache;
 
     @Autowired
-    public OcppTagRepositoryImpl(DSLContext ctx) {
+    public OcppTagRepositoryImpl(DSLContext ctx, OcppTagActivityCache ocppTagActivityCache) {
         this.ctx = ctx;
+        this.ocppTagActivityCache = ocppTagActivityCache;
     }
 
     @Override
@@ -166,20 +171,25 @@ public class OcppTagRepositoryImpl implements OcppTagRepository {
                                              .collect(Collectors.toList());
 
         ctx.batchInsert(batch).execute();
+        idTagList.forEach(ocppTagActivityCache::invalidate);
     }
 
     @Override
     public int addOcppTag(OcppTagForm u) {
         try {
-            return ctx.insertInto(OCPP_TAG)
-                      .set(OCPP_TAG.ID_TAG, u.getIdTag())
-                      .set(OCPP_TAG.PARENT_ID_TAG, u.getParentIdTag())
-                      .set(OCPP_TAG.EXPIRY_DATE, toDateTime(u.getExpiration()))
-                      .set(OCPP_TAG.MAX_ACTIVE_TRANSACTION_COUNT, u.getMaxActiveTransactionCount())
-                      .set(OCPP_TAG.NOTE, u.getNote())
-                      .returning(OCPP_TAG.OCPP_TAG_PK)
-                      .fetchOne()
-                      .getOcppTagPk();
+            int ocppTagPk = ctx.insertInto(OCPP_TAG)
+                               .set(OCPP_TAG.ID_TAG, u.getIdTag())
+                               .set(OCPP_TAG.PARENT_ID_TAG, u.getParentIdTag())
+                               .set(OCPP_TAG.EXPIRY_DATE, toDateTime(u.getExpiration()))
+                               .set(OCPP_TAG.MAX_ACTIVE_TRANSACTION_COUNT, u.getMaxActiveTransactionCount())
+                               .set(OCPP_TAG.NOTE, u.getNote())
+                               .returning(OCPP_TAG.OCPP_TAG_PK)
+                               .fetchOne()
+                               .getOcppTagPk();
+
+            // After the insert, such that a concurrent lookup cannot cache the old state again
+            ocppTagActivityCache.invalidate(u.getIdTag());
+            return ocppTagPk;
 
         } catch (DataAccessException e) {
             if (e.getCause() instanceof SQLIntegrityConstraintViolationException) {
@@ -202,18 +212,47 @@ public class OcppTagRepositoryImpl implements OcppTagRepository {
                .execute();
         } catch (DataAccessException e) {
             throw new SteveException("Execution of updateOcppTag for idTag '%s' FAILED.", u.getIdTag(), e);
+        } finally {
+            ocppTagActivityCache.invalidate(u.getIdTag());
         }
     }
 
     @Override
     public void deleteOcppTag(int ocppTagPk) {
+        String idTag;
         try {
-            ctx.delete(OCPP_TAG)
-               .where(OCPP_TAG.OCPP_TAG_PK.equal(ocppTagPk))
-               .execute();
+            idTag = ctx.transactionResult(configuration -> {
+                DSLContext ctx = DSL.using(configuration);
+
+                String id = ctx.select(OCPP_TAG.ID_TAG)
+                               .from(OCPP_TAG)
+                               .where(OCPP_TAG.OCPP_TAG_PK.equal(ocppTagPk))
+                               .fetchOne(OCPP_TAG.ID_TAG);
+
+                // The transactions of the tag are deleted with it (ON DELETE CASCADE). If connector_meter_value is
+                // partitioned (see PartitionManager), it has no foreign key that sets its references to NULL.
+                ctx.update(CONNECTOR_METER_VALUE)
+                   .set(CONNECTOR_METER_VALUE.TRANSACTION_PK, (Integer) null)
+                   .where(CONNECTOR_METER_VALUE.TRANSACTION_PK.in(
+                           DSL.select(TRANSACTION_START.TRANSACTION_PK)
+                              .from(TRANSACTION_START)
+                              .join(OCPP_TAG).on(OCPP_TAG.ID_TAG.eq(TRANSACTION_START.ID_TAG))
+                              .where(OCPP_TAG.OCPP_TAG_PK.equal(ocppTagPk))))
+                   .execute();
+
+                ctx.delete(OCPP_TAG)
+                   .where(OCPP_TAG.OCPP_TAG_PK.equal(ocppTagPk))
+                   .execute();
+                return id;
+            });
         } catch (DataAccessException e) {
             throw new SteveException("Execution of deleteOcppTag for idTag FAILED.", e);
         }
+
+        // A failed delete was rolled back and did not change the tag
+        if (idTag != null) {
+            ocppTagActivityCache.invalidate(idTag);
+        }
     }
 
     private void processBooleanType(SelectQuery selectQuery,
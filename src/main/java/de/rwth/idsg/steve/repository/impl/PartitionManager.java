@@ -0,0 +1,283 @@
+package de.rwth.idsg.steve.repository.impl;
+
+import com.google.common.collect.ImmutableMap;
+import de.rwth.idsg.steve.SteveException;
+import lombok.extern.slf4j.Slf4j;
+import org.joda.time.DateTime;
+import org.joda.time.LocalDate;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+import org.jooq.DSLContext;
+import org.jooq.Table;
+import org.jooq.TableField;
+import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DSL;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static de.rwth.idsg.steve.SteveConfiguration.CONFIG;
+import static jooq.steve.db.tables.ConnectorMeterValue.CONNECTOR_METER_VALUE;
+import static jooq.steve.db.tables.ConnectorStatus.CONNECTOR_STATUS;
+
+/**
+ * Maintains the monthly RANGE partitions of the append-only tables, if enabled (db.partition.enabled).
+ *
+ * This is not a Flyway migration, since partitioning is optional and rebuilds the two largest tables. When enabled, a
+ * table that is not partitioned yet is partitioned by the first maintenance. Partitioned InnoDB tables cannot have
+ * foreign keys, so they are dropped. The timestamp column becomes a DATETIME(6), since RANGE COLUMNS does not accept
+ * TIMESTAMP columns, and RANGE on UNIX_TIMESTAMP() does not accept fractional seconds.
+ *
+ * Each table has one partition per month (named pYYYYMM), the partition p_old for rows without timestamp (NULL is less
+ * than any value) and older ones, and the partition p_future for everything after the last month. We split new months
+ * off p_future before they begin, so that p_future stays empty and splitting it is cheap. Months that are older than
+ * the retention are dropped, or moved into their own table if archiving is enabled.
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+@Component
+public class PartitionManager {
+
+    /**
+     * Key   (Table)      = partitioned table
+     * Value (TableField) = its timestamp column, by which it is partitioned
+     */
+    private static final Map<Table<?>, TableField<?, DateTime>> PARTITIONED_TABLES = ImmutableMap.of(
+            CONNECTOR_METER_VALUE, CONNECTOR_METER_VALUE.VALUE_TIMESTAMP,
+            CONNECTOR_STATUS, CONNECTOR_STATUS.STATUS_TIMESTAMP
+    );
+
+    private static final String OLD_PARTITION = "p_old";
+
+    private static final String FUTURE_PARTITION = "p_future";
+    private static final Pattern MONTH_PARTITION = Pattern.compile("p(\\d{6})");
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormat.forPattern("yyyyMM");
+
+    @Autowired private DSLContext ctx;
+    @Autowired private ScheduledExecutorService executorService;
+
+    private final boolean enabled = CONFIG.getDb().isPartitionEnabled();
+    private final int retentionInMonths = CONFIG.getDb().getPartitionRetentionInMonths();
+    private final int precreateMonths = CONFIG.getDb().getPartitionPrecreateMonths();
+    private final boolean archive = CONFIG.getDb().isPartitionArchive();
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+
+        // Directly on the scheduler, and not on an executor that might drop it when busy: A skipped run could leave
+        // the new month without partition. Splitting the empty p_future and dropping partitions are quick. Only the
+        // initial partitioning takes long, and it occupies one thread of the scheduler only once.
+        executorService.scheduleWithFixedDelay(this::maintainSafely, 0, 1, TimeUnit.DAYS);
+    }
+
+    /**
+     * @return the number of partitions that were created or removed
+     */
+    public synchronized int maintain() {
+        if (!enabled) {
+            throw new SteveException("Partitioning is not enabled (db.partition.enabled)");
+        }
+
+        int count = 0;
+        for (Map.Entry<Table<?>, TableField<?, DateTime>> entry : PARTITIONED_TABLES.entrySet()) {
+            Table<?> table = entry.getKey();
+            List<LocalDate> months = getMonthPartitions(table);
+            if (months.isEmpty()) {
+                if (isPartitioned(table.getName())) {
+                    log.warn("Table '{}' is partitioned, but has no monthly partitions. Skipping", table.getName());
+                    continue;
+                }
+                count += partition(table, entry.getValue());
+                months = getMonthPartitions(table);
+            }
+            count += createPartitions(table, months);
+            count += removeExpiredPartitions(table, months);
+        }
+        return count;
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private void maintainSafely() {
+        try {
+            maintain();
+        } catch (Exception e) {
+            log.error("Failed to maintain the partitions", e);
+        }
+    }
+
+    /**
+     * Every step checks what is done already, such that a failed (or interrupted) run can simply be repeated.
+     *
+     * @return the number of partitions that were created
+     */
+    private int partition(Table<?> table, TableField<?, DateTime> column) {
+        log.info("Partitioning table '{}' by month. This might take a while", table.getName());
+
+        List<String> foreignKeys = ctx.resultQuery("SELECT CONSTRAINT_NAME FROM information_schema.TABLE_CONSTRAINTS "
+                                                           + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? "
+                                                           + "AND CONSTRAINT_TYPE = 'FOREIGN KEY'", table.getName())
+                                      .fetch(0, String.class);
+
+        if (!foreignKeys.isEmpty()) {
+            ctx.execute(String.format("ALTER TABLE `%s` %s", table.getName(),
+                    foreignKeys.stream()
+                               .map(fk -> "DROP FOREIGN KEY `" + fk + "`")
+                               .collect(Collectors.joining(", "))));
+        }
+
+        // In the session of the application, such that the values read back are the same as before
+        ctx.execute(String.format("ALTER TABLE `%s` MODIFY COLUMN `%s` DATETIME(6) NULL DEFAULT NULL",
+                table.getName(), column.getName()));
+
+        DateTime oldest = ctx.select(DSL.min(column)).from(table).fetchOne().value1();
+        LocalDate firstMonth = oldest == null ? currentMonth() : oldest.toLocalDate().withDayOfMonth(1);
+        LocalDate lastMonth = currentMonth().plusMonths(precreateMonths);
+
+        List<String> definitions = new ArrayList<>();
+        definitions.add(String.format("PARTITION %s VALUES LESS THAN ('%s')", OLD_PARTITION, firstMonth));
+        for (LocalDate month = firstMonth; !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+            definitions.add(monthDefinition(month));
+        }
+        definitions.add("PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN MAXVALUE");
+
+        ctx.execute(String.format("ALTER TABLE `%s` PARTITION BY RANGE COLUMNS(`%s`) (%s)",
+                table.getName(), column.getName(), String.join(", ", definitions)));
+
+        int created = definitions.size();
+        log.info("Partitioned table '{}' into {} partitions", table.getName(), created);
+        return created;
+    }
+
+    /**
+     * @return the months that have their own partition, in ascending order
+     */
+    private List<LocalDate> getMonthPartitions(Table<?> table) {
+        List<String> names = ctx.resultQuery("SELECT PARTITION_NAME FROM information_schema.PARTITIONS "
+                                                     + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? "
+                                                     + "ORDER BY PARTITION_ORDINAL_POSITION", table.getName())
+                                .fetch(0, String.class);
+
+        List<LocalDate> months = new ArrayList<>();
+        for (String name : names) {
+            Matcher m = name == null ? null : MONTH_PARTITION.matcher(name);
+            if (m != null && m.matches()) {
+                months.add(LocalDate.parse(m.group(1), MONTH_FORMAT));
+            }
+        }
+        return months;
+    }
+
+    private int createPartitions(Table<?> table, List<LocalDate> months) {
+        LocalDate lastMonth = currentMonth().plusMonths(precreateMonths);
+
+        List<String> definitions = new ArrayList<>();
+        for (LocalDate month = months.get(months.size() - 1).plusMonths(1);
+             !month.isAfter(lastMonth);
+             month = month.plusMonths(1)) {
+            definitions.add(monthDefinition(month));
+        }
+
+        if (definitions.isEmpty()) {
+            return 0;
+        }
+
+        definitions.add("PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN MAXVALUE");
+        ctx.execute(String.format("ALTER TABLE `%s` REORGANIZE PARTITION %s INTO (%s)",
+                table.getName(), FUTURE_PARTITION, String.join(", ", definitions)));
+
+        int created = definitions.size() - 1;
+        log.info("Created {} new partition(s) of table '{}'", created, table.getName());
+        return created;
+    }
+
+    private int removeExpiredPartitions(Table<?> table, List<LocalDate> months) {
+        if (retentionInMonths <= 0) {
+            return 0;
+        }
+
+        LocalDate firstMonthToKeep = currentMonth().minusMonths(retentionInMonths);
+        List<LocalDate> expired = months.stream()
+                                        .filter(month -> month.isBefore(firstMonthToKeep))
+                                        .collect(Collectors.toList());
+
+        for (LocalDate month : expired) {
+            if (archive) {
+                archivePartition(table, month);
+            }
+            ctx.execute(String.format("ALTER TABLE `%s` DROP PARTITION %s", table.getName(), partitionName(month)));
+            log.info("Removed partition '{}' of table '{}'", partitionName(month), table.getName());
+        }
+        return expired.size();
+    }
+
+    /**
+     * Swaps the rows of the partition with an empty copy of the table, which is cheap compared to copying the rows.
+     *
+     * A previous run might have failed after creating the archive table, or after the exchange (then the partition
+     * is empty, and only has to be dropped). Neither must prevent the partition from being archived eventually.
+     */
+    private void archivePartition(Table<?> table, LocalDate month) {
+        String archiveTable = table.getName() + "_archive_" + MONTH_FORMAT.print(month);
+        String partition = partitionName(month);
+        try {
+            ctx.execute(String.format("CREATE TABLE IF NOT EXISTS `%s` LIKE `%s`", archiveTable, table.getName()));
+            if (isPartitioned(archiveTable)) {
+                ctx.execute(String.format("ALTER TABLE `%s` REMOVE PARTITIONING", archiveTable));
+            }
+
+            if (!isEmpty("`" + archiveTable + "`")) {
+                if (isEmpty(String.format("`%s` PARTITION (%s)", table.getName(), partition))) {
+                    log.info("Partition '{}' of table '{}' is already archived", partition, table.getName());
+                    return;
+                }
+                throw new SteveException("Archive table '%s' already contains rows", archiveTable);
+            }
+
+            ctx.execute(String.format("ALTER TABLE `%s` EXCHANGE PARTITION %s WITH TABLE `%s`",
+                    table.getName(), partition, archiveTable));
+        } catch (DataAccessException e) {
+            // Do not drop the partition, if we could not move its rows
+            throw new SteveException("Failed to archive partition '%s' of table '%s'",
+                    partition, table.getName(), e);
+        }
+    }
+
+    private boolean isPartitioned(String tableName) {
+        return ctx.fetchExists(DSL.selectOne()
+                                  .from("information_schema.PARTITIONS")
+                                  .where("TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL",
+                                          tableName));
+    }
+
+    private boolean isEmpty(String tableReference) {
+        return !ctx.fetchExists(DSL.selectOne().from(tableReference));
+    }
+
+    private static LocalDate currentMonth() {
+        return LocalDate.now().withDayOfMonth(1);
+    }
+
+    private static String partitionName(LocalDate month) {
+        return "p" + MONTH_FORMAT.print(month);
+    }
+
+    private static String monthDefinition(LocalDate month) {
+        return String.format("PARTITION %s VALUES LESS THAN ('%s')", partitionName(month), month.plusMonths(1));
+    }
+}
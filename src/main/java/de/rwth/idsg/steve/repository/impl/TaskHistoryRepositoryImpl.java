@@ -0,0 +1,175 @@
+package de.rwth.idsg.steve.repository.impl;
+
+import de.rwth.idsg.steve.ocpp.CommunicationTask;
+import de.rwth.idsg.steve.ocpp.OcppVersion;
+import de.rwth.idsg.steve.ocpp.RequestResult;
+import de.rwth.idsg.steve.ocpp.TaskOrigin;
+import de.rwth.idsg.steve.repository.TaskHistoryRepository;
+import de.rwth.idsg.steve.repository.dto.TaskHistory;
+import de.rwth.idsg.steve.repository.dto.TaskOverview;
+import jooq.steve.db.tables.records.TaskHistoryRecord;
+import jooq.steve.db.tables.records.TaskHistoryResultRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+import org.joda.time.DateTime;
+import org.jooq.DSLContext;
+import org.jooq.impl.DSL;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static jooq.steve.db.tables.TaskHistory.TASK_HISTORY;
+import static jooq.steve.db.tables.TaskHistoryResult.TASK_HISTORY_RESULT;
+
+/**
+ * @since 18.10.2026
+ */
+@Slf4j
+@Repository
+public class TaskHistoryRepositoryImpl implements TaskHistoryRepository {
+
+    private final DSLContext ctx;
+
+    @Autowired
+    public TaskHistoryRepositoryImpl(DSLContext ctx) {
+        this.ctx = ctx;
+    }
+
+    @Override
+    public void insert(int taskId, CommunicationTask<?, ?> task) {
+        ctx.transaction(configuration -> {
+            DSLContext ctx = DSL.using(configuration);
+
+            ctx.insertInto(TASK_HISTORY)
+               .set(TASK_HISTORY.TASK_ID, taskId)
+               .set(TASK_HISTORY.OCPP_VERSION, task.getOcppVersion().name())
+               .set(TASK_HISTORY.OPERATION_NAME, task.getOperationName())
+               .set(TASK_HISTORY.ORIGIN, task.getOrigin().name())
+               .set(TASK_HISTORY.CALLER, task.getCaller())
+               .set(TASK_HISTORY.START_TIMESTAMP, task.getStartTimestamp())
+               .set(TASK_HISTORY.END_TIMESTAMP, task.getEndTimestamp())
+               .set(TASK_HISTORY.REQUEST_COUNT, task.getResultSize())
+               .set(TASK_HISTORY.DISPATCHED_COUNT, task.getDispatchedCount().get())
+               .set(TASK_HISTORY.RESPONSE_COUNT, task.getResponseCount().get())
+               .set(TASK_HISTORY.ERROR_COUNT, task.getErrorCount().get())
+               .execute();
+
+            List<TaskHistoryResultRecord> batch =
+                    task.getResultMap()
+                        .entrySet()
+                        .stream()
+                        .map(e -> ctx.newRecord(TASK_HISTORY_RESULT)
+                                     .setTaskId(taskId)
+                                     .setChargeBoxId(e.getKey())
+                                     .setResponse(e.getValue().getResponse())
+                                     .setErrorMessage(e.getValue().getErrorMessage()))
+                        .collect(Collectors.toList());
+
+            ctx.batchInsert(batch).execute();
+        });
+    }
+
+    @Override
+    public int getMaxTaskId() {
+        Integer max = ctx.select(DSL.max(TASK_HISTORY.TASK_ID))
+                         .from(TASK_HISTORY)
+                         .fetchOne()
+                         .value1();
+
+        return max == null ? 0 : max;
+    }
+
+    @Override
+    public int getCount() {
+        return ctx.fetchCount(TASK_HISTORY);
+    }
+
+    @Override
+    public List<TaskOverview> getOverview(int limit) {
+        return ctx.selectFrom(TASK_HISTORY)
+                  .orderBy(TASK_HISTORY.TASK_ID.desc())
+                  .limit(limit)
+                  .fetch()
+                  .map(r -> TaskOverview.builder()
+                                        .taskId(r.getTaskId())
+                                        .origin(TaskOrigin.valueOf(r.getOrigin()))
+                                        .start(r.getStartTimestamp())
+                                        .end(r.getEndTimestamp())
+                                        .responseCount(r.getResponseCount())
+                                        .requestCount(r.getRequestCount())
+                                        .build());
+    }
+
+    @Nullable
+    @Override
+    public TaskHistory get(int taskId) {
+        TaskHistoryRecord r = ctx.selectFrom(TASK_HISTORY)
+                                 .where(TASK_HISTORY.TASK_ID.equal(taskId))
+                                 .fetchOne();
+
+        if (r == null) {
+            return null;
+        }
+
+        Map<String, RequestResult> resultMap = new TreeMap<>();
+        ctx.selectFrom(TASK_HISTORY_RESULT)
+           .where(TASK_HISTORY_RESULT.TASK_ID.equal(taskId))
+           .fetch()
+           .forEach(k -> {
+               RequestResult result = new RequestResult();
+               result.setResponse(k.getResponse());
+               result.setErrorMessage(k.getErrorMessage());
+               resultMap.put(k.getChargeBoxId(), result);
+           });
+
+        return TaskHistory.builder()
+                          .taskId(r.getTaskId())
+                          .ocppVersion(OcppVersion.valueOf(r.getOcppVersion()))
+                          .operationName(r.getOperationName())
+                          .origin(TaskOrigin.valueOf(r.getOrigin()))
+                          .caller(r.getCaller())
+                          .startTimestamp(r.getStartTimestamp())
+                          .endTimestamp(r.getEndTimestamp())
+                          .dispatchedCount(r.getDispatchedCount())
+                          .responseCount(r.getResponseCount())
+                          .errorCount(r.getErrorCount())
+                          .resultMap(resultMap)
+                          .build();
+    }
+
+    @Override
+    public int deleteFinishedBefore(DateTime threshold) {
+        int count = ctx.deleteFrom(TASK_HISTORY)
+                       .where(TASK_HISTORY.END_TIMESTAMP.lessThan(threshold))
+                       .execute();
+
+        log.debug("Deleted {} tasks from the history, which finished before {}", count, threshold);
+        return count;
+    }
+
+    @Override
+    public int deleteAllButLatest(int maxSize) {
+        // The task ids are increasing, so the task at this position and all before it are the oldest ones
+        Integer newestToDelete = ctx.select(TASK_HISTORY.TASK_ID)
+                                    .from(TASK_HISTORY)
+                                    .orderBy(TASK_HISTORY.TASK_ID.desc())
+                                    .limit(1)
+                                    .offset(maxSize)
+                                    .fetchOne(TASK_HISTORY.TASK_ID);
+
+        if (newestToDelete == null) {
+            return 0;
+        }
+
+        int count = ctx.deleteFrom(TASK_HISTORY)
+                       .where(TASK_HISTORY.TASK_ID.lessOrEqual(newestToDelete))
+                       .execute();
+
+        log.debug("Deleted {} tasks from the history, to keep at most {}", count, maxSize);
+        return count;
+    }
+}
@@ -2,17 +2,37 @@ package de.rwth.idsg.steve.repository.impl;
 
 import de.rwth.idsg.steve.SteveException;
 import de.rwth.idsg.steve.ocpp.CommunicationTask;
+import de.rwth.idsg.steve.repository.TaskHistoryRepository;
 import de.rwth.idsg.steve.repository.TaskStore;
+import de.rwth.idsg.steve.repository.dto.TaskHistory;
 import de.rwth.idsg.steve.repository.dto.TaskOverview;
 import lombok.extern.slf4j.Slf4j;
+import org.joda.time.DateTime;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import javax.annotation.PostConstruct;
+import java.util.Comparator;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
+import static de.rwth.idsg.steve.SteveConfiguration.CONFIG;
+
 /**
+ * Keeps the tasks in memory, but not forever: A finished task is evicted when it is older than the max age, or when
+ * there are more tasks than the max size (oldest first). Unfinished tasks are never evicted.
+ *
+ * If persistence is enabled, finished tasks are written to the database by the periodic maintenance, and are evicted
+ * only afterwards. The overview then combines the tasks in memory with the ones in the database. The maintenance
+ * bounds the database as well, with its own max age and max size.
+ *
  * @author Sevket Goekay <goekay@dbis.rwth-aachen.de>
  * @since 29.12.2014
  */
@@ -20,50 +40,236 @@ import java.util.stream.Collectors;
 @Repository
 public class TaskStoreImpl implements TaskStore {
 
+    private static final int MAINTENANCE_INTERVAL_IN_SECONDS = 10;
+
+    @Autowired private TaskHistoryRepository taskHistoryRepository;
+    @Autowired private ScheduledExecutorService executorService;
+
+    private final int maxSize = CONFIG.getOcpp().getTaskStoreMaxSize();
+    private final long maxAgeInMillis = TimeUnit.MINUTES.toMillis(CONFIG.getOcpp().getTaskStoreMaxAgeInMinutes());
+    private final boolean persist = CONFIG.getOcpp().isTaskStorePersist();
+    private final int historyMaxSize = CONFIG.getOcpp().getTaskHistoryMaxSize();
+    private final long historyMaxAgeInMillis = TimeUnit.DAYS.toMillis(CONFIG.getOcpp().getTaskHistoryMaxAgeInDays());
+
     private final AtomicInteger atomicInteger = new AtomicInteger(0);
-    private final ConcurrentHashMap<Integer, CommunicationTask> lookupTable = new ConcurrentHashMap<>();
+
+    // Sorted by taskId, such that neither the overview nor the eviction (oldest first) has to sort
+    private final ConcurrentSkipListMap<Integer, Entry> lookupTable = new ConcurrentSkipListMap<>();
+
+    // The size() of the skip list is not constant-time
+    private final AtomicInteger size = new AtomicInteger(0);
+
+    // For getCount(), such that it neither looks at every task nor queries the database: The tasks in memory that are
+    // not persisted (yet), and the tasks in the database
+    private final AtomicInteger notPersistedCount = new AtomicInteger(0);
+    private final AtomicInteger historyCount = new AtomicInteger(0);
+
+    @PostConstruct
+    public void init() {
+        if (persist) {
+            // Continue after the stored tasks, such that their ids are not reused
+            atomicInteger.set(taskHistoryRepository.getMaxTaskId());
+            historyCount.set(taskHistoryRepository.getCount());
+        }
+        executorService.scheduleWithFixedDelay(this::maintainSafely,
+                MAINTENANCE_INTERVAL_IN_SECONDS, MAINTENANCE_INTERVAL_IN_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public List<TaskOverview> getOverview(int offset, int limit) {
+        // Both sources are sorted. The first (offset + limit) tasks of each contain the first (offset + limit) of
+        // their union. A task can be in both, if it was persisted but not evicted yet.
+        TreeMap<Integer, TaskOverview> merged = new TreeMap<>(Comparator.reverseOrder());
+
+        lookupTable.descendingMap()
+                   .entrySet()
+                   .stream()
+                   .limit(offset + limit)
+                   .forEach(entry -> merged.put(entry.getKey(), toOverview(entry.getKey(), entry.getValue().task)));
+
+        if (persist) {
+            for (TaskOverview o : taskHistoryRepository.getOverview(offset + limit)) {
+                merged.putIfAbsent(o.getTaskId(), o);
+            }
+        }
+
+        return merged.values()
+                     .stream()
+                     .skip(offset)
+                     .limit(limit)
+                     .collect(Collectors.toList());
+    }
 
     @Override
-    public List<TaskOverview> getOverview() {
-        return lookupTable.entrySet()
-                          .stream()
-                          .map(entry -> {
-                              CommunicationTask r = entry.getValue();
-                              return TaskOverview.builder()
-                                                 .taskId(entry.getKey())
-                                                 .origin(r.getOrigin())
-                                                 .start(r.getStartTimestamp())
-                                                 .end(r.getEndTimestamp())
-                                                 .responseCount(r.getResponseCount().get())
-                                                 .requestCount(r.getResultMap().size())
-                                                 .build();
-                          })
-                          .sorted()
-                          .collect(Collectors.toList());
+    public int getCount() {
+        if (persist) {
+            return historyCount.get() + notPersistedCount.get();
+        } else {
+            return size.get();
+        }
+    }
+
+    @Override
+    public boolean contains(Integer taskId) {
+        return lookupTable.containsKey(taskId);
     }
 
     @Override
     public CommunicationTask get(Integer taskId) {
-        CommunicationTask r = lookupTable.get(taskId);
-        if (r == null) {
+        Entry entry = lookupTable.get(taskId);
+        if (entry == null) {
             throw new SteveException("There is no task with taskId '%s'", taskId);
         } else {
-            return r;
+            return entry.task;
+        }
+    }
+
+    @Override
+    public TaskHistory getHistory(Integer taskId) {
+        TaskHistory history = persist ? taskHistoryRepository.get(taskId) : null;
+        if (history == null) {
+            throw new SteveException("There is no task with taskId '%s'", taskId);
+        } else {
+            return history;
         }
     }
 
     @Override
     public Integer add(CommunicationTask task) {
         int taskId = atomicInteger.incrementAndGet();
-        lookupTable.put(taskId, task);
+        lookupTable.put(taskId, new Entry(task));
+        notPersistedCount.incrementAndGet();
+        if (size.incrementAndGet() > maxSize) {
+            evictBySize();
+        }
         return taskId;
     }
 
     @Override
     public void clearFinished() {
-        lookupTable.entrySet()
-                   .stream()
-                   .filter(entry -> entry.getValue().isFinished())
-                   .forEach(entry -> lookupTable.remove(entry.getKey()));
+        for (Map.Entry<Integer, Entry> entry : lookupTable.entrySet()) {
+            if (isEvictable(entry.getValue())) {
+                remove(entry.getKey());
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private static TaskOverview toOverview(int taskId, CommunicationTask task) {
+        return TaskOverview.builder()
+                           .taskId(taskId)
+                           .origin(task.getOrigin())
+                           .start(task.getStartTimestamp())
+                           .end(task.getEndTimestamp())
+                           .responseCount(task.getResponseCount().get())
+                           .requestCount(task.getResultMap().size())
+                           .build();
+    }
+
+    private void remove(Integer taskId) {
+        Entry entry = lookupTable.remove(taskId);
+        if (entry != null) {
+            size.decrementAndGet();
+            uncount(entry);
+        }
+    }
+
+    /**
+     * Called when the task is persisted or removed, whichever happens first
+     */
+    private void uncount(Entry entry) {
+        if (entry.counted.compareAndSet(true, false)) {
+            notPersistedCount.decrementAndGet();
+        }
+    }
+
+    private boolean isEvictable(Entry entry) {
+        return entry.task.isFinished() && (!persist || entry.persisted || entry.persistFailed);
+    }
+
+    private void maintainSafely() {
+        try {
+            if (persist) {
+                persistFinished();
+                evictHistory();
+            }
+            evictByAge();
+            evictBySize();
+        } catch (Exception e) {
+            // An exception would stop the subsequent executions of the schedule
+            log.error("Failed to maintain the tasks", e);
+        }
+    }
+
+    private void persistFinished() {
+        for (Map.Entry<Integer, Entry> e : lookupTable.entrySet()) {
+            Entry entry = e.getValue();
+            if (entry.persisted || entry.persistFailed || !entry.task.isFinished()) {
+                continue;
+            }
+
+            try {
+                taskHistoryRepository.insert(e.getKey(), entry.task);
+                entry.persisted = true;
+                historyCount.incrementAndGet();
+                uncount(entry);
+            } catch (Exception ex) {
+                // Do not retry forever. The task stays viewable until it is evicted
+                entry.persistFailed = true;
+                log.error("Failed to persist the task {}", e.getKey(), ex);
+            }
+        }
+    }
+
+    private void evictHistory() {
+        DateTime threshold = DateTime.now().minus(historyMaxAgeInMillis);
+        historyCount.addAndGet(-taskHistoryRepository.deleteFinishedBefore(threshold));
+
+        if (historyCount.get() > historyMaxSize) {
+            historyCount.addAndGet(-taskHistoryRepository.deleteAllButLatest(historyMaxSize));
+        }
+    }
+
+    private void evictByAge() {
+        DateTime threshold = DateTime.now().minus(maxAgeInMillis);
+        for (Map.Entry<Integer, Entry> e : lookupTable.entrySet()) {
+            Entry entry = e.getValue();
+            if (isEvictable(entry) && entry.task.getEndTimestamp().isBefore(threshold)) {
+                remove(e.getKey());
+            }
+        }
+    }
+
+    private void evictBySize() {
+        for (Map.Entry<Integer, Entry> e : lookupTable.entrySet()) {
+            if (size.get() <= maxSize) {
+                return;
+            }
+            if (isEvictable(e.getValue())) {
+                remove(e.getKey());
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Classes
+    // -------------------------------------------------------------------------
+
+    private static class Entry {
+        private final CommunicationTask task;
+
+        // Only written by the maintenance, which never runs concurrently with itself
+        private volatile boolean persisted = false;
+        private volatile boolean persistFailed = false;
+
+        // Whether the task is in notPersistedCount
+        private final AtomicBoolean counted = new AtomicBoolean(true);
+
+        private Entry(CommunicationTask task) {
+            this.task = task;
+        }
     }
 }
@@ -1,5 +1,6 @@
 package de.rwth.idsg.steve.repository.impl;
 
+import com.google.common.base.Strings;
 import de.rwth.idsg.steve.SteveException;
 import de.rwth.idsg.steve.repository.TransactionRepository;
 import de.rwth.idsg.steve.repository.dto.Transaction;
@@ -25,10 +26,13 @@ import org.springframework.stereotype.Repository;
 import java.io.Writer;
 import java.util.List;
 
+import static de.rwth.idsg.steve.SteveConfiguration.CONFIG;
 import static de.rwth.idsg.steve.utils.CustomDSL.date;
+import static jooq.steve.db.tables.ActiveTransaction.ACTIVE_TRANSACTION;
 import static jooq.steve.db.tables.ChargeBox.CHARGE_BOX;
 import static jooq.steve.db.tables.Connector.CONNECTOR;
 import static jooq.steve.db.tables.ConnectorMeterValue.CONNECTOR_METER_VALUE;
+import static jooq.steve.db.tables.MeterValueDescriptor.METER_VALUE_DESCRIPTOR;
 import static jooq.steve.db.tables.OcppTag.OCPP_TAG;
 import static jooq.steve.db.tables.Transaction.TRANSACTION;
 import static jooq.steve.db.tables.TransactionStart.TRANSACTION_START;
@@ -42,6 +46,9 @@ public class TransactionRepositoryImpl implements TransactionRepository {
 
     private final DSLContext ctx;
 
+    private final boolean partitioned = CONFIG.getDb().isPartitionEnabled();
+    private final int clockSkewInHours = CONFIG.getDb().getPartitionClockSkewInHours();
+
     @Autowired
     public TransactionRepositoryImpl(DSLContext ctx) {
         this.ctx = ctx;
@@ -136,9 +143,20 @@ public class TransactionRepositoryImpl implements TransactionRepository {
 
         // Case 1: Ideal and most accurate case. Station sends meter values with transaction id set.
         //
+        // If the table is partitioned, MySQL would have to look into every partition without a time range. The values
+        // of a transaction cannot be older than its start, give or take a clock adjustment of the station.
+        //
+        Condition transactionTimestampCondition = DSL.noCondition();
+        if (startTimestamp != null && partitioned && clockSkewInHours > 0) {
+            transactionTimestampCondition =
+                    CONNECTOR_METER_VALUE.VALUE_TIMESTAMP.greaterOrEqual(startTimestamp.minusHours(clockSkewInHours))
+                                                         .or(CONNECTOR_METER_VALUE.VALUE_TIMESTAMP.isNull());
+        }
+
         SelectQuery<ConnectorMeterValueRecord> transactionQuery =
                 ctx.selectFrom(CONNECTOR_METER_VALUE)
                    .where(CONNECTOR_METER_VALUE.TRANSACTION_PK.eq(transactionPk))
+                   .and(transactionTimestampCondition)
                    .getQuery();
 
         // Case 2: Fall back to filtering according to time windows
@@ -168,43 +186,48 @@ public class TransactionRepositoryImpl implements TransactionRepository {
         // We are only interested in the first (or last) arriving entry.
         // -------------------------------------------------------------------------
 
+        Field<DateTime> valueTimestamp = t1.field(CONNECTOR_METER_VALUE.VALUE_TIMESTAMP);
+        Field<String> value = t1.field(CONNECTOR_METER_VALUE.VALUE);
+        Field<Double> numericValue = t1.field(CONNECTOR_METER_VALUE.NUMERIC_VALUE);
+
         Field<DateTime> dateTimeField;
         if (firstArrivingMeterValueIfMultiple) {
-            dateTimeField = DSL.min(t1.field(2, DateTime.class)).as("min");
+            dateTimeField = DSL.min(valueTimestamp).as("min");
         } else {
-            dateTimeField = DSL.max(t1.field(2, DateTime.class)).as("max");
+            dateTimeField = DSL.max(valueTimestamp).as("max");
         }
 
+        // The descriptors of the sampled values are stored only once in their own table
         List<TransactionDetails.MeterValues> values =
                 ctx.select(
                         dateTimeField,
-                        t1.field(3, String.class),
-                        t1.field(4, String.class),
-                        t1.field(5, String.class),
-                        t1.field(6, String.class),
-                        t1.field(7, String.class),
-                        t1.field(8, String.class),
-                        t1.field(9, String.class))
+                        value,
+                        numericValue,
+                        METER_VALUE_DESCRIPTOR.READING_CONTEXT,
+                        METER_VALUE_DESCRIPTOR.FORMAT,
+                        METER_VALUE_DESCRIPTOR.MEASURAND,
+                        METER_VALUE_DESCRIPTOR.LOCATION,
+                        METER_VALUE_DESCRIPTOR.UNIT,
+                        METER_VALUE_DESCRIPTOR.PHASE)
                    .from(t1)
+                   .join(METER_VALUE_DESCRIPTOR)
+                        .on(METER_VALUE_DESCRIPTOR.DESCRIPTOR_PK.eq(t1.field(CONNECTOR_METER_VALUE.DESCRIPTOR_PK)))
                    .groupBy(
-                           t1.field(3),
-                           t1.field(4),
-                           t1.field(5),
-                           t1.field(6),
-                           t1.field(7),
-                           t1.field(8),
-                           t1.field(9))
+                           value,
+                           numericValue,
+                           METER_VALUE_DESCRIPTOR.DESCRIPTOR_PK)
                    .orderBy(dateTimeField)
                    .fetch()
                    .map(r -> TransactionDetails.MeterValues.builder()
                                                            .valueTimestamp(r.value1())
                                                            .value(r.value2())
-                                                           .readingContext(r.value3())
-                                                           .format(r.value4())
-                                                           .measurand(r.value5())
-                                                           .location(r.value6())
-                                                           .unit(r.value7())
-                                                           .phase(r.value8())
+                                                           .numericValue(r.value3())
+                                                           .readingContext(Strings.emptyToNull(r.value4()))
+                                                           .format(Strings.emptyToNull(r.value5()))
+                                                           .measurand(Strings.emptyToNull(r.value6()))
+                                                           .location(Strings.emptyToNull(r.value7()))
+                                                           .unit(Strings.emptyToNull(r.value8()))
+                                                           .phase(Strings.emptyToNull(r.value9()))
                                                            .build());
 
         return new TransactionDetails(new TransactionMapper().map(transaction), values, nextTx);
@@ -216,15 +239,31 @@ public class TransactionRepositoryImpl implements TransactionRepository {
     @Override
     public List<String> getChargeBoxIdsOfActiveTransactions(String ocppIdTag) {
         return ctx.select(CONNECTOR.CHARGE_BOX_ID)
-                  .from(CONNECTOR)
-                  .join(TRANSACTION)
-                    .on(TRANSACTION.CONNECTOR_PK.equal(CONNECTOR.CONNECTOR_PK))
-                  .where(TRANSACTION.ID_TAG.eq(ocppIdTag))
-                    .and(TRANSACTION.STOP_VALUE.isNull())
-                    .and(TRANSACTION.STOP_TIMESTAMP.isNull())
+                  .from(ACTIVE_TRANSACTION)
+                  .join(TRANSACTION_START)
+                    .on(TRANSACTION_START.TRANSACTION_PK.equal(ACTIVE_TRANSACTION.TRANSACTION_PK))
+                  .join(CONNECTOR)
+                    .on(CONNECTOR.CONNECTOR_PK.equal(TRANSACTION_START.CONNECTOR_PK))
+                  .where(ACTIVE_TRANSACTION.ID_TAG.eq(ocppIdTag))
                   .fetch(CONNECTOR.CHARGE_BOX_ID);
     }
 
+    @Override
+    public int rebuildActiveTransactions() {
+        return ctx.transactionResult(configuration -> {
+            DSLContext ctx = DSL.using(configuration);
+
+            ctx.deleteFrom(ACTIVE_TRANSACTION).execute();
+
+            return ctx.insertInto(ACTIVE_TRANSACTION, ACTIVE_TRANSACTION.TRANSACTION_PK, ACTIVE_TRANSACTION.ID_TAG)
+                      .select(DSL.select(TRANSACTION.TRANSACTION_PK, TRANSACTION.ID_TAG)
+                                 .from(TRANSACTION)
+                                 .where(TRANSACTION.STOP_VALUE.isNull())
+                                 .and(TRANSACTION.STOP_TIMESTAMP.isNull()))
+                      .execute();
+        });
+    }
+
     // -------------------------------------------------------------------------
     // Private helpers
     // -------------------------------------------------------------------------
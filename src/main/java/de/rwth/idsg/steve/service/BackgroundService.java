@@ -1,54 +1,162 @@
 package de.rwth.idsg.steve.service;
 
+import de.rwth.idsg.steve.ocpp.CommunicationTask;
 import de.rwth.idsg.steve.repository.dto.ChargePointSelect;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
+import static de.rwth.idsg.steve.SteveConfiguration.CONFIG;
+
 /**
  * @author Sevket Goekay <goekay@dbis.rwth-aachen.de>
  * @since 08.03.2018
  */
+@Slf4j
 @RequiredArgsConstructor
 public class BackgroundService {
     private final ExecutorService executorService;
+    private final ExecutorService fanOutExecutorService;
+    private final ScheduledExecutorService scheduledExecutorService;
 
-    public static BackgroundService with(ExecutorService executorService) {
-        return new BackgroundService(executorService);
+    public static BackgroundService with(ExecutorService executorService,
+                                         ExecutorService fanOutExecutorService,
+                                         ScheduledExecutorService scheduledExecutorService) {
+        return new BackgroundService(executorService, fanOutExecutorService, scheduledExecutorService);
     }
 
-    public Runner forFirst(List<ChargePointSelect> list) {
-        return new BackgroundSingleRunner(list.get(0));
+    public Runner forFirst(CommunicationTask<?, ?> task) {
+        return new BackgroundSingleRunner(task);
     }
 
-    public Runner forEach(List<ChargePointSelect> list) {
-        return new BackgroundListRunner(list);
+    public Runner forEach(CommunicationTask<?, ?> task) {
+        return new BackgroundFanOutRunner(task);
     }
 
     public interface Runner {
         void execute(Consumer<ChargePointSelect> consumer);
     }
 
+    /**
+     * Sends the request to the first station of the task. If the executor is full, the station is marked as failed
+     * (as in BackgroundFanOutRunner), instead of propagating the rejection to the caller.
+     */
     @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
     private class BackgroundSingleRunner implements Runner {
-        private final ChargePointSelect cps;
+        private final CommunicationTask<?, ?> task;
 
         @Override
         public void execute(Consumer<ChargePointSelect> consumer) {
-            executorService.execute(() -> consumer.accept(cps));
+            ChargePointSelect cps = task.getParams().getChargePointSelectList().get(0);
+            try {
+                executorService.execute(() -> consumer.accept(cps));
+            } catch (RejectedExecutionException e) {
+                log.warn("Could not start the operation for '{}', since the executor is full", cps.getChargeBoxId());
+                task.addNewError(cps.getChargeBoxId(), "Rejected, since too many operations are running");
+            }
         }
     }
 
-    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
-    private class BackgroundListRunner implements Runner {
+    /**
+     * Sends the requests to the stations of the task in parallel, but to at most operationConcurrency of them at the
+     * same time. A station that does not respond within the deadline is marked as failed, such that the task finishes.
+     *
+     * The stations are claimed one after the other via an index. Cancelling the task claims all the remaining ones at
+     * once and marks them as cancelled. Requests that were already sent are not affected.
+     *
+     * The workers run on their own executor, which rejects them when it is full. The calling thread never sends the
+     * requests itself. If not even one worker could be started, all stations are marked as failed.
+     */
+    private class BackgroundFanOutRunner implements Runner {
+        private final CommunicationTask<?, ?> task;
         private final List<ChargePointSelect> list;
+        private final AtomicInteger nextIndex = new AtomicInteger(0);
+
+        private final int deadlineInSeconds = CONFIG.getOcpp().getOperationDeadlineInSeconds();
+        private final ConcurrentHashMap<String, ScheduledFuture<?>> deadlines = new ConcurrentHashMap<>();
+
+        private BackgroundFanOutRunner(CommunicationTask<?, ?> task) {
+            this.task = task;
+            this.list = task.getParams().getChargePointSelectList();
+        }
 
         @Override
         public void execute(Consumer<ChargePointSelect> consumer) {
-            executorService.execute(() -> list.forEach(consumer));
+            if (deadlineInSeconds > 0) {
+                task.addCompletionListener(this::cancelDeadline);
+            }
+            task.setCancelHandler(this::cancel);
+
+            int workerCount = Math.min(CONFIG.getOcpp().getOperationConcurrency(), list.size());
+            for (int i = 0; i < workerCount; i++) {
+                try {
+                    fanOutExecutorService.execute(() -> work(consumer));
+                } catch (RejectedExecutionException e) {
+                    log.warn("Started only {} of {} workers, since the executor is full", i, workerCount);
+                    if (i == 0) {
+                        // Nobody would claim the stations
+                        failRemaining("Rejected, since too many operations are running");
+                    }
+                    return;
+                }
+            }
+        }
+
+        private void work(Consumer<ChargePointSelect> consumer) {
+            int i;
+            while ((i = nextIndex.getAndIncrement()) < list.size()) {
+                String chargeBoxId = list.get(i).getChargeBoxId();
+                scheduleDeadline(chargeBoxId);
+                task.getDispatchedCount().incrementAndGet();
+                try {
+                    consumer.accept(list.get(i));
+                } catch (Exception e) {
+                    // Do not let one station stop the others
+                    log.error("Exception occurred", e);
+                    task.defaultCallback().failed(chargeBoxId, e);
+                }
+            }
+        }
+
+        private void cancel() {
+            failRemaining("Cancelled");
+        }
+
+        private void failRemaining(String errorMessage) {
+            int from = nextIndex.getAndSet(list.size());
+            for (int i = from; i < list.size(); i++) {
+                task.addNewError(list.get(i).getChargeBoxId(), errorMessage);
+            }
+        }
+
+        private void scheduleDeadline(String chargeBoxId) {
+            if (deadlineInSeconds <= 0) {
+                return;
+            }
+
+            ScheduledFuture<?> future = scheduledExecutorService.schedule(() -> {
+                deadlines.remove(chargeBoxId);
+                task.addNewError(chargeBoxId, "No response within " + deadlineInSeconds + " seconds");
+            }, deadlineInSeconds, TimeUnit.SECONDS);
+
+            deadlines.put(chargeBoxId, future);
+        }
+
+        private void cancelDeadline(String chargeBoxId) {
+            ScheduledFuture<?> future = deadlines.remove(chargeBoxId);
+            if (future != null) {
+                future.cancel(false);
+            }
         }
     }
 }
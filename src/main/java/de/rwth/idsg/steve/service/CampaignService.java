@@ -0,0 +1,411 @@
+package de.rwth.idsg.steve.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import de.rwth.idsg.steve.SteveException;
+import de.rwth.idsg.steve.ocpp.CommunicationTask;
+import de.rwth.idsg.steve.ocpp.OcppVersion;
+import de.rwth.idsg.steve.ocpp.RequestResult;
+import de.rwth.idsg.steve.ocpp.ws.JsonObjectMapper;
+import de.rwth.idsg.steve.repository.CampaignOperation;
+import de.rwth.idsg.steve.repository.CampaignRepository;
+import de.rwth.idsg.steve.repository.CampaignStationStatus;
+import de.rwth.idsg.steve.repository.CampaignStatus;
+import de.rwth.idsg.steve.repository.TaskStore;
+import de.rwth.idsg.steve.repository.dto.Campaign;
+import de.rwth.idsg.steve.repository.dto.CampaignStation;
+import de.rwth.idsg.steve.repository.dto.ChargePointSelect;
+import de.rwth.idsg.steve.web.dto.CampaignSettings;
+import de.rwth.idsg.steve.web.dto.ocpp.ChangeConfigurationParams;
+import de.rwth.idsg.steve.web.dto.ocpp.MultipleChargePointSelect;
+import de.rwth.idsg.steve.web.dto.ocpp.SendLocalListParams;
+import de.rwth.idsg.steve.web.dto.ocpp.SendLocalListUpdateType;
+import de.rwth.idsg.steve.web.dto.ocpp.UpdateFirmwareParams;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+import org.joda.time.LocalDateTime;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Rolls out an operation (e.g. UpdateFirmware) to many stations gradually instead of all at once, which would cause
+ * a thundering herd of firmware downloads and reconnects.
+ *
+ * The stations of a campaign are sent to in batches, one batch after the other. The next batch is sent only when the
+ * previous one is finished and the token bucket (filled with stationsPerSecond, holding at most one batch) allows it.
+ * When more than maxErrorPercentage of the stations fail since the campaign was started or resumed (measured after
+ * at least one batch worth of results), the campaign is halted, until the user resumes or cancels it.
+ *
+ * The progress of every station is stored in the database, such that a campaign continues where it left off after a
+ * restart. The stations of a batch that was in flight during the restart stay SENT, since their outcome is unknown
+ * and sending the operation again might be harmful (e.g. a second firmware download).
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+@Service
+public class CampaignService {
+
+    private static final TypeReference<Map<String, Object>> PARAMS_TYPE = new TypeReference<Map<String, Object>>() { };
+
+    @Autowired private CampaignRepository campaignRepository;
+    @Autowired private TaskStore taskStore;
+    @Autowired private ScheduledExecutorService executorService;
+
+    @Autowired
+    @Qualifier("ChargePointService12_Client")
+    private ChargePointService12_Client client12;
+
+    @Autowired
+    @Qualifier("ChargePointService15_Client")
+    private ChargePointService15_Client client15;
+
+    @Autowired
+    @Qualifier("ChargePointService16_Client")
+    private ChargePointService16_Client client16;
+
+    /**
+     * Key   (Integer)        = campaignPk
+     * Value (ActiveCampaign) = Campaign that is not finished or cancelled yet
+     *
+     * Modified only while holding the lock of this service
+     */
+    private final Map<Integer, ActiveCampaign> activeCampaigns = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        for (Campaign c : campaignRepository.getActive()) {
+            activeCampaigns.put(c.getCampaignPk(), new ActiveCampaign(c));
+        }
+        if (!activeCampaigns.isEmpty()) {
+            log.info("Continuing {} active campaigns", activeCampaigns.size());
+        }
+        executorService.scheduleWithFixedDelay(this::tickSafely, 1, 1, TimeUnit.SECONDS);
+    }
+
+    public int start(OcppVersion version, UpdateFirmwareParams params, CampaignSettings settings) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("location", params.getLocation());
+        map.put("retries", params.getRetries());
+        map.put("retryInterval", params.getRetryInterval());
+        map.put("retrieve", params.getRetrieve().toString());
+        return start(CampaignOperation.UPDATE_FIRMWARE, version, map, params, settings);
+    }
+
+    public int start(OcppVersion version, ChangeConfigurationParams params, CampaignSettings settings) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("key", params.getKey());
+        map.put("value", params.getValue());
+        return start(CampaignOperation.CHANGE_CONFIGURATION, version, map, params, settings);
+    }
+
+    public int start(OcppVersion version, SendLocalListParams params, CampaignSettings settings) {
+        if (version == OcppVersion.V_12) {
+            throw new SteveException("SendLocalList is not supported by OCPP 1.2");
+        }
+
+        Map<String, Object> map = new HashMap<>();
+        map.put("listVersion", params.getListVersion());
+        map.put("updateType", params.getUpdateType().name());
+        map.put("addUpdateList", params.getAddUpdateList());
+        map.put("deleteList", params.getDeleteList());
+        return start(CampaignOperation.SEND_LOCAL_LIST, version, map, params, settings);
+    }
+
+    public synchronized void pause(int campaignPk) {
+        ActiveCampaign c = getActive(campaignPk);
+        c.status = CampaignStatus.PAUSED;
+        campaignRepository.updateStatus(campaignPk, CampaignStatus.PAUSED, null);
+    }
+
+    public synchronized void resume(int campaignPk) {
+        ActiveCampaign c = getActive(campaignPk);
+        c.status = CampaignStatus.RUNNING;
+        c.succeededCount = 0;
+        c.failedCount = 0;
+        campaignRepository.updateStatus(campaignPk, CampaignStatus.RUNNING, null);
+    }
+
+    /**
+     * The remaining stations are not sent to. The batch in flight is cancelled as far as it was not sent yet, but its
+     * results are not collected anymore.
+     */
+    public synchronized void cancel(int campaignPk) {
+        ActiveCampaign c = getActive(campaignPk);
+        if (c.batch != null) {
+            c.batch.cancel();
+        }
+        activeCampaigns.remove(campaignPk);
+        campaignRepository.updateStatus(campaignPk, CampaignStatus.CANCELLED, null);
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private synchronized int start(CampaignOperation operation, OcppVersion version, Map<String, Object> map,
+                                   MultipleChargePointSelect params, CampaignSettings settings) {
+        String json;
+        try {
+            json = JsonObjectMapper.INSTANCE.getMapper().writeValueAsString(map);
+        } catch (IOException e) {
+            throw new SteveException("Failed to serialize the parameters of the campaign", e);
+        }
+
+        int campaignPk = campaignRepository.add(operation, version, json, settings, params.getChargePointSelectList());
+        activeCampaigns.put(campaignPk, new ActiveCampaign(campaignRepository.get(campaignPk)));
+
+        log.info("Started campaign {} for {} to {} stations", campaignPk, operation,
+                params.getChargePointSelectList().size());
+        return campaignPk;
+    }
+
+    private ActiveCampaign getActive(int campaignPk) {
+        ActiveCampaign c = activeCampaigns.get(campaignPk);
+        if (c == null) {
+            throw new SteveException("Campaign %s is not active", campaignPk);
+        }
+        return c;
+    }
+
+    private void tickSafely() {
+        if (activeCampaigns.isEmpty()) {
+            return;
+        }
+
+        try {
+            tick();
+        } catch (Exception e) {
+            // An exception would stop the subsequent executions of the schedule
+            log.error("Failed to process the campaigns", e);
+        }
+    }
+
+    private synchronized void tick() {
+        for (ActiveCampaign c : activeCampaigns.values()) {
+            try {
+                collect(c);
+                if (c.status == CampaignStatus.RUNNING) {
+                    advance(c);
+                }
+            } catch (Exception e) {
+                // One broken campaign must not stop the others
+                log.error("Failed to process campaign {}", c.campaignPk, e);
+            }
+        }
+    }
+
+    /**
+     * Stores the results of the batch in flight, if it is finished. Halts the campaign, if too many stations failed.
+     */
+    private void collect(ActiveCampaign c) {
+        if (c.batch == null || !c.batch.isFinished()) {
+            return;
+        }
+
+        // Even if storing the results fails, such that they are neither counted nor written again every tick
+        CommunicationTask<?, ?> batch = c.batch;
+        c.batch = null;
+        collect(c, batch);
+    }
+
+    /**
+     * A station succeeded only with the response that means success for the operation (e.g. Accepted). Everything
+     * else (e.g. Rejected, a CALL_ERROR, no response within the deadline) counts as a failure.
+     */
+    void collect(ActiveCampaign c, CommunicationTask<?, ?> batch) {
+        List<CampaignStation> stationResults = new ArrayList<>(batch.getResultMap().size());
+        for (Map.Entry<String, RequestResult> entry : batch.getResultMap().entrySet()) {
+            RequestResult r = entry.getValue();
+            CampaignStation.CampaignStationBuilder builder = CampaignStation.builder().chargeBoxId(entry.getKey());
+            if (r.getErrorMessage() == null && c.operation.isSuccess(r.getResponse())) {
+                c.succeededCount++;
+                builder.status(CampaignStationStatus.SUCCEEDED).result(r.getResponse());
+            } else {
+                c.failedCount++;
+                builder.status(CampaignStationStatus.FAILED)
+                       .result(r.getErrorMessage() != null ? r.getErrorMessage() : r.getResponse());
+            }
+            stationResults.add(builder.build());
+        }
+
+        try {
+            campaignRepository.updateStationResults(c.campaignPk, stationResults);
+        } catch (Exception e) {
+            // The stations stay SENT. They are counted nevertheless, such that the campaign halts if need be
+            log.error("Failed to store the results of a batch of campaign {}", c.campaignPk, e);
+        }
+
+        int total = c.succeededCount + c.failedCount;
+        if (c.status == CampaignStatus.RUNNING
+                && total >= c.batchSize
+                && c.failedCount * 100 > c.maxErrorPercentage * total) {
+            String reason = String.format("%d of %d stations failed", c.failedCount, total);
+            log.warn("Halting campaign {}: {}", c.campaignPk, reason);
+            c.status = CampaignStatus.HALTED;
+            campaignRepository.updateStatus(c.campaignPk, CampaignStatus.HALTED, reason);
+        }
+    }
+
+    /**
+     * Sends the next batch, if the previous one is finished and the rate allows it
+     */
+    private void advance(ActiveCampaign c) {
+        long now = System.nanoTime();
+        double elapsedSeconds = (now - c.lastRefill) / (double) TimeUnit.SECONDS.toNanos(1);
+        c.tokens = Math.min(c.batchSize, c.tokens + elapsedSeconds * c.stationsPerSecond);
+        c.lastRefill = now;
+
+        if (c.batch != null) {
+            return;
+        }
+
+        List<ChargePointSelect> stations = campaignRepository.getPendingStations(c.campaignPk, c.batchSize);
+        if (stations.isEmpty()) {
+            log.info("Campaign {} is finished", c.campaignPk);
+            activeCampaigns.remove(c.campaignPk);
+            campaignRepository.updateStatus(c.campaignPk, CampaignStatus.FINISHED, null);
+            return;
+        }
+
+        if (c.tokens < stations.size()) {
+            return;
+        }
+        c.tokens -= stations.size();
+
+        // Mark them before sending, such that a restart in between does not send to them again
+        List<String> chargeBoxIds = stations.stream()
+                                            .map(ChargePointSelect::getChargeBoxId)
+                                            .collect(Collectors.toList());
+        campaignRepository.updateStations(c.campaignPk, chargeBoxIds, CampaignStationStatus.SENT, null);
+
+        int taskId = dispatch(c, stations);
+        c.batch = taskStore.get(taskId);
+    }
+
+    private int dispatch(ActiveCampaign c, List<ChargePointSelect> stations) {
+        Map<String, Object> map = readParams(c.params);
+        switch (c.operation) {
+            case UPDATE_FIRMWARE:
+                return getClient(c.version).updateFirmware(toUpdateFirmwareParams(map, stations));
+
+            case CHANGE_CONFIGURATION:
+                return getClient(c.version).changeConfiguration(toChangeConfigurationParams(map, stations));
+
+            case SEND_LOCAL_LIST:
+                return ((ChargePointService15_Client) getClient(c.version))
+                        .sendLocalList(toSendLocalListParams(map, stations));
+
+            default:
+                throw new SteveException("Unknown operation %s", c.operation);
+        }
+    }
+
+    private ChargePointService12_Client getClient(OcppVersion version) {
+        switch (version) {
+            case V_12:
+                return client12;
+            case V_15:
+                return client15;
+            case V_16:
+                return client16;
+            default:
+                throw new SteveException("Unknown OCPP version %s", version);
+        }
+    }
+
+    private static Map<String, Object> readParams(String json) {
+        try {
+            return JsonObjectMapper.INSTANCE.getMapper().readValue(json, PARAMS_TYPE);
+        } catch (IOException e) {
+            throw new SteveException("Failed to deserialize the parameters of the campaign", e);
+        }
+    }
+
+    // A new params object per batch, since the task holds on to it
+
+    private static UpdateFirmwareParams toUpdateFirmwareParams(Map<String, Object> map,
+                                                               List<ChargePointSelect> stations) {
+        UpdateFirmwareParams params = new UpdateFirmwareParams();
+        params.setChargePointSelectList(stations);
+        params.setLocation((String) map.get("location"));
+        params.setRetries((Integer) map.get("retries"));
+        params.setRetryInterval((Integer) map.get("retryInterval"));
+        params.setRetrieve(LocalDateTime.parse((String) map.get("retrieve")));
+        return params;
+    }
+
+    private static ChangeConfigurationParams toChangeConfigurationParams(Map<String, Object> map,
+                                                                         List<ChargePointSelect> stations) {
+        ChangeConfigurationParams params = new ChangeConfigurationParams();
+        params.setChargePointSelectList(stations);
+        params.setConfKey((String) map.get("key"));
+        params.setValue((String) map.get("value"));
+        return params;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SendLocalListParams toSendLocalListParams(Map<String, Object> map,
+                                                             List<ChargePointSelect> stations) {
+        SendLocalListParams params = new SendLocalListParams();
+        params.setChargePointSelectList(stations);
+        params.setListVersion((Integer) map.get("listVersion"));
+        params.setUpdateType(SendLocalListUpdateType.valueOf((String) map.get("updateType")));
+        params.setAddUpdateList((List<String>) map.get("addUpdateList"));
+        params.setDeleteList((List<String>) map.get("deleteList"));
+        return params;
+    }
+
+    // -------------------------------------------------------------------------
+    // Classes
+    // -------------------------------------------------------------------------
+
+    /**
+     * Guarded by the lock of the service
+     */
+    static class ActiveCampaign {
+        private final int campaignPk;
+        private final CampaignOperation operation;
+        private final OcppVersion version;
+        private final String params;
+        private final double stationsPerSecond;
+        private final int batchSize;
+        private final int maxErrorPercentage;
+
+        private CampaignStatus status;
+
+        // Token bucket. Starts full, such that the first batch is sent right away
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+
+        // The batch in flight
+        @Nullable private CommunicationTask<?, ?> batch;
+
+        // Since the campaign was (re)started or resumed
+        private int succeededCount = 0;
+        private int failedCount = 0;
+
+        ActiveCampaign(Campaign c) {
+            this.campaignPk = c.getCampaignPk();
+            this.operation = c.getOperation();
+            this.version = c.getOcppVersion();
+            this.params = c.getParams();
+            this.stationsPerSecond = c.getStationsPerSecond();
+            this.batchSize = c.getBatchSize();
+            this.maxErrorPercentage = c.getMaxErrorPercentage();
+            this.status = c.getStatus();
+            this.tokens = c.getBatchSize();
+        }
+    }
+}
@@ -5,6 +5,7 @@ import de.rwth.idsg.steve.repository.ChargePointRepository;
 import de.rwth.idsg.steve.repository.OcppServerRepository;
 import de.rwth.idsg.steve.repository.SettingsRepository;
 import de.rwth.idsg.steve.repository.dto.InsertConnectorStatusParams;
+import de.rwth.idsg.steve.repository.dto.InsertMeterValuesParams;
 import de.rwth.idsg.steve.repository.dto.InsertTransactionParams;
 import de.rwth.idsg.steve.repository.dto.UpdateChargeboxParams;
 import de.rwth.idsg.steve.repository.dto.UpdateTransactionParams;
@@ -52,6 +53,7 @@ public class CentralSystemService16_Service {
     @Autowired private OcppTagService ocppTagService;
     @Autowired private NotificationService notificationService;
     @Autowired private ChargePointHelperService chargePointHelperService;
+    @Autowired private MeterValuesIngestService meterValuesIngestService;
 
     public BootNotificationResponse bootNotification(BootNotificationRequest parameters, String chargeBoxIdentity,
                                                      OcppProtocol ocppProtocol) {
@@ -125,8 +127,15 @@ public class CentralSystemService16_Service {
 
     public MeterValuesResponse meterValues(MeterValuesRequest parameters, String chargeBoxIdentity) {
         if (parameters.isSetMeterValue()) {
-            ocppServerRepository.insertMeterValues(chargeBoxIdentity, parameters.getMeterValue(),
-                                                   parameters.getConnectorId(), parameters.getTransactionId());
+            InsertMeterValuesParams params =
+                    InsertMeterValuesParams.builder()
+                                           .chargeBoxId(chargeBoxIdentity)
+                                           .connectorId(parameters.getConnectorId())
+                                           .transactionId(parameters.getTransactionId())
+                                           .meterValues(parameters.getMeterValue())
+                                           .build();
+
+            meterValuesIngestService.insertMeterValues(params);
         }
         return new MeterValuesResponse();
     }
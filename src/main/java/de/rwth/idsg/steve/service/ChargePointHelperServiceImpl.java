@@ -60,6 +60,15 @@ public class ChargePointHelperServiceImpl implements ChargePointHelperService {
 
     @Override
     public boolean isRegistered(String chargeBoxId) {
+        // Only the auto-registration of an unknown station has to be serialized, cache hits do not need the lock
+        Boolean cached = chargePointRepository.getCachedRegistration(chargeBoxId);
+        if (Boolean.TRUE.equals(cached)) {
+            return true;
+        } else if (Boolean.FALSE.equals(cached) && !autoRegisterUnknownStations) {
+            unknownChargePointService.processNewUnidentified(chargeBoxId);
+            return false;
+        }
+
         Lock l = isRegisteredLocks.get(chargeBoxId);
         l.lock();
         try {
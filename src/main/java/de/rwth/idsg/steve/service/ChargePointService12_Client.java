@@ -27,6 +27,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 
 /**
@@ -37,7 +38,9 @@ import java.util.concurrent.ScheduledExecutorService;
 @Qualifier("ChargePointService12_Client")
 public class ChargePointService12_Client {
 
-    @Autowired protected ScheduledExecutorService executorService;
+    @Autowired @Qualifier("operationExecutor") protected ExecutorService executorService;
+    @Autowired @Qualifier("fanOutExecutor") protected ExecutorService fanOutExecutorService;
+    @Autowired protected ScheduledExecutorService scheduledExecutorService;
     @Autowired protected TaskStore taskStore;
 
     @Autowired private ChargePointService12_InvokerImpl invoker12;
@@ -57,8 +60,8 @@ public class ChargePointService12_Client {
     public int changeAvailability(ChangeAvailabilityParams params) {
         ChangeAvailabilityTask task = new ChangeAvailabilityTask(getVersion(), params);
 
-        BackgroundService.with(executorService)
-                         .forEach(task.getParams().getChargePointSelectList())
+        BackgroundService.with(executorService, fanOutExecutorService, scheduledExecutorService)
+                         .forEach(task)
                          .execute(c -> getOcpp12Invoker().changeAvailability(c, task));
 
         return taskStore.add(task);
@@ -67,8 +70,8 @@ public class ChargePointService12_Client {
     public int changeConfiguration(ChangeConfigurationParams params) {
         ChangeConfigurationTask task = new ChangeConfigurationTask(getVersion(), params);
 
-        BackgroundService.with(executorService)
-                         .forEach(task.getParams().getChargePointSelectList())
+        BackgroundService.with(executorService, fanOutExecutorService, scheduledExecutorService)
+                         .forEach(task)
                          .execute(c -> getOcpp12Invoker().changeConfiguration(c, task));
 
         return taskStore.add(task);
@@ -77,8 +80,8 @@ public class ChargePointService12_Client {
     public int clearCache(MultipleChargePointSelect params) {
         ClearCacheTask task = new ClearCacheTask(getVersion(), params);
 
-        BackgroundService.with(executorService)
-                         .forEach(task.getParams().getChargePointSelectList())
+        BackgroundService.with(executorService, fanOutExecutorService, scheduledExecutorService)
+                         .forEach(task)
                          .execute(c -> getOcpp12Invoker().clearCache(c, task));
 
         return taskStore.add(task);
@@ -87,8 +90,8 @@ public class ChargePointService12_Client {
     public int getDiagnostics(GetDiagnosticsParams params) {
         GetDiagnosticsTask task = new GetDiagnosticsTask(getVersion(), params);
 
-        BackgroundService.with(executorService)
-                         .forEach(task.getParams().getChargePointSelectList())
+        BackgroundService.with(executorService, fanOutExecutorService, scheduledExecutorService)
+                         .forEach(task)
                          .execute(c -> getOcpp12Invoker().getDiagnostics(c, task));
 
         return taskStore.add(task);
@@ -97,8 +100,8 @@ public class ChargePointService12_Client {
     public int reset(ResetParams params) {
         ResetTask task = new ResetTask(getVersion(), params);
 
-        BackgroundService.with(executorService)
-                         .forEach(task.getParams().getChargePointSelectList())
+        BackgroundService.with(executorService, fanOutExecutorService, scheduledExecutorService)
+                         .forEach(task)
                          .execute(c -> getOcpp12Invoker().reset(c, task));
 
         return taskStore.add(task);
@@ -107,8 +110,8 @@ public class ChargePointService12_Client {
     public int updateFirmware(UpdateFirmwareParams params) {
         UpdateFirmwareTask task = new UpdateFirmwareTask(getVersion(), params);
 
-        BackgroundService.with(executorService)
-                         .forEach(task.getParams().getChargePointSelectList())
+        BackgroundService.with(executorService, fanOutExecutorService, scheduledExecutorService)
+                         .forEach(task)
                          .execute(c -> getOcpp12Invoker().updateFirmware(c, task));
 
         return taskStore.add(task);
@@ -121,8 +124,8 @@ public class ChargePointService12_Client {
     public int remoteStartTransaction(RemoteStartTransactionParams params) {
         RemoteStartTransactionTask task = new RemoteStartTransactionTask(getVersion(), params);
 
-        BackgroundService.with(executorService)
-                         .forFirst(task.getParams().getChargePointSelectList())
+        BackgroundService.with(executorService, fanOutExecutorService, scheduledExecutorService)
+                         .forFirst(task)
                          .execute(c -> getOcpp12Invoker().remoteStartTransaction(c, task));
 
         return taskStore.add(task);
@@ -131,8 +134,8 @@ public class ChargePointService12_Client {
     public int remoteStopTransaction(RemoteStopTransactionParams params) {
         RemoteStopTransactionTask task = new RemoteStopTransactionTask(getVersion(), params);
 
-        BackgroundService.with(executorService)
-                         .forFirst(task.getParams().getChargePointSelectList())
+        BackgroundService.with(executorService, fanOutExecutorService, scheduledExecutorService)
+                         .forFirst(task)
                          .execute(c -> getOcpp12Invoker().remoteStopTransaction(c, task));
 
         return taskStore.add(task);
@@ -141,8 +144,8 @@ public class ChargePointService12_Client {
     public int unlockConnector(UnlockConnectorParams params) {
         UnlockConnectorTask task = new UnlockConnectorTask(getVersion(), params);
 
-        BackgroundService.with(executorService)
-                         .forFirst(task.getParams().getChargePointSelectList())
+        BackgroundService.with(executorService, fanOutExecutorService, scheduledExecutorService)
+                         .forFirst(task)
                          .execute(c -> getOcpp12Invoker().unlockConnector(c, task));
 
         return taskStore.add(task);
@@ -64,8 +64,8 @@ public class ChargePointService16_Client extends ChargePointService15_Client {
     public int triggerMessage(TriggerMessageParams params) {
         TriggerMessageTask task = new TriggerMessageTask(getVersion(), params);
 
-        BackgroundService.with(executorService)
-                         .forEach(task.getParams().getChargePointSelectList())
+        BackgroundService.with(executorService, fanOutExecutorService, scheduledExecutorService)
+                         .forEach(task)
                          .execute(c -> getOcpp16Invoker().triggerMessage(c, task));
 
         return taskStore.add(task);
@@ -79,8 +79,8 @@ public class ChargePointService16_Client extends ChargePointService15_Client {
         EnhancedSetChargingProfileParams enhancedParams = new EnhancedSetChargingProfileParams(params, details);
         SetChargingProfileTask task = new SetChargingProfileTask(getVersion(), enhancedParams, chargingProfileRepository);
 
-        BackgroundService.with(executorService)
-                         .forEach(task.getParams().getChargePointSelectList())
+        BackgroundService.with(executorService, fanOutExecutorService, scheduledExecutorService)
+                         .forEach(task)
                          .execute(c -> getOcpp16Invoker().setChargingProfile(c, task));
 
         return taskStore.add(task);
@@ -89,8 +89,8 @@ public class ChargePointService16_Client extends ChargePointService15_Client {
     public int clearChargingProfile(ClearChargingProfileParams params) {
         ClearChargingProfileTask task = new ClearChargingProfileTask(getVersion(), params, chargingProfileRepository);
 
-        BackgroundService.with(executorService)
-                         .forEach(task.getParams().getChargePointSelectList())
+        BackgroundService.with(executorService, fanOutExecutorService, scheduledExecutorService)
+                         .forEach(task)
                          .execute(c -> getOcpp16Invoker().clearChargingProfile(c, task));
 
         return taskStore.add(task);
@@ -99,8 +99,8 @@ public class ChargePointService16_Client extends ChargePointService15_Client {
     public int getCompositeSchedule(GetCompositeScheduleParams params) {
         GetCompositeScheduleTask task = new GetCompositeScheduleTask(getVersion(), params);
 
-        BackgroundService.with(executorService)
-                         .forEach(task.getParams().getChargePointSelectList())
+        BackgroundService.with(executorService, fanOutExecutorService, scheduledExecutorService)
+                         .forEach(task)
                          .execute(c -> getOcpp16Invoker().getCompositeSchedule(c, task));
 
         return taskStore.add(task);
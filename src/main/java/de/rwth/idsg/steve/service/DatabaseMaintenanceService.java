@@ -0,0 +1,63 @@
+package de.rwth.idsg.steve.service;
+
+import de.rwth.idsg.steve.repository.ChargePointRepository;
+import de.rwth.idsg.steve.repository.TransactionRepository;
+import de.rwth.idsg.steve.repository.impl.ConnectorPkCache;
+import de.rwth.idsg.steve.repository.impl.MeterValueDescriptorCache;
+import de.rwth.idsg.steve.repository.impl.OcppTagActivityCache;
+import de.rwth.idsg.steve.repository.impl.PartitionManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Service;
+
+/**
+ * Repair routines for the data that the application maintains redundantly for performance reasons, and the
+ * maintenance of partitions. They are meant to be triggered by an administrator via JMX.
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+@Service
+@ManagedResource(objectName = "de.rwth.idsg.steve:type=DatabaseMaintenance",
+                 description = "Repair and maintenance routines for database tables")
+public class DatabaseMaintenanceService {
+
+    @Autowired private ChargePointRepository chargePointRepository;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private OcppTagActivityCache ocppTagActivityCache;
+    @Autowired private ConnectorPkCache connectorPkCache;
+    @Autowired private MeterValueDescriptorCache meterValueDescriptorCache;
+    @Autowired private PartitionManager partitionManager;
+
+    @ManagedOperation(description = "Rebuilds the table of active transactions from the transaction history")
+    public int rebuildActiveTransactions() {
+        int count = transactionRepository.rebuildActiveTransactions();
+        ocppTagActivityCache.invalidateAll();
+        log.info("Rebuilt the table of active transactions with {} entries", count);
+        return count;
+    }
+
+    @ManagedOperation(description = "Rebuilds the table of latest connector statuses from the connector status log")
+    public int rebuildConnectorStatusLatest() {
+        int count = chargePointRepository.rebuildConnectorStatusLatest();
+        log.info("Rebuilt the table of latest connector statuses with {} entries", count);
+        return count;
+    }
+
+    @ManagedOperation(description = "Creates upcoming and removes expired partitions of the meter value and connector"
+            + " status tables. This also runs once a day")
+    public int maintainPartitions() {
+        return partitionManager.maintain();
+    }
+
+    @ManagedOperation(description = "Reloads the cached connectors, meter value descriptors and tags. Needed after"
+            + " modifying these tables directly in the database")
+    public void reloadCaches() {
+        connectorPkCache.reload();
+        meterValueDescriptorCache.reload();
+        ocppTagActivityCache.invalidateAll();
+        log.info("Reloaded the caches");
+    }
+}
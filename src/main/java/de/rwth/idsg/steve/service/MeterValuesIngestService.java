@@ -0,0 +1,269 @@
+package de.rwth.idsg.steve.service;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import de.rwth.idsg.steve.SteveConfiguration;
+import de.rwth.idsg.steve.SteveException;
+import de.rwth.idsg.steve.repository.OcppServerRepository;
+import de.rwth.idsg.steve.repository.dto.InsertMeterValuesParams;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static de.rwth.idsg.steve.SteveConfiguration.CONFIG;
+
+/**
+ * Decouples the persistence of MeterValues messages from the threads that process the incoming OCPP messages.
+ *
+ * If enabled, the messages are put into a bounded queue and acknowledged right away. A pool of writer threads drains
+ * the queue and writes the messages of many stations in one go (see
+ * {@link OcppServerRepository#insertMeterValues(List)}). If disabled, every message is written in the calling thread
+ * as before.
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+@Service
+@ManagedResource(objectName = "de.rwth.idsg.steve:type=MeterValuesIngest",
+                 description = "Asynchronous ingest queue of MeterValues messages")
+public class MeterValuesIngestService {
+
+    private static final long POLL_TIMEOUT_IN_MILLIS = 500;
+
+    @Autowired private OcppServerRepository ocppServerRepository;
+
+    private final SteveConfiguration.DB config = CONFIG.getDb();
+
+    private BlockingQueue<InsertMeterValuesParams> queue;
+    private ExecutorService writers;
+    private volatile boolean running;
+
+    private final AtomicLong acceptedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong writtenInCallerCount = new AtomicLong();
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong flushTimeTotalInMillis = new AtomicLong();
+    private volatile long lastFlushLatencyInMillis;
+    private volatile long maxFlushLatencyInMillis;
+
+    @PostConstruct
+    public void init() {
+        if (!config.isMeterValuesAsync()) {
+            return;
+        }
+
+        queue = new ArrayBlockingQueue<>(config.getMeterValuesQueueCapacity());
+        running = true;
+
+        int threadCount = config.getMeterValuesWriterThreads();
+        writers = Executors.newFixedThreadPool(
+                threadCount,
+                new ThreadFactoryBuilder().setNameFormat("SteVe-MeterValues-Writer-%d").build()
+        );
+
+        for (int i = 0; i < threadCount; i++) {
+            writers.execute(this::writeLoop);
+        }
+
+        log.info("Asynchronous ingest of MeterValues is enabled (queue capacity: {}, writer threads: {})",
+                config.getMeterValuesQueueCapacity(), threadCount);
+    }
+
+    /**
+     * Stops accepting new messages and waits until the writers have written the remaining ones.
+     */
+    @PreDestroy
+    public void shutDown() {
+        if (writers == null) {
+            return;
+        }
+
+        running = false;
+        writers.shutdown();
+        try {
+            if (!writers.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Meter values writers did not finish in time, {} messages are lost", queue.size());
+            }
+        } catch (InterruptedException e) {
+            log.error("Termination interrupted", e);
+            Thread.currentThread().interrupt();
+        } finally {
+            writers.shutdownNow();
+        }
+    }
+
+    /**
+     * Never waits for space in the queue, since the caller is a thread that processes incoming messages (of possibly
+     * many stations). When the queue is full, the message is either rejected or written in the calling thread. After
+     * shutdown, it is always written in the calling thread.
+     */
+    public void insertMeterValues(InsertMeterValuesParams params) {
+        if (queue == null) {
+            writeInCaller(params);
+            return;
+        }
+
+        if (running && queue.offer(params)) {
+            // If shutDown() started after our check, the writers may have already found the queue empty and exited.
+            // Take the message back in that case, unless a writer has polled it meanwhile.
+            if (running || !queue.remove(params)) {
+                acceptedCount.incrementAndGet();
+                return;
+            }
+        } else if (running && config.isMeterValuesRejectWhenFull()) {
+            rejectedCount.incrementAndGet();
+            throw new SteveException("Meter values queue is full. Rejecting the message from '%s'",
+                    params.getChargeBoxId());
+        }
+
+        writeInCaller(params);
+        writtenInCallerCount.incrementAndGet();
+    }
+
+    // -------------------------------------------------------------------------
+    // Metrics
+    // -------------------------------------------------------------------------
+
+    @ManagedAttribute(description = "Number of messages waiting in the queue")
+    public int getQueueDepth() {
+        return (queue == null) ? 0 : queue.size();
+    }
+
+    @ManagedAttribute(description = "Number of messages that can be added before the queue is full")
+    public int getRemainingCapacity() {
+        return (queue == null) ? 0 : queue.remainingCapacity();
+    }
+
+    @ManagedAttribute
+    public long getAcceptedCount() {
+        return acceptedCount.get();
+    }
+
+    @ManagedAttribute(description = "Number of messages rejected because the queue was full")
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    @ManagedAttribute(description = "Number of messages written in the calling thread because the queue was full or "
+            + "shut down")
+    public long getWrittenInCallerCount() {
+        return writtenInCallerCount.get();
+    }
+
+    @ManagedAttribute
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    @ManagedAttribute(description = "Number of messages that could not be written to DB")
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    @ManagedAttribute
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    @ManagedAttribute
+    public long getLastFlushLatencyInMillis() {
+        return lastFlushLatencyInMillis;
+    }
+
+    @ManagedAttribute
+    public long getMaxFlushLatencyInMillis() {
+        return maxFlushLatencyInMillis;
+    }
+
+    @ManagedAttribute
+    public long getAverageFlushLatencyInMillis() {
+        long count = flushCount.get();
+        return (count == 0) ? 0 : flushTimeTotalInMillis.get() / count;
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private void writeInCaller(InsertMeterValuesParams params) {
+        ocppServerRepository.insertMeterValues(params.getChargeBoxId(), params.getMeterValues(),
+                params.getConnectorId(), params.getTransactionId());
+    }
+
+    /**
+     * Runs until shutdown. After shutdown is initiated, the loop continues until the queue is drained.
+     */
+    private void writeLoop() {
+        int batchSize = config.getMeterValuesBatchSize();
+        List<InsertMeterValuesParams> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                InsertMeterValuesParams first = queue.poll(POLL_TIMEOUT_IN_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+
+            } catch (InterruptedException e) {
+                log.warn("Meter values writer interrupted, {} messages are left in the queue", queue.size());
+                Thread.currentThread().interrupt();
+                return;
+
+            } catch (Exception e) {
+                log.error("Unexpected error in meter values writer", e);
+
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<InsertMeterValuesParams> batch) {
+        long start = System.currentTimeMillis();
+        try {
+            ocppServerRepository.insertMeterValues(batch);
+            writtenCount.addAndGet(batch.size());
+        } catch (Exception e) {
+            // A single bad message should not prevent the others from being written
+            log.warn("Failed to write a batch of {} meter value messages. Writing them one by one", batch.size(), e);
+            batch.forEach(this::writeSingle);
+        }
+
+        long latency = System.currentTimeMillis() - start;
+        flushCount.incrementAndGet();
+        flushTimeTotalInMillis.addAndGet(latency);
+        lastFlushLatencyInMillis = latency;
+        if (latency > maxFlushLatencyInMillis) {
+            maxFlushLatencyInMillis = latency;
+        }
+    }
+
+    private void writeSingle(InsertMeterValuesParams params) {
+        try {
+            ocppServerRepository.insertMeterValues(params.getChargeBoxId(), params.getMeterValues(),
+                    params.getConnectorId(), params.getTransactionId());
+            writtenCount.incrementAndGet();
+        } catch (Exception e) {
+            failedCount.incrementAndGet();
+            log.error("Failed to write meter values of '{}'", params.getChargeBoxId(), e);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import de.rwth.idsg.steve.SteveException;
 import de.rwth.idsg.steve.repository.OcppTagRepository;
 import de.rwth.idsg.steve.repository.SettingsRepository;
 import de.rwth.idsg.steve.repository.TransactionRepository;
+import de.rwth.idsg.steve.repository.impl.OcppTagActivityCache;
 import de.rwth.idsg.steve.service.dto.UnidentifiedIncomingObject;
 import jooq.steve.db.tables.records.OcppTagActivityRecord;
 import lombok.AccessLevel;
@@ -31,6 +32,7 @@ public class OcppTagServiceImpl implements OcppTagService {
     @Autowired private SettingsRepository settingsRepository;
     @Autowired private OcppTagRepository ocppTagRepository;
     @Autowired private TransactionRepository transactionRepository;
+    @Autowired private OcppTagActivityCache ocppTagActivityCache;
 
     private final UnidentifiedIncomingObjectService invalidOcppTagService = new UnidentifiedIncomingObjectService(1000);
 
@@ -63,7 +65,7 @@ public class OcppTagServiceImpl implements OcppTagService {
 
     @Override
     public IdTagInfo getIdTagInfo(String idTag, String askingChargeBoxId) {
-        OcppTagActivityRecord record = ocppTagRepository.getRecord(idTag);
+        OcppTagActivityRecord record = ocppTagActivityCache.get(idTag);
         AuthorizationStatus status = decideStatus(record, idTag, askingChargeBoxId);
 
         switch (status) {
@@ -125,7 +127,12 @@ public class OcppTagServiceImpl implements OcppTagService {
         // https://github.com/RWTH-i5-IDSG/steve/issues/73
         if (reachedLimitOfActiveTransactions(record)) {
             List<String> txChargeBoxIds = transactionRepository.getChargeBoxIdsOfActiveTransactions(idTag);
-            if (!txChargeBoxIds.contains(askingChargeBoxId)) {
+
+            // The cached count is only an approximation. Now that we know the actual transactions, correct it.
+            ocppTagActivityCache.setActiveTransactionCount(idTag, txChargeBoxIds.size());
+
+            if (txChargeBoxIds.size() >= record.getMaxActiveTransactionCount()
+                    && !txChargeBoxIds.contains(askingChargeBoxId)) {
                 log.warn("The user with idTag '{}' is ALREADY in another transaction(s).", idTag);
                 return AuthorizationStatus.CONCURRENT_TX;
             }
@@ -0,0 +1,205 @@
+package de.rwth.idsg.steve.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.rwth.idsg.steve.ocpp.CommunicationTask;
+import de.rwth.idsg.steve.ocpp.RequestResult;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Streams the progress of a task to the browser as server-sent events, such that the task page does not have to be
+ * reloaded (and all results rendered again) until the task is finished.
+ *
+ * The results of the stations are collected from the completion events of the task, and sent in one event every
+ * FLUSH_INTERVAL_IN_MILLIS. This way, neither the threads that set the results wait for the browser, nor does a
+ * broadcast to thousands of stations cause thousands of events. The first event contains the results so far.
+ *
+ * The schedule only hands the flushes off to their own executor, since sending blocks as long as the browser does not
+ * read. A slow browser must neither delay the other tasks on the shared scheduler, nor the other subscriptions.
+ *
+ * Events only say what the current result of a station is. They are idempotent, so the browser can simply reconnect
+ * (which it does after the timeout) and receive the results so far again.
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+@Service
+public class TaskEventService {
+
+    private static final String EVENT_NAME = "progress";
+    private static final long FLUSH_INTERVAL_IN_MILLIS = 500;
+    private static final long TIMEOUT_IN_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    @Autowired private ScheduledExecutorService executorService;
+    @Autowired @Qualifier("taskEventExecutor") private ExecutorService taskEventExecutor;
+
+    private final ObjectMapper objectMapper =
+            new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    public SseEmitter subscribe(CommunicationTask<?, ?> task) {
+        SseEmitter emitter = new SseEmitter(TIMEOUT_IN_MILLIS);
+        new Subscription(task, emitter).start();
+        return emitter;
+    }
+
+    // -------------------------------------------------------------------------
+    // Classes
+    // -------------------------------------------------------------------------
+
+    private class Subscription {
+        private final CommunicationTask<?, ?> task;
+        private final SseEmitter emitter;
+
+        // chargeBoxIds of the stations whose results are not sent yet. Might contain duplicates
+        private final ConcurrentLinkedQueue<String> pending = new ConcurrentLinkedQueue<>();
+        private final Consumer<String> listener = pending::add;
+
+        // Only accessed by the flush, which never runs concurrently with itself
+        private final Set<String> sent = new HashSet<>();
+        private final AtomicBoolean flushing = new AtomicBoolean(false);
+
+        private volatile ScheduledFuture<?> flushFuture;
+        private volatile boolean stopped = false;
+
+        private Subscription(CommunicationTask<?, ?> task, SseEmitter emitter) {
+            this.task = task;
+            this.emitter = emitter;
+        }
+
+        private void start() {
+            // Register before taking the snapshot, such that no result falls in between
+            task.addCompletionListener(listener);
+            for (Map.Entry<String, RequestResult> entry : task.getResultMap().entrySet()) {
+                if (hasResult(entry.getValue())) {
+                    pending.add(entry.getKey());
+                }
+            }
+
+            emitter.onCompletion(this::stop);
+            emitter.onTimeout(this::stop);
+            emitter.onError(e -> stop());
+
+            flushFuture = executorService.scheduleWithFixedDelay(this::submitFlush,
+                    FLUSH_INTERVAL_IN_MILLIS, FLUSH_INTERVAL_IN_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        private void stop() {
+            stopped = true;
+            task.removeCompletionListener(listener);
+            ScheduledFuture<?> future = flushFuture;
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+
+        private void submitFlush() {
+            // The previous flush might still wait for the browser
+            if (stopped || !flushing.compareAndSet(false, true)) {
+                return;
+            }
+
+            try {
+                taskEventExecutor.execute(this::flushSafely);
+            } catch (RejectedExecutionException e) {
+                // The pending results stay, the next interval tries again
+                flushing.set(false);
+            }
+        }
+
+        private void flushSafely() {
+            try {
+                if (!stopped) {
+                    flush();
+                }
+            } catch (Exception e) {
+                // Most likely, the browser went away
+                log.debug("Failed to send the progress of the task", e);
+                stop();
+                emitter.completeWithError(e);
+            } finally {
+                flushing.set(false);
+            }
+        }
+
+        private void flush() throws Exception {
+            boolean finished = task.isFinished();
+
+            List<StationResult> results = new ArrayList<>();
+            String chargeBoxId;
+            while ((chargeBoxId = pending.poll()) != null) {
+                addResult(results, chargeBoxId);
+            }
+
+            if (finished) {
+                // The listeners of the last results might still be running. All results are set, though
+                for (String id : task.getResultMap().keySet()) {
+                    addResult(results, id);
+                }
+            }
+
+            if (results.isEmpty() && !finished) {
+                return;
+            }
+
+            Progress progress = new Progress(task.getDispatchedCount().get(), task.getResponseCount().get(),
+                    task.getErrorCount().get(), finished, results);
+            emitter.send(SseEmitter.event()
+                                   .name(EVENT_NAME)
+                                   .data(objectMapper.writeValueAsString(progress)));
+
+            if (finished) {
+                stop();
+                emitter.complete();
+            }
+        }
+
+        private void addResult(List<StationResult> results, String chargeBoxId) {
+            if (sent.add(chargeBoxId)) {
+                RequestResult r = task.getResultMap().get(chargeBoxId);
+                results.add(new StationResult(chargeBoxId, r.getResponse(), r.getErrorMessage()));
+            }
+        }
+
+        private boolean hasResult(RequestResult r) {
+            return r.getResponse() != null || r.getErrorMessage() != null;
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class Progress {
+        private final int dispatchedCount;
+        private final int responseCount;
+        private final int errorCount;
+        private final boolean finished;
+        private final List<StationResult> results;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class StationResult {
+        private final String chargeBoxId;
+        private final String response;
+        private final String errorMessage;
+    }
+}
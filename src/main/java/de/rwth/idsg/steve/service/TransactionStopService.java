@@ -69,7 +69,7 @@ public class TransactionStopService {
         if (valuesExist) {
             TransactionDetails.MeterValues last = findLastMeterValue(intermediateValues);
             return TerminationValues.builder()
-                                    .stopValue(floatingStringToIntString(last.getValue()))
+                                    .stopValue(toIntString(last))
                                     .stopTimestamp(last.getValueTimestamp())
                                     .build();
         }
@@ -120,9 +120,10 @@ public class TransactionStopService {
 
         // convert kWh to Wh
         if (UnitOfMeasure.K_WH.value().equals(v.getUnit())) {
-            double kWhValue = Double.parseDouble(v.getValue());
+            double whValue = getNumericValue(v) * 1000;
             return TransactionDetails.MeterValues.builder()
-                                                 .value(Double.toString(kWhValue * 1000))
+                                                 .value(Double.toString(whValue))
+                                                 .numericValue(whValue)
                                                  .valueTimestamp(v.getValueTimestamp())
                                                  .readingContext(v.getReadingContext())
                                                  .format(v.getFormat())
@@ -136,9 +137,20 @@ public class TransactionStopService {
         }
     }
 
-    private static String floatingStringToIntString(String s) {
+    private static String toIntString(TransactionDetails.MeterValues v) {
         // meter values can be floating, whereas start/end values are int
-        return Integer.toString((int) Math.ceil(Double.parseDouble(s)));
+        return Integer.toString((int) Math.ceil(getNumericValue(v)));
+    }
+
+    /**
+     * The value is parsed when it is stored. Only fall back to parsing it here, if that failed.
+     */
+    private static double getNumericValue(TransactionDetails.MeterValues v) {
+        if (v.getNumericValue() != null) {
+            return v.getNumericValue();
+        } else {
+            return Double.parseDouble(v.getValue());
+        }
     }
 
     private static boolean isEnergyUnit(TransactionDetails.MeterValues v) {
@@ -0,0 +1,89 @@
+package de.rwth.idsg.steve.utils;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.jmx.export.naming.SelfNaming;
+
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A fixed-size thread pool with a bounded queue, which exposes its state via JMX (under its own name).
+ *
+ * When the queue is full, the task is handed to the given rejection policy. Every rejection is counted, regardless of
+ * what the policy does with the task.
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+@ManagedResource(description = "Thread pool with a bounded queue")
+public class MonitoredThreadPoolExecutor extends ThreadPoolExecutor implements SelfNaming {
+
+    private final String name;
+    private final int queueCapacity;
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    public MonitoredThreadPoolExecutor(String name, int poolSize, int queueCapacity,
+                                       RejectedExecutionHandler rejectionPolicy) {
+        super(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+              new ArrayBlockingQueue<>(queueCapacity),
+              new ThreadFactoryBuilder().setNameFormat("SteVe-" + name + "-%d").build());
+
+        this.name = name;
+        this.queueCapacity = queueCapacity;
+
+        super.setRejectedExecutionHandler((r, executor) -> {
+            rejectedCount.incrementAndGet();
+            rejectionPolicy.rejectedExecution(r, executor);
+        });
+    }
+
+    /**
+     * Rejection policy for tasks that can be lost without harm (e.g. because they are repeated anyway)
+     */
+    public static RejectedExecutionHandler discardAndLog() {
+        return (r, executor) -> log.warn("Discarded a task, since the queue of the executor is full");
+    }
+
+    @Override
+    public ObjectName getObjectName() throws MalformedObjectNameException {
+        return new ObjectName("de.rwth.idsg.steve:type=Executor,name=" + name);
+    }
+
+    @ManagedAttribute(description = "Number of threads in the pool")
+    public int getThreadCount() {
+        return getPoolSize();
+    }
+
+    @ManagedAttribute(description = "Number of threads that are executing tasks")
+    public int getActiveThreadCount() {
+        return getActiveCount();
+    }
+
+    @ManagedAttribute(description = "Number of tasks waiting in the queue")
+    public int getQueueSize() {
+        return getQueue().size();
+    }
+
+    @ManagedAttribute(description = "Maximum number of tasks waiting in the queue")
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    @ManagedAttribute(description = "Number of completed tasks")
+    public long getCompletedCount() {
+        return getCompletedTaskCount();
+    }
+
+    @ManagedAttribute(description = "Number of tasks that were rejected, because the queue was full")
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+}
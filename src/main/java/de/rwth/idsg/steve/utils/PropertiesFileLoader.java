@@ -111,6 +111,20 @@ public class PropertiesFileLoader {
         }
     }
 
+    // -------------------------------------------------------------------------
+    // Return fallback if not set
+    // -------------------------------------------------------------------------
+
+    public int getOptionalInt(String key, int fallback) {
+        Integer i = getOptionalInt(key);
+        return (i == null) ? fallback : i;
+    }
+
+    public boolean getOptionalBoolean(String key, boolean fallback) {
+        String s = getOptionalString(key);
+        return (s == null) ? fallback : Boolean.parseBoolean(s);
+    }
+
     // -------------------------------------------------------------------------
     // Private helpers
     // -------------------------------------------------------------------------
@@ -0,0 +1,74 @@
+package de.rwth.idsg.steve.web.controller;
+
+import de.rwth.idsg.steve.SteveException;
+import de.rwth.idsg.steve.repository.CampaignRepository;
+import de.rwth.idsg.steve.repository.dto.Campaign;
+import de.rwth.idsg.steve.service.CampaignService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+/**
+ * @since 18.10.2026
+ */
+@Controller
+@RequestMapping(value = "/manager/campaigns")
+public class CampaignsController {
+
+    @Autowired private CampaignRepository campaignRepository;
+    @Autowired private CampaignService campaignService;
+
+    // -------------------------------------------------------------------------
+    // Paths
+    // -------------------------------------------------------------------------
+
+    private static final String CAMPAIGN_PK_PATH = "/{campaignPk}";
+    private static final String PAUSE_PATH = CAMPAIGN_PK_PATH + "/pause";
+    private static final String RESUME_PATH = CAMPAIGN_PK_PATH + "/resume";
+    private static final String CANCEL_PATH = CAMPAIGN_PK_PATH + "/cancel";
+
+    private static final String REDIRECT_PATH = "redirect:/manager/campaigns/";
+
+    // -------------------------------------------------------------------------
+    // HTTP methods
+    // -------------------------------------------------------------------------
+
+    @RequestMapping(method = RequestMethod.GET)
+    public String getOverview(Model model) {
+        model.addAttribute("campaignList", campaignRepository.getOverview());
+        return "campaigns";
+    }
+
+    @RequestMapping(value = CAMPAIGN_PK_PATH, method = RequestMethod.GET)
+    public String getDetails(@PathVariable("campaignPk") int campaignPk, Model model) {
+        Campaign campaign = campaignRepository.get(campaignPk);
+        if (campaign == null) {
+            throw new SteveException("Campaign not found");
+        }
+
+        model.addAttribute("campaign", campaign);
+        model.addAttribute("stationList", campaignRepository.getStations(campaignPk));
+        return "campaignDetails";
+    }
+
+    @RequestMapping(value = PAUSE_PATH, method = RequestMethod.POST)
+    public String pause(@PathVariable("campaignPk") int campaignPk) {
+        campaignService.pause(campaignPk);
+        return REDIRECT_PATH + campaignPk;
+    }
+
+    @RequestMapping(value = RESUME_PATH, method = RequestMethod.POST)
+    public String resume(@PathVariable("campaignPk") int campaignPk) {
+        campaignService.resume(campaignPk);
+        return REDIRECT_PATH + campaignPk;
+    }
+
+    @RequestMapping(value = CANCEL_PATH, method = RequestMethod.POST)
+    public String cancel(@PathVariable("campaignPk") int campaignPk) {
+        campaignService.cancel(campaignPk);
+        return REDIRECT_PATH + campaignPk;
+    }
+}
@@ -1,8 +1,11 @@
 package de.rwth.idsg.steve.web.controller;
 
+import de.rwth.idsg.steve.ocpp.OcppVersion;
 import de.rwth.idsg.steve.repository.OcppTagRepository;
+import de.rwth.idsg.steve.service.CampaignService;
 import de.rwth.idsg.steve.service.ChargePointHelperService;
 import de.rwth.idsg.steve.service.ChargePointService12_Client;
+import de.rwth.idsg.steve.web.dto.CampaignSettings;
 import de.rwth.idsg.steve.web.dto.ocpp.ChangeAvailabilityParams;
 import de.rwth.idsg.steve.web.dto.ocpp.ChangeConfigurationParams;
 import de.rwth.idsg.steve.web.dto.ocpp.ConfigurationKeyEnum;
@@ -38,12 +41,17 @@ public class Ocpp12Controller {
 
     @Autowired protected ChargePointHelperService chargePointHelperService;
     @Autowired protected OcppTagRepository ocppTagRepository;
+    @Autowired protected CampaignService campaignService;
 
     @Autowired
     @Qualifier("ChargePointService12_Client")
     private ChargePointService12_Client client12;
 
     protected static final String PARAMS = "params";
+    protected static final String CAMPAIGN_SETTINGS = "campaignSettings";
+
+    // Name of the submit button that starts a campaign instead of a task
+    protected static final String CAMPAIGN = "campaign";
 
     // -------------------------------------------------------------------------
     // Paths
@@ -60,6 +68,7 @@ public class Ocpp12Controller {
     private static final String UPDATE_FIRM_PATH = "/UpdateFirmware";
 
     protected static final String REDIRECT_TASKS_PATH = "redirect:/manager/operations/tasks/";
+    protected static final String REDIRECT_CAMPAIGNS_PATH = "redirect:/manager/campaigns/";
 
     // -------------------------------------------------------------------------
     // Helpers
@@ -69,6 +78,10 @@ public class Ocpp12Controller {
         return client12;
     }
 
+    protected OcppVersion getVersion() {
+        return OcppVersion.V_12;
+    }
+
     protected void setCommonAttributes(Model model) {
         model.addAttribute("cpList", chargePointHelperService.getChargePointsV12());
         model.addAttribute("opVersion", "v1.2");
@@ -111,6 +124,7 @@ public class Ocpp12Controller {
     public String getChangeConf(Model model) {
         setCommonAttributes(model);
         model.addAttribute(PARAMS, new ChangeConfigurationParams());
+        model.addAttribute(CAMPAIGN_SETTINGS, new CampaignSettings());
         model.addAttribute("ocppConfKeys", getConfigurationKeys(RW));
         return getPrefix() + CHANGE_CONF_PATH;
     }
@@ -162,6 +176,7 @@ public class Ocpp12Controller {
     public String getUpdateFirm(Model model) {
         setCommonAttributes(model);
         model.addAttribute(PARAMS, new UpdateFirmwareParams());
+        model.addAttribute(CAMPAIGN_SETTINGS, new CampaignSettings());
         return getPrefix() + UPDATE_FIRM_PATH;
     }
 
@@ -184,12 +199,26 @@ public class Ocpp12Controller {
                                  BindingResult result, Model model) {
         if (result.hasErrors()) {
             setCommonAttributes(model);
+            model.addAttribute(CAMPAIGN_SETTINGS, new CampaignSettings());
             model.addAttribute("ocppConfKeys", getConfigurationKeys(RW));
             return getPrefix() + CHANGE_CONF_PATH;
         }
         return REDIRECT_TASKS_PATH + getClient12().changeConfiguration(params);
     }
 
+    @RequestMapping(value = CHANGE_CONF_PATH, method = RequestMethod.POST, params = CAMPAIGN)
+    public String postChangeConfCampaign(@Valid @ModelAttribute(PARAMS) ChangeConfigurationParams params,
+                                         BindingResult result,
+                                         @Valid @ModelAttribute(CAMPAIGN_SETTINGS) CampaignSettings settings,
+                                         BindingResult settingsResult, Model model) {
+        if (result.hasErrors() || settingsResult.hasErrors()) {
+            setCommonAttributes(model);
+            model.addAttribute("ocppConfKeys", getConfigurationKeys(RW));
+            return getPrefix() + CHANGE_CONF_PATH;
+        }
+        return REDIRECT_CAMPAIGNS_PATH + campaignService.start(getVersion(), params, settings);
+    }
+
     @RequestMapping(value = CLEAR_CACHE_PATH, method = RequestMethod.POST)
     public String postClearCache(@Valid @ModelAttribute(PARAMS) MultipleChargePointSelect params,
                                  BindingResult result, Model model) {
@@ -256,8 +285,21 @@ public class Ocpp12Controller {
                                  BindingResult result, Model model) {
         if (result.hasErrors()) {
             setCommonAttributes(model);
+            model.addAttribute(CAMPAIGN_SETTINGS, new CampaignSettings());
             return getPrefix() + UPDATE_FIRM_PATH;
         }
         return REDIRECT_TASKS_PATH + getClient12().updateFirmware(params);
     }
+
+    @RequestMapping(value = UPDATE_FIRM_PATH, method = RequestMethod.POST, params = CAMPAIGN)
+    public String postUpdateFirmCampaign(@Valid @ModelAttribute(PARAMS) UpdateFirmwareParams params,
+                                         BindingResult result,
+                                         @Valid @ModelAttribute(CAMPAIGN_SETTINGS) CampaignSettings settings,
+                                         BindingResult settingsResult, Model model) {
+        if (result.hasErrors() || settingsResult.hasErrors()) {
+            setCommonAttributes(model);
+            return getPrefix() + UPDATE_FIRM_PATH;
+        }
+        return REDIRECT_CAMPAIGNS_PATH + campaignService.start(getVersion(), params, settings);
+    }
 }
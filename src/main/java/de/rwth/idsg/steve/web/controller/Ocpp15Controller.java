@@ -1,7 +1,9 @@
 package de.rwth.idsg.steve.web.controller;
 
+import de.rwth.idsg.steve.ocpp.OcppVersion;
 import de.rwth.idsg.steve.service.ChargePointService12_Client;
 import de.rwth.idsg.steve.service.ChargePointService15_Client;
+import de.rwth.idsg.steve.web.dto.CampaignSettings;
 import de.rwth.idsg.steve.web.dto.ocpp.CancelReservationParams;
 import de.rwth.idsg.steve.web.dto.ocpp.ConfigurationKeyEnum;
 import de.rwth.idsg.steve.web.dto.ocpp.ConfigurationKeyReadWriteEnum;
@@ -60,6 +62,11 @@ public class Ocpp15Controller extends Ocpp12Controller {
         return client15;
     }
 
+    @Override
+    protected OcppVersion getVersion() {
+        return OcppVersion.V_15;
+    }
+
     @Override
     protected void setCommonAttributes(Model model) {
         model.addAttribute("cpList", chargePointHelperService.getChargePointsV15());
@@ -132,6 +139,7 @@ public class Ocpp15Controller extends Ocpp12Controller {
         setCommonAttributes(model);
         setAllUserIdTagList(model);
         model.addAttribute(PARAMS, new SendLocalListParams());
+        model.addAttribute(CAMPAIGN_SETTINGS, new CampaignSettings());
         return getPrefix() + SEND_LIST_PATH;
     }
 
@@ -197,8 +205,22 @@ public class Ocpp15Controller extends Ocpp12Controller {
         if (result.hasErrors()) {
             setCommonAttributes(model);
             setAllUserIdTagList(model);
+            model.addAttribute(CAMPAIGN_SETTINGS, new CampaignSettings());
             return getPrefix() + SEND_LIST_PATH;
         }
         return REDIRECT_TASKS_PATH + getClient15().sendLocalList(params);
     }
+
+    @RequestMapping(value = SEND_LIST_PATH, method = RequestMethod.POST, params = CAMPAIGN)
+    public String postSendListCampaign(@Valid @ModelAttribute(PARAMS) SendLocalListParams params,
+                                       BindingResult result,
+                                       @Valid @ModelAttribute(CAMPAIGN_SETTINGS) CampaignSettings settings,
+                                       BindingResult settingsResult, Model model) {
+        if (result.hasErrors() || settingsResult.hasErrors()) {
+            setCommonAttributes(model);
+            setAllUserIdTagList(model);
+            return getPrefix() + SEND_LIST_PATH;
+        }
+        return REDIRECT_CAMPAIGNS_PATH + campaignService.start(getVersion(), params, settings);
+    }
 }
@@ -1,9 +1,11 @@
 package de.rwth.idsg.steve.web.controller;
 
+import de.rwth.idsg.steve.ocpp.OcppVersion;
 import de.rwth.idsg.steve.repository.ChargingProfileRepository;
 import de.rwth.idsg.steve.service.ChargePointService12_Client;
 import de.rwth.idsg.steve.service.ChargePointService15_Client;
 import de.rwth.idsg.steve.service.ChargePointService16_Client;
+import de.rwth.idsg.steve.web.dto.CampaignSettings;
 import de.rwth.idsg.steve.web.dto.ocpp.ChangeConfigurationParams;
 import de.rwth.idsg.steve.web.dto.ocpp.ClearChargingProfileParams;
 import de.rwth.idsg.steve.web.dto.ocpp.ConfigurationKeyEnum;
@@ -69,6 +71,11 @@ public class Ocpp16Controller extends Ocpp15Controller {
         return client16;
     }
 
+    @Override
+    protected OcppVersion getVersion() {
+        return OcppVersion.V_16;
+    }
+
     @Override
     protected void setCommonAttributes(Model model) {
         model.addAttribute("cpList", chargePointHelperService.getChargePointsV16());
@@ -113,6 +120,7 @@ public class Ocpp16Controller extends Ocpp15Controller {
     public String getChangeConf(Model model) {
         setCommonAttributes(model);
         model.addAttribute(PARAMS, new ChangeConfigurationParams());
+        model.addAttribute(CAMPAIGN_SETTINGS, new CampaignSettings());
         model.addAttribute("ocppConfKeys", getConfigurationKeys(RW));
         return getPrefix() + CHANGE_CONF_PATH;
     }
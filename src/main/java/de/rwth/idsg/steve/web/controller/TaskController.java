@@ -6,13 +6,17 @@ import de.rwth.idsg.steve.ocpp.RequestResult;
 import de.rwth.idsg.steve.ocpp.task.GetCompositeScheduleTask;
 import de.rwth.idsg.steve.ocpp.task.GetConfigurationTask;
 import de.rwth.idsg.steve.repository.TaskStore;
+import de.rwth.idsg.steve.service.TaskEventService;
 import ocpp.cp._2015._10.GetCompositeScheduleResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * @author Sevket Goekay <goekay@dbis.rwth-aachen.de>
@@ -23,6 +27,9 @@ import org.springframework.web.bind.annotation.RequestMethod;
 public class TaskController {
 
     @Autowired private TaskStore taskStore;
+    @Autowired private TaskEventService taskEventService;
+
+    private static final int PAGE_SIZE = 100;
 
     // -------------------------------------------------------------------------
     // Paths
@@ -30,31 +37,56 @@ public class TaskController {
 
     private static final String TASK_ID_PATH = "/{taskId}";
     private static final String TASK_DETAILS_PATH = TASK_ID_PATH + "/details/{chargeBoxId}";
+    private static final String TASK_CANCEL_PATH = TASK_ID_PATH + "/cancel";
+    private static final String TASK_EVENTS_PATH = TASK_ID_PATH + "/events";
 
     // -------------------------------------------------------------------------
     // HTTP methods
     // -------------------------------------------------------------------------
 
     @RequestMapping(method = RequestMethod.GET)
-    public String getOverview(Model model) {
-        model.addAttribute("taskList", taskStore.getOverview());
+    public String getOverview(@RequestParam(value = "page", defaultValue = "1") int page, Model model) {
+        int pageCount = Math.max(1, (taskStore.getCount() + PAGE_SIZE - 1) / PAGE_SIZE);
+        page = Math.min(Math.max(1, page), pageCount);
+
+        model.addAttribute("taskList", taskStore.getOverview((page - 1) * PAGE_SIZE, PAGE_SIZE));
+        model.addAttribute("page", page);
+        model.addAttribute("pageCount", pageCount);
         return "tasks";
     }
 
     @RequestMapping(method = RequestMethod.POST)
     public String clearFinished(Model model) {
         taskStore.clearFinished();
-        return getOverview(model);
+        return getOverview(1, model);
     }
 
     @RequestMapping(value = TASK_ID_PATH, method = RequestMethod.GET)
     public String getTaskDetails(@PathVariable("taskId") Integer taskId, Model model) {
-        CommunicationTask r = taskStore.get(taskId);
         model.addAttribute("taskId", taskId);
-        model.addAttribute("task", r);
+        if (taskStore.contains(taskId)) {
+            model.addAttribute("task", taskStore.get(taskId));
+        } else {
+            // Evicted from memory, but maybe persisted
+            model.addAttribute("task", taskStore.getHistory(taskId));
+        }
         return "taskResult";
     }
 
+    /**
+     * Server-sent events with the progress of the task, until it is finished
+     */
+    @RequestMapping(value = TASK_EVENTS_PATH, method = RequestMethod.GET, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getTaskEvents(@PathVariable("taskId") Integer taskId) {
+        return taskEventService.subscribe(taskStore.get(taskId));
+    }
+
+    @RequestMapping(value = TASK_CANCEL_PATH, method = RequestMethod.POST)
+    public String cancel(@PathVariable("taskId") Integer taskId) {
+        taskStore.get(taskId).cancel();
+        return "redirect:/manager/operations/tasks/" + taskId;
+    }
+
     @RequestMapping(value = TASK_DETAILS_PATH, method = RequestMethod.GET)
     public String getDetailsForChargeBox(@PathVariable("taskId") Integer taskId,
                                          @PathVariable("chargeBoxId") String chargeBoxId,
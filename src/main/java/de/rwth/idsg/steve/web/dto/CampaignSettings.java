@@ -0,0 +1,32 @@
+package de.rwth.idsg.steve.web.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+
+/**
+ * How fast an operation is rolled out to the selected stations
+ *
+ * @since 18.10.2026
+ */
+@Getter
+@Setter
+public class CampaignSettings {
+
+    @NotNull(message = "Stations per second is required")
+    @Positive(message = "Stations per second must be positive")
+    private Double stationsPerSecond = 1.0;
+
+    @NotNull(message = "Batch size is required")
+    @Min(value = 1, message = "Batch size must be at least {value}")
+    private Integer batchSize = 10;
+
+    @NotNull(message = "Error percentage is required")
+    @Min(value = 0, message = "Error percentage must be at least {value}")
+    @Max(value = 100, message = "Error percentage must be at most {value}")
+    private Integer maxErrorPercentage = 20;
+}
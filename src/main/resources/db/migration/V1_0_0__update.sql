@@ -0,0 +1,36 @@
+START TRANSACTION;
+
+-- the open transactions, maintained by the application when a transaction starts/stops. this is only a small subset of
+-- all transactions, and therefore much cheaper to aggregate than the `transaction` view.
+CREATE TABLE active_transaction (
+  transaction_pk INT(10) UNSIGNED NOT NULL,
+  id_tag VARCHAR(255) NOT NULL,
+  PRIMARY KEY (transaction_pk),
+  KEY active_transaction_id_tag_idx (id_tag)
+);
+
+ALTER TABLE `active_transaction`
+ADD CONSTRAINT `FK_active_transaction_transaction_pk`
+FOREIGN KEY (`transaction_pk`) REFERENCES `transaction_start` (`transaction_pk`) ON DELETE CASCADE ON UPDATE NO ACTION;
+
+-- initial fill with existing data
+INSERT INTO `active_transaction` (transaction_pk, id_tag)
+SELECT t.transaction_pk, t.id_tag
+  FROM `transaction` t
+  WHERE t.stop_timestamp IS NULL AND t.stop_value IS NULL;
+
+-- recreate this view on top of the new table. columns stay the same to be transparent to java app
+CREATE OR REPLACE VIEW ocpp_tag_activity AS
+    SELECT
+      ocpp_tag.*,
+      COALESCE(tx_activity.active_transaction_count, 0) as 'active_transaction_count',
+      CASE WHEN (active_transaction_count > 0) THEN TRUE ELSE FALSE END AS 'in_transaction',
+      CASE WHEN (ocpp_tag.max_active_transaction_count = 0) THEN TRUE ELSE FALSE END AS 'blocked'
+    FROM ocpp_tag
+    LEFT JOIN
+    (SELECT id_tag, count(id_tag) as 'active_transaction_count'
+      FROM active_transaction
+      GROUP BY id_tag) tx_activity
+    ON ocpp_tag.id_tag = tx_activity.id_tag;
+
+COMMIT;
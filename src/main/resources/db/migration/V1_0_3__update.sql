@@ -0,0 +1,47 @@
+-- the descriptors of a sampled value are small enumerations of the OCPP schema, but were stored as six VARCHAR
+-- columns in every row of connector_meter_value. now, every distinct combination is stored once in
+-- meter_value_descriptor, and connector_meter_value only references it.
+--
+-- an empty string stands for an unset descriptor, since a unique key would not consider NULLs equal.
+CREATE TABLE meter_value_descriptor (
+  descriptor_pk INT(10) UNSIGNED NOT NULL AUTO_INCREMENT,
+  reading_context VARCHAR(100) NOT NULL DEFAULT '',
+  format VARCHAR(100) NOT NULL DEFAULT '',
+  measurand VARCHAR(100) NOT NULL DEFAULT '',
+  location VARCHAR(100) NOT NULL DEFAULT '',
+  unit VARCHAR(100) NOT NULL DEFAULT '',
+  phase VARCHAR(100) NOT NULL DEFAULT '',
+  PRIMARY KEY (descriptor_pk),
+  UNIQUE KEY meter_value_descriptor_uq (reading_context, format, measurand, location, unit, phase)
+);
+
+ALTER TABLE `connector_meter_value`
+  ADD COLUMN `descriptor_pk` INT(10) UNSIGNED NULL DEFAULT NULL AFTER `value`,
+  ADD COLUMN `numeric_value` DOUBLE NULL DEFAULT NULL AFTER `value`;
+
+-- initial fill with existing data
+INSERT IGNORE INTO `meter_value_descriptor` (reading_context, format, measurand, location, unit, phase)
+SELECT DISTINCT
+  COALESCE(reading_context, ''), COALESCE(format, ''), COALESCE(measurand, ''),
+  COALESCE(location, ''), COALESCE(unit, ''), COALESCE(phase, '')
+  FROM `connector_meter_value`;
+
+UPDATE `connector_meter_value` cmv
+  INNER JOIN `meter_value_descriptor` d
+    ON  d.reading_context = COALESCE(cmv.reading_context, '')
+    AND d.format = COALESCE(cmv.format, '')
+    AND d.measurand = COALESCE(cmv.measurand, '')
+    AND d.location = COALESCE(cmv.location, '')
+    AND d.unit = COALESCE(cmv.unit, '')
+    AND d.phase = COALESCE(cmv.phase, '')
+  SET cmv.descriptor_pk = d.descriptor_pk,
+      cmv.numeric_value = CASE WHEN cmv.value REGEXP '^[-+]?[0-9]*[.]?[0-9]+([eE][-+]?[0-9]+)?$' THEN cmv.value + 0 END;
+
+-- now that we moved the data, drop redundant columns
+ALTER TABLE `connector_meter_value`
+  DROP COLUMN `reading_context`,
+  DROP COLUMN `format`,
+  DROP COLUMN `measurand`,
+  DROP COLUMN `location`,
+  DROP COLUMN `unit`,
+  DROP COLUMN `phase`;
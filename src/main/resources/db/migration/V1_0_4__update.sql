@@ -0,0 +1,28 @@
+-- campaigns send an operation (e.g. UpdateFirmware) to many stations gradually. the progress of every station is
+-- stored, such that a campaign continues where it left off after a restart.
+CREATE TABLE campaign (
+  campaign_pk INT(10) UNSIGNED NOT NULL AUTO_INCREMENT,
+  operation VARCHAR(50) NOT NULL,
+  ocpp_version VARCHAR(10) NOT NULL,
+  params TEXT NOT NULL,
+  stations_per_second DOUBLE NOT NULL,
+  batch_size INT(10) UNSIGNED NOT NULL,
+  max_error_percentage INT(10) UNSIGNED NOT NULL,
+  status VARCHAR(20) NOT NULL,
+  status_reason VARCHAR(255) NULL DEFAULT NULL,
+  created_on TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+  PRIMARY KEY (campaign_pk)
+);
+
+CREATE TABLE campaign_station (
+  campaign_pk INT(10) UNSIGNED NOT NULL,
+  charge_box_id VARCHAR(255) NOT NULL,
+  ocpp_transport VARCHAR(10) NOT NULL,
+  endpoint_address VARCHAR(255) NULL DEFAULT NULL,
+  status VARCHAR(20) NOT NULL,
+  result TEXT NULL DEFAULT NULL,
+  status_timestamp TIMESTAMP(6) NULL DEFAULT NULL,
+  PRIMARY KEY (campaign_pk, charge_box_id),
+  KEY campaign_station_status_idx (campaign_pk, status),
+  CONSTRAINT FK_campaign_station_campaign_pk FOREIGN KEY (campaign_pk) REFERENCES campaign (campaign_pk) ON DELETE CASCADE
+);
@@ -0,0 +1,27 @@
+-- finished tasks of operations (if task.store.persist is enabled), such that their results can still be viewed after
+-- they were evicted from memory or after a restart. the task_id is assigned by the application.
+CREATE TABLE task_history (
+  task_id INT(10) UNSIGNED NOT NULL,
+  ocpp_version VARCHAR(10) NOT NULL,
+  operation_name VARCHAR(100) NOT NULL,
+  origin VARCHAR(20) NOT NULL,
+  caller VARCHAR(255) NULL DEFAULT NULL,
+  start_timestamp TIMESTAMP(6) NULL DEFAULT NULL,
+  end_timestamp TIMESTAMP(6) NULL DEFAULT NULL,
+  request_count INT(10) UNSIGNED NOT NULL,
+  dispatched_count INT(10) UNSIGNED NOT NULL,
+  response_count INT(10) UNSIGNED NOT NULL,
+  error_count INT(10) UNSIGNED NOT NULL,
+  PRIMARY KEY (task_id),
+  -- the task history is evicted by age (task.history.max.age)
+  KEY task_history_end_timestamp_idx (end_timestamp)
+);
+
+CREATE TABLE task_history_result (
+  task_id INT(10) UNSIGNED NOT NULL,
+  charge_box_id VARCHAR(255) NOT NULL,
+  response TEXT NULL DEFAULT NULL,
+  error_message TEXT NULL DEFAULT NULL,
+  PRIMARY KEY (task_id, charge_box_id),
+  CONSTRAINT FK_task_history_result_task_id FOREIGN KEY (task_id) REFERENCES task_history (task_id) ON DELETE CASCADE
+);
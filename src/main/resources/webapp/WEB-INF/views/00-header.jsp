@@ -47,6 +47,7 @@
                             <li><a href="${ctxPath}/manager/operations/v1.5">OCPP v1.5</a></li>
                             <li><a href="${ctxPath}/manager/operations/v1.6">OCPP v1.6</a></li>
                             <li><a href="${ctxPath}/manager/operations/tasks">Tasks</a></li>
+                            <li><a href="${ctxPath}/manager/campaigns">Campaigns</a></li>
                         </ul>
                     </li>
                     <li><a href="${ctxPath}/manager/settings">SETTINGS</a></li>
@@ -8,4 +8,13 @@
             </c:forEach>
         </ul>
     </div>
+</spring:hasBindErrors>
+<spring:hasBindErrors name="campaignSettings">
+    <div class="error">
+        <ul>
+            <c:forEach var="error" items="${errors.allErrors}">
+                <li>${error.defaultMessage}</li>
+            </c:forEach>
+        </ul>
+    </div>
 </spring:hasBindErrors>
\ No newline at end of file
@@ -0,0 +1,61 @@
+<%@ include file="00-header.jsp" %>
+<div class="content">
+<c:if test="${campaign.status.active}">
+    <script>
+        $(document).ready(
+                setTimeout(function(){
+                    window.location.reload(1);
+                }, 5000));
+    </script>
+    <div class="info"><b>Info:</b> This page automatically reloads every 5 seconds until the campaign is finished or cancelled.</div>
+    <c:choose>
+        <c:when test="${campaign.status eq 'RUNNING'}">
+            <form:form action="${ctxPath}/manager/campaigns/${campaign.campaignPk}/pause">
+                <input type="submit" value="Pause"/>
+            </form:form>
+        </c:when>
+        <c:otherwise>
+            <form:form action="${ctxPath}/manager/campaigns/${campaign.campaignPk}/resume">
+                <input type="submit" value="Resume"/>
+            </form:form>
+        </c:otherwise>
+    </c:choose>
+    <form:form action="${ctxPath}/manager/campaigns/${campaign.campaignPk}/cancel">
+        <input type="submit" value="Cancel"/>
+    </form:form>
+</c:if>
+    <center>
+        <table id='details' class='cpd'>
+            <thead><tr><th>Campaign Details</th><th></th></tr></thead>
+            <tr><td>Operation name</td><td>${campaign.ocppVersion.value} / ${campaign.operation}</td></tr>
+            <tr><td>Parameters</td><td>${campaign.params}</td></tr>
+            <tr><td>Created on</td><td>${campaign.createdOn}</td></tr>
+            <tr><td>Status</td><td>${campaign.status}</td></tr>
+            <tr><td>Status reason</td><td>${campaign.statusReason}</td></tr>
+            <tr><td>Charge points per second</td><td>${campaign.stationsPerSecond}</td></tr>
+            <tr><td>Batch size</td><td>${campaign.batchSize}</td></tr>
+            <tr><td>Max. error percentage</td><td>${campaign.maxErrorPercentage}</td></tr>
+            <tr><td># of charge points</td><td>${campaign.totalStationCount}</td></tr>
+            <tr><td># of pending</td><td>${campaign.getStationCount('PENDING')}</td></tr>
+            <tr><td># of sent</td><td>${campaign.getStationCount('SENT')}</td></tr>
+            <tr><td># of succeeded</td><td>${campaign.getStationCount('SUCCEEDED')}</td></tr>
+            <tr><td># of failed</td><td>${campaign.getStationCount('FAILED')}</td></tr>
+        </table>
+    </center>
+    <br>
+    <section><span>Charge Points</span></section>
+    <table class="res">
+        <thead><tr><th>ChargeBox ID</th><th>Status</th><th>Timestamp</th><th>Result</th></tr></thead>
+        <tbody>
+        <c:forEach items="${stationList}" var="station">
+            <tr>
+                <td>${station.chargeBoxId}</td>
+                <td>${station.status}</td>
+                <td>${station.statusTimestamp}</td>
+                <td>${station.result}</td>
+            </tr>
+        </c:forEach>
+        </tbody>
+    </table>
+</div>
+<%@ include file="00-footer.jsp" %>
\ No newline at end of file
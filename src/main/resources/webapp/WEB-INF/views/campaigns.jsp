@@ -0,0 +1,33 @@
+<%@ include file="00-header.jsp" %>
+<script type="text/javascript">
+    $(document).ready(function() {
+        <%@ include file="snippets/sortable.js" %>
+    });
+</script>
+<div class="content">
+    <section><span>
+        Campaigns <a class="tooltip" href="#"><img src="${ctxPath}/static/images/info.png" style="vertical-align:middle"><span>Campaigns are started from the operation pages of Update Firmware, Change Configuration and Send Local List. Click on Campaign IDs for detailed information.</span></a>
+    </span></section>
+    <table class="res">
+        <thead>
+            <tr>
+                <th data-sort="int">Campaign ID</th>
+                <th data-sort="string">Operation</th>
+                <th data-sort="date">Created On</th>
+                <th data-sort="string">Status</th>
+                <th>Succeeded / Failed / Charge Points</th>
+            </tr>
+        </thead>
+        <tbody>
+        <c:forEach items="${campaignList}" var="cp">
+            <tr><td><a href="${ctxPath}/manager/campaigns/${cp.campaignPk}">${cp.campaignPk}</a></td>
+                <td>${cp.ocppVersion.value} / ${cp.operation}</td>
+                <td data-sort-value="${cp.createdOn.millis}">${cp.createdOn}</td>
+                <td>${cp.status}</td>
+                <td>${cp.getStationCount('SUCCEEDED')} / ${cp.getStationCount('FAILED')} / ${cp.totalStationCount}</td>
+            </tr>
+        </c:forEach>
+        </tbody>
+    </table>
+</div>
+<%@ include file="00-footer.jsp" %>
\ No newline at end of file
@@ -0,0 +1,9 @@
+    </table>
+    <section><span>
+        Campaign <a class="tooltip" href="#"><img src="${ctxPath}/static/images/info.png" style="vertical-align:middle"><span>Instead of sending the request to all selected charge points at once, a campaign sends it in batches at the given rate. It halts automatically, when more than the given percentage of charge points fail.</span></a>
+    </span></section>
+    <table class="userInput">
+        <tr><td>Charge Points per Second:</td><td><input type="text" name="stationsPerSecond" value="${campaignSettings.stationsPerSecond}"/></td></tr>
+        <tr><td>Batch Size (integer):</td><td><input type="text" name="batchSize" value="${campaignSettings.batchSize}"/></td></tr>
+        <tr><td>Max. Error Percentage (integer):</td><td><input type="text" name="maxErrorPercentage" value="${campaignSettings.maxErrorPercentage}"/></td></tr>
+        <tr><td></td><td><div class="submit-button"><input type="submit" name="campaign" value="Start Campaign"></div></td></tr>
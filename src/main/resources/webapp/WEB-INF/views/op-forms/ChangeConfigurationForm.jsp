@@ -24,5 +24,6 @@
         </tr>
         <tr><td>Value:</td><td><form:input path="value" /></td></tr>
         <tr><td></td><td><div class="submit-button"><input type="submit" value="Perform"></div></td></tr>
+        <%@ include file="00-campaign-settings.jsp" %>
     </table>
 </form:form>
\ No newline at end of file
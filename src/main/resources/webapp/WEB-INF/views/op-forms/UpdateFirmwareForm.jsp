@@ -12,5 +12,6 @@
             </td>
         </tr>
         <tr><td></td><td><div class="submit-button"><input type="submit" value="Perform"></div></td></tr>
+        <%@ include file="00-campaign-settings.jsp" %>
     </table>
 </form:form>
\ No newline at end of file
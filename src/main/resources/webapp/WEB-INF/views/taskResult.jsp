@@ -2,12 +2,45 @@
 <div class="content">
 <c:if test="${not task.isFinished()}">
     <script>
-        $(document).ready(
-                setTimeout(function(){
+        $(document).ready(function() {
+            if (typeof(EventSource) === "undefined") {
+                setTimeout(function() {
                     window.location.reload(1);
-                }, 5000));
+                }, 5000);
+                return;
+            }
+
+            var rows = {};
+            $("#results tr[data-charge-box-id]").each(function() {
+                rows[$(this).attr("data-charge-box-id")] = $(this);
+            });
+
+            var source = new EventSource("${ctxPath}/manager/operations/tasks/${taskId}/events");
+            source.addEventListener("progress", function(event) {
+                var progress = JSON.parse(event.data);
+                $.each(progress.results, function(i, result) {
+                    var row = rows[result.chargeBoxId];
+                    if (row) {
+                        row.find(".result-response").text(result.response || "");
+                        row.find(".result-error").text(result.errorMessage || "");
+                    }
+                });
+                $("#dispatchedCount").text(progress.dispatchedCount);
+                $("#responseCount").text(progress.responseCount);
+                $("#errorCount").text(progress.errorCount);
+
+                if (progress.finished) {
+                    // Otherwise, the browser reconnects. The reload shows the details and the end timestamp
+                    source.close();
+                    window.location.reload(1);
+                }
+            });
+        });
     </script>
-    <div class="info"><b>Info:</b> This page automatically reloads every 5 seconds until the task is finished.</div>
+    <div class="info"><b>Info:</b> This page is updated automatically until the task is finished.</div>
+    <form:form action="${ctxPath}/manager/operations/tasks/${taskId}/cancel">
+        <input type="submit" value="Cancel"/>
+    </form:form>
 </c:if>
     <center>
         <table id='details' class='cpd'>
@@ -17,19 +50,20 @@
             <tr><td>Start timestamp</td><td>${task.startTimestamp}</td></tr>
             <tr><td>End timestamp</td><td>${task.endTimestamp}</td></tr>
             <tr><td># of charge point requests</td><td>${task.resultMap.size()}</td></tr>
-            <tr><td># of responses</td><td>${task.responseCount}</td></tr>
-            <tr><td># of errors</td><td>${task.errorCount}</td></tr>
+            <tr><td># of sent requests</td><td id="dispatchedCount">${task.dispatchedCount}</td></tr>
+            <tr><td># of responses</td><td id="responseCount">${task.responseCount}</td></tr>
+            <tr><td># of errors</td><td id="errorCount">${task.errorCount}</td></tr>
         </table>
     </center>
     <br>
     <section><span>Task Result</span></section>
-    <table class="res">
+    <table id="results" class="res">
         <thead><tr><th>ChargeBox ID</th><th>Response</th><th>Error</th></tr></thead>
         <tbody>
         <c:forEach items="${task.resultMap}" var="result">
-            <tr>
+            <tr data-charge-box-id="${result.key}">
                 <td>${result.key}</td>
-                <td>
+                <td class="result-response">
                     <c:choose>
                         <c:when test="${result.value.details == null}">
                             ${result.value.response}
@@ -39,7 +73,7 @@
                         </c:otherwise>
                     </c:choose>
                 </td>
-                <td>${result.value.errorMessage}</td>
+                <td class="result-error">${result.value.errorMessage}</td>
             </tr>
         </c:forEach>
         </tbody>
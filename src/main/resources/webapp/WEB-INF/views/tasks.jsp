@@ -33,5 +33,13 @@
         </c:forEach>
         </tbody>
     </table>
+    <br>
+    <c:if test="${page > 1}">
+        <a href="${ctxPath}/manager/operations/tasks?page=${page - 1}">&laquo; Newer</a>
+    </c:if>
+    Page ${page} of ${pageCount}
+    <c:if test="${page < pageCount}">
+        <a href="${ctxPath}/manager/operations/tasks?page=${page + 1}">Older &raquo;</a>
+    </c:if>
 </div>
 <%@ include file="00-footer.jsp" %>
\ No newline at end of file
@@ -0,0 +1,137 @@
+package de.rwth.idsg.steve;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.rwth.idsg.ocpp.jaxb.RequestType;
+import de.rwth.idsg.steve.ocpp.ws.JsonObjectMapper;
+import de.rwth.idsg.steve.ocpp.ws.data.CommunicationContext;
+import de.rwth.idsg.steve.ocpp.ws.ocpp16.Ocpp16TypeStore;
+import de.rwth.idsg.steve.ocpp.ws.pipeline.Deserializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the deserialization of incoming OCPP 1.6 calls by the {@link Deserializer}, which binds the payload directly
+ * from the stream, with the previous approach, which built a tree of the payload first and then converted the tree.
+ *
+ * Not a unit test. Run the main method, which also reports the allocation rate (gc.alloc.rate.norm = bytes per frame).
+ *
+ * The frames are synthetic, not captured from real stations. They are modelled after what a typical station sends
+ * (field order, number of sampled values), but the numbers only compare the two approaches with each other. To measure
+ * a particular fleet, replace them with frames from its logs.
+ *
+ * @since 18.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeserializerBenchmark {
+
+    /**
+     * Synthetic: A three-phase AC station, which reports voltage, current and power per phase, and the energy register,
+     * at four points in time
+     */
+    private static final String METER_VALUES = buildMeterValues();
+
+    private static final String STATUS_NOTIFICATION =
+            "[2,\"9f2c7d2e-6f0a-4b8e-9d3c-1c1f0b7a5e21\",\"StatusNotification\",{\"connectorId\":2,"
+                    + "\"errorCode\":\"NoError\",\"status\":\"Charging\",\"timestamp\":\"2026-10-18T09:41:12.000Z\","
+                    + "\"vendorId\":\"SteVe\"}]";
+
+    @Param({"MeterValues", "StatusNotification"})
+    private String frameName;
+
+    private String frame;
+    private Deserializer deserializer;
+    private ObjectMapper mapper;
+
+    @Setup
+    public void setup() {
+        frame = "MeterValues".equals(frameName) ? METER_VALUES : STATUS_NOTIFICATION;
+        // The store is only needed for incoming responses
+        deserializer = new Deserializer(null, Ocpp16TypeStore.INSTANCE);
+        mapper = JsonObjectMapper.INSTANCE.getMapper();
+    }
+
+    @Benchmark
+    public Object streaming() {
+        CommunicationContext context = new CommunicationContext(null, "benchmark");
+        context.setIncomingString(frame);
+        deserializer.accept(context);
+        return context.getIncomingMessage();
+    }
+
+    @Benchmark
+    public Object treeThenBind() throws IOException {
+        try (JsonParser parser = mapper.getFactory().createParser(frame)) {
+            parser.nextToken(); // '['
+            parser.nextToken(); // message type
+            parser.nextToken(); // message id
+            parser.nextToken(); // action
+            Class<? extends RequestType> clazz = Ocpp16TypeStore.INSTANCE.findRequestClass(parser.getText());
+
+            parser.nextToken();
+            JsonNode payload = parser.readValueAsTree();
+            return mapper.treeToValue(payload, clazz);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(DeserializerBenchmark.class.getSimpleName())
+                                       .addProfiler(GCProfiler.class)
+                                       .build())
+                .run();
+    }
+
+    private static String buildMeterValues() {
+        String[][] samples = {
+                {"Voltage", "V", "L1", "231.4"},
+                {"Voltage", "V", "L2", "229.8"},
+                {"Voltage", "V", "L3", "230.6"},
+                {"Current.Import", "A", "L1", "15.92"},
+                {"Current.Import", "A", "L2", "15.87"},
+                {"Current.Import", "A", "L3", "16.03"},
+                {"Power.Active.Import", "W", "L1", "3684.2"},
+                {"Power.Active.Import", "W", "L2", "3647.1"},
+                {"Power.Active.Import", "W", "L3", "3696.5"},
+        };
+
+        StringBuilder sb = new StringBuilder("[2,\"6b1d3f0a-2c4e-4f7b-8a9d-0e5c3b2a1f47\",\"MeterValues\",{")
+                .append("\"connectorId\":1,\"transactionId\":4711,\"meterValue\":[");
+
+        for (int minute = 0; minute < 4; minute++) {
+            if (minute > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"timestamp\":\"2026-10-18T09:4").append(minute).append(":00.000Z\",\"sampledValue\":[");
+            for (String[] s : samples) {
+                sb.append("{\"value\":\"").append(s[3]).append("\",\"context\":\"Sample.Periodic\",")
+                  .append("\"format\":\"Raw\",\"measurand\":\"").append(s[0]).append("\",\"phase\":\"")
+                  .append(s[2]).append("\",\"location\":\"Outlet\",\"unit\":\"").append(s[1]).append("\"},");
+            }
+            sb.append("{\"value\":\"").append(1_254_330 + minute * 183).append("\",\"context\":\"Sample.Periodic\",")
+              .append("\"format\":\"Raw\",\"measurand\":\"Energy.Active.Import.Register\",\"location\":\"Outlet\",")
+              .append("\"unit\":\"Wh\"}]}");
+        }
+        return sb.append("]}]").toString();
+    }
+}
@@ -3,6 +3,7 @@ package de.rwth.idsg.steve;
 import de.rwth.idsg.steve.ocpp.OcppVersion;
 import de.rwth.idsg.steve.utils.OcppJsonChargePoint;
 import de.rwth.idsg.steve.utils.StressTester;
+import lombok.extern.slf4j.Slf4j;
 import ocpp.cs._2015._10.AuthorizationStatus;
 import ocpp.cs._2015._10.AuthorizeRequest;
 import ocpp.cs._2015._10.AuthorizeResponse;
@@ -36,11 +37,15 @@ import static de.rwth.idsg.steve.utils.Helpers.getRandomStrings;
  * @author Sevket Goekay <goekay@dbis.rwth-aachen.de>
  * @since 09.05.2018
  */
+@Slf4j
 public class StressTestJsonOCPP16 extends StressTest {
 
     private static final String PATH = getJsonPath();
     private static final OcppVersion VERSION = OcppVersion.V_16;
 
+    // Summary of the last run of attackInternal()
+    protected String lastSummary;
+
     public static void main(String[] args) throws Exception {
         new StressTestJsonOCPP16().attack();
     }
@@ -183,6 +188,8 @@ public class StressTestJsonOCPP16 extends StressTest {
 
         StressTester tester = new StressTester(THREAD_COUNT, REPEAT_COUNT_PER_THREAD);
         tester.test(runnable);
+        lastSummary = tester.getSummary();
+        log.info("Result: {}", lastSummary);
         tester.shutDown();
     }
 }
@@ -0,0 +1,42 @@
+package de.rwth.idsg.steve;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.management.Attribute;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Runs the same attack as {@link StressTestJsonOCPP16} twice: first with incoming messages processed by the Jetty
+ * threads, then with incoming messages handed to the incoming executor (ws.incoming.offload). Both results are
+ * logged side by side at the end. Needs the MySQL database of the test profile.
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+public class StressTestJsonOCPP16Offload extends StressTestJsonOCPP16 {
+
+    public static void main(String[] args) throws Exception {
+        new StressTestJsonOCPP16Offload().attack();
+    }
+
+    @Override
+    protected void attackInternal() throws Exception {
+        Map<Boolean, String> summaries = new LinkedHashMap<>();
+        for (boolean offload : new boolean[] {false, true}) {
+            // The mode applies to the sessions that open afterwards. Every run opens its own sessions.
+            ManagementFactory.getPlatformMBeanServer().setAttribute(
+                    new ObjectName("de.rwth.idsg.steve:type=IncomingMessageDispatcher"),
+                    new Attribute("Offload", offload));
+
+            log.info("Attack with ws.incoming.offload = {}", offload);
+            super.attackInternal();
+            summaries.put(offload, lastSummary);
+        }
+
+        log.info("Comparison of the modes:");
+        summaries.forEach((offload, summary) -> log.info("  ws.incoming.offload = {}: {}", offload, summary));
+    }
+}
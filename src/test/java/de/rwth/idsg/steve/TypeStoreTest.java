@@ -1,19 +1,26 @@
 package de.rwth.idsg.steve;
 
+import com.google.common.reflect.ClassPath;
 import de.rwth.idsg.ocpp.jaxb.RequestType;
+import de.rwth.idsg.ocpp.jaxb.ResponseType;
 import de.rwth.idsg.steve.ocpp.ws.data.ActionResponsePair;
 import de.rwth.idsg.steve.ocpp.ws.ocpp12.Ocpp12TypeStore;
+import de.rwth.idsg.steve.ocpp.ws.ocpp12.Ocpp12TypeStoreMaps;
 import de.rwth.idsg.steve.ocpp.ws.ocpp15.Ocpp15TypeStore;
+import de.rwth.idsg.steve.ocpp.ws.ocpp15.Ocpp15TypeStoreMaps;
 import de.rwth.idsg.steve.ocpp.ws.ocpp16.Ocpp16TypeStore;
+import de.rwth.idsg.steve.ocpp.ws.ocpp16.Ocpp16TypeStoreMaps;
 import org.junit.Assert;
-import org.junit.Ignore;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * @author Sevket Goekay <goekay@dbis.rwth-aachen.de>
  * @since 10.03.2018
  */
-@Ignore
 public class TypeStoreTest {
 
     @Test
@@ -54,4 +61,85 @@ public class TypeStoreTest {
         Class<? extends RequestType> requestClass = typeStore.findRequestClass("BootNotification");
         Assert.assertSame(ocpp.cs._2015._10.BootNotificationRequest.class, requestClass);
     }
+
+    /**
+     * The maps are generated at build time. They must be equal to what the classpath scan (which the TypeStores did
+     * at startup before) finds.
+     */
+    @Test
+    public void ocpp12GeneratedMapsTest() throws IOException {
+        assertEqualToScan(Ocpp12TypeStoreMaps.REQUEST_CLASSES, Ocpp12TypeStoreMaps.ACTION_RESPONSES,
+                ocpp.cs._2010._08.ObjectFactory.class, ocpp.cp._2010._08.ObjectFactory.class);
+    }
+
+    @Test
+    public void ocpp15GeneratedMapsTest() throws IOException {
+        assertEqualToScan(Ocpp15TypeStoreMaps.REQUEST_CLASSES, Ocpp15TypeStoreMaps.ACTION_RESPONSES,
+                ocpp.cs._2012._06.ObjectFactory.class, ocpp.cp._2012._06.ObjectFactory.class);
+    }
+
+    @Test
+    public void ocpp16GeneratedMapsTest() throws IOException {
+        assertEqualToScan(Ocpp16TypeStoreMaps.REQUEST_CLASSES, Ocpp16TypeStoreMaps.ACTION_RESPONSES,
+                ocpp.cs._2015._10.ObjectFactory.class, ocpp.cp._2015._10.ObjectFactory.class);
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private static void assertEqualToScan(Map<String, Class<? extends RequestType>> requestClasses,
+                                          Map<Class<? extends RequestType>, ActionResponsePair> actionResponses,
+                                          Class<?> incomingPackageClass,
+                                          Class<?> outgoingPackageClass) throws IOException {
+        String incomingPackage = incomingPackageClass.getPackage().getName();
+        String outgoingPackage = outgoingPackageClass.getPackage().getName();
+
+        Map<String, Class<?>> scannedRequestClasses = new HashMap<>();
+        for (Class<?> clazz : scan(incomingPackage, RequestType.class).values()) {
+            scannedRequestClasses.put(getAction(clazz), clazz);
+        }
+        Assert.assertFalse(scannedRequestClasses.isEmpty());
+        Assert.assertEquals(scannedRequestClasses, new HashMap<>(requestClasses));
+
+        // ActionResponsePair does not implement equals
+        Map<Class<?>, String> scannedActions = new HashMap<>();
+        Map<Class<?>, Class<?>> scannedResponseClasses = new HashMap<>();
+        Map<String, Class<?>> responseClasses = scan(outgoingPackage, ResponseType.class);
+        for (Class<?> clazz : scan(outgoingPackage, RequestType.class).values()) {
+            String action = getAction(clazz);
+            scannedActions.put(clazz, action);
+            scannedResponseClasses.put(clazz, responseClasses.get(action + "Response"));
+        }
+
+        Map<Class<?>, String> generatedActions = new HashMap<>();
+        Map<Class<?>, Class<?>> generatedResponseClasses = new HashMap<>();
+        actionResponses.forEach((clazz, pair) -> {
+            generatedActions.put(clazz, pair.getAction());
+            generatedResponseClasses.put(clazz, pair.getResponseClass());
+        });
+
+        Assert.assertFalse(scannedActions.isEmpty());
+        Assert.assertEquals(scannedActions, generatedActions);
+        Assert.assertEquals(scannedResponseClasses, generatedResponseClasses);
+    }
+
+    /**
+     * @return <simple name of class, class>
+     */
+    private static Map<String, Class<?>> scan(String packageName, Class<?> interfaceClass) throws IOException {
+        Map<String, Class<?>> map = new HashMap<>();
+        for (ClassPath.ClassInfo classInfo : ClassPath.from(Thread.currentThread().getContextClassLoader())
+                                                      .getTopLevelClasses(packageName)) {
+            Class<?> clazz = classInfo.load();
+            if (interfaceClass.isAssignableFrom(clazz)) {
+                map.put(clazz.getSimpleName(), clazz);
+            }
+        }
+        return map;
+    }
+
+    private static String getAction(Class<?> clazz) {
+        return clazz.getSimpleName().replaceFirst("Request$", "");
+    }
 }
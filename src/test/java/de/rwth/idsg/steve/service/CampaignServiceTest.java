@@ -0,0 +1,248 @@
+package de.rwth.idsg.steve.service;
+
+import de.rwth.idsg.steve.ocpp.OcppTransport;
+import de.rwth.idsg.steve.ocpp.OcppVersion;
+import de.rwth.idsg.steve.ocpp.task.ChangeConfigurationTask;
+import de.rwth.idsg.steve.ocpp.ws.data.ErrorCode;
+import de.rwth.idsg.steve.ocpp.ws.data.OcppJsonError;
+import de.rwth.idsg.steve.repository.CampaignOperation;
+import de.rwth.idsg.steve.repository.CampaignRepository;
+import de.rwth.idsg.steve.repository.CampaignStationStatus;
+import de.rwth.idsg.steve.repository.CampaignStatus;
+import de.rwth.idsg.steve.repository.dto.Campaign;
+import de.rwth.idsg.steve.repository.dto.CampaignStation;
+import de.rwth.idsg.steve.repository.dto.ChargePointSelect;
+import de.rwth.idsg.steve.web.dto.CampaignSettings;
+import de.rwth.idsg.steve.web.dto.ocpp.ChangeConfigurationParams;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @since 18.10.2026
+ */
+public class CampaignServiceTest {
+
+    private static final int CAMPAIGN_PK = 1;
+
+    private CampaignService service;
+    private RecordingCampaignRepository repository;
+
+    @Before
+    public void init() {
+        repository = new RecordingCampaignRepository();
+        service = new CampaignService();
+        ReflectionTestUtils.setField(service, "campaignRepository", repository);
+    }
+
+    @Test
+    public void haltWhenTooManyStationsFail() {
+        CampaignService.ActiveCampaign c = newCampaign(4, 50);
+        ChangeConfigurationTask batch = newBatch("cp1", "cp2", "cp3", "cp4");
+
+        batch.addNewResponse("cp1", "Accepted");
+        batch.addNewResponse("cp2", "Rejected");
+        batch.defaultCallback().success("cp3", newCallError());
+        batch.addNewError("cp4", "No response within 120 seconds");
+
+        service.collect(c, batch);
+
+        Assert.assertEquals(CampaignStationStatus.SUCCEEDED, repository.stations.get("cp1"));
+        Assert.assertEquals(CampaignStationStatus.FAILED, repository.stations.get("cp2"));
+        Assert.assertEquals(CampaignStationStatus.FAILED, repository.stations.get("cp3"));
+        Assert.assertEquals(CampaignStationStatus.FAILED, repository.stations.get("cp4"));
+
+        Assert.assertEquals(CampaignStatus.HALTED, repository.status);
+        Assert.assertEquals("3 of 4 stations failed", repository.statusReason);
+    }
+
+    @Test
+    public void callErrorsAreNotSuccesses() {
+        CampaignService.ActiveCampaign c = newCampaign(2, 40);
+        ChangeConfigurationTask batch = newBatch("cp1", "cp2");
+
+        batch.defaultCallback().success("cp1", newCallError());
+        batch.addNewResponse("cp2", "Accepted");
+
+        service.collect(c, batch);
+
+        Assert.assertEquals(CampaignStationStatus.FAILED, repository.stations.get("cp1"));
+        Assert.assertEquals(CampaignStatus.HALTED, repository.status);
+    }
+
+    @Test
+    public void doNotHaltBelowThreshold() {
+        CampaignService.ActiveCampaign c = newCampaign(4, 50);
+        ChangeConfigurationTask batch = newBatch("cp1", "cp2", "cp3", "cp4");
+
+        batch.addNewResponse("cp1", "Accepted");
+        batch.addNewResponse("cp2", "Accepted");
+        batch.addNewResponse("cp3", "Accepted");
+        batch.addNewResponse("cp4", "NotSupported");
+
+        service.collect(c, batch);
+
+        Assert.assertEquals(CampaignStationStatus.FAILED, repository.stations.get("cp4"));
+        Assert.assertNull(repository.status);
+    }
+
+    @Test
+    public void rebootRequiredIsSuccess() {
+        CampaignService.ActiveCampaign c = newCampaign(2, 0);
+        ChangeConfigurationTask batch = newBatch("cp1", "cp2");
+
+        batch.addNewResponse("cp1", "Accepted");
+        batch.addNewResponse("cp2", "RebootRequired");
+
+        service.collect(c, batch);
+
+        Assert.assertEquals(CampaignStationStatus.SUCCEEDED, repository.stations.get("cp1"));
+        Assert.assertEquals(CampaignStationStatus.SUCCEEDED, repository.stations.get("cp2"));
+        Assert.assertNull(repository.status);
+    }
+
+    @Test
+    public void doNotHaltBeforeOneBatchOfResults() {
+        CampaignService.ActiveCampaign c = newCampaign(4, 50);
+        ChangeConfigurationTask batch = newBatch("cp1", "cp2");
+
+        batch.addNewResponse("cp1", "Rejected");
+        batch.addNewResponse("cp2", "Rejected");
+
+        service.collect(c, batch);
+        Assert.assertNull(repository.status);
+
+        // The failures add up over the batches
+        ChangeConfigurationTask next = newBatch("cp3", "cp4");
+        next.addNewResponse("cp3", "Accepted");
+        next.addNewResponse("cp4", "Rejected");
+
+        service.collect(c, next);
+        Assert.assertEquals(CampaignStatus.HALTED, repository.status);
+    }
+
+    @Test
+    public void haltEvenIfTheResultsCannotBeStored() {
+        repository.failResultWrites = true;
+
+        CampaignService.ActiveCampaign c = newCampaign(2, 0);
+        ChangeConfigurationTask batch = newBatch("cp1", "cp2");
+
+        batch.addNewResponse("cp1", "Accepted");
+        batch.addNewResponse("cp2", "Rejected");
+
+        service.collect(c, batch);
+
+        Assert.assertTrue(repository.stations.isEmpty());
+        Assert.assertEquals(CampaignStatus.HALTED, repository.status);
+        Assert.assertEquals("1 of 2 stations failed", repository.statusReason);
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private static CampaignService.ActiveCampaign newCampaign(int batchSize, int maxErrorPercentage) {
+        return new CampaignService.ActiveCampaign(Campaign.builder()
+                                                          .campaignPk(CAMPAIGN_PK)
+                                                          .operation(CampaignOperation.CHANGE_CONFIGURATION)
+                                                          .ocppVersion(OcppVersion.V_16)
+                                                          .params("{}")
+                                                          .stationsPerSecond(1)
+                                                          .batchSize(batchSize)
+                                                          .maxErrorPercentage(maxErrorPercentage)
+                                                          .status(CampaignStatus.RUNNING)
+                                                          .stationCounts(Collections.emptyMap())
+                                                          .build());
+    }
+
+    private static ChangeConfigurationTask newBatch(String... chargeBoxIds) {
+        List<ChargePointSelect> list = new ArrayList<>();
+        for (String chargeBoxId : chargeBoxIds) {
+            list.add(new ChargePointSelect(OcppTransport.JSON, chargeBoxId));
+        }
+
+        ChangeConfigurationParams params = new ChangeConfigurationParams();
+        params.setChargePointSelectList(list);
+        return new ChangeConfigurationTask(OcppVersion.V_16, params);
+    }
+
+    private static OcppJsonError newCallError() {
+        OcppJsonError error = new OcppJsonError();
+        error.setErrorCode(ErrorCode.NotImplemented);
+        error.setErrorDescription("Unknown action");
+        return error;
+    }
+
+    /**
+     * Only records what collect() writes
+     */
+    private static class RecordingCampaignRepository implements CampaignRepository {
+        private final Map<String, CampaignStationStatus> stations = new HashMap<>();
+        private CampaignStatus status;
+        private String statusReason;
+        private boolean failResultWrites = false;
+
+        @Override
+        public void updateStatus(int campaignPk, CampaignStatus status, String reason) {
+            this.status = status;
+            this.statusReason = reason;
+        }
+
+        @Override
+        public void updateStationResults(int campaignPk, List<CampaignStation> results) {
+            if (failResultWrites) {
+                throw new IllegalStateException("Data too long for column 'result'");
+            }
+            for (CampaignStation r : results) {
+                stations.put(r.getChargeBoxId(), r.getStatus());
+            }
+        }
+
+        @Override
+        public void updateStations(int campaignPk, List<String> chargeBoxIds, CampaignStationStatus status,
+                                   String result) {
+            for (String chargeBoxId : chargeBoxIds) {
+                stations.put(chargeBoxId, status);
+            }
+        }
+
+        @Override
+        public int add(CampaignOperation operation, OcppVersion version, String params, CampaignSettings settings,
+                       List<ChargePointSelect> stations) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Campaign> getOverview() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Campaign get(int campaignPk) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Campaign> getActive() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<CampaignStation> getStations(int campaignPk) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<ChargePointSelect> getPendingStations(int campaignPk, int limit) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package de.rwth.idsg.steve.utils;
 
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Sevket Goekay <goekay@dbis.rwth-aachen.de>
@@ -14,6 +16,10 @@ public class StressTester {
     private final int perThreadRepeatCount;
     private final ExecutorService executorService;
 
+    // Duration of every repetition in nanos
+    private final ConcurrentLinkedQueue<Long> durations = new ConcurrentLinkedQueue<>();
+    private long totalNanos;
+
     public StressTester(int threadCount, int perThreadRepeatCount) {
         this.threadCount = threadCount;
         this.perThreadRepeatCount = perThreadRepeatCount;
@@ -22,13 +28,17 @@ public class StressTester {
 
     public void test(StressTester.Runnable runnable) throws InterruptedException {
         final CountDownLatch doneSignal = new CountDownLatch(threadCount);
+        durations.clear();
+        long start = System.nanoTime();
 
         for (int i = 0; i < threadCount; i++) {
             executorService.execute(() -> {
                 try {
                     runnable.beforeRepeat();
                     for (int j = 0; j < perThreadRepeatCount; j++) {
+                        long repeatStart = System.nanoTime();
                         runnable.toRepeat();
+                        durations.add(System.nanoTime() - repeatStart);
                     }
                     runnable.afterRepeat();
                 } finally {
@@ -38,12 +48,33 @@ public class StressTester {
         }
 
         doneSignal.await();
+        totalNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * @return throughput and latency percentiles of the repetitions of the last test
+     */
+    public String getSummary() {
+        long[] sorted = durations.stream().mapToLong(Long::longValue).sorted().toArray();
+        if (sorted.length == 0) {
+            return "No repetitions";
+        }
+
+        double seconds = totalNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        return String.format("repetitions=%d, throughput=%.1f/s, p50=%dms, p99=%dms, max=%dms",
+                sorted.length, sorted.length / seconds, percentileMillis(sorted, 50), percentileMillis(sorted, 99),
+                TimeUnit.NANOSECONDS.toMillis(sorted[sorted.length - 1]));
     }
 
     public void shutDown() {
         executorService.shutdown();
     }
 
+    private static long percentileMillis(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return TimeUnit.NANOSECONDS.toMillis(sorted[Math.max(index, 0)]);
+    }
+
     public interface Runnable {
         void beforeRepeat();
         void toRepeat();
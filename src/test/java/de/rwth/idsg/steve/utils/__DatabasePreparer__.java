@@ -10,6 +10,9 @@ import de.rwth.idsg.steve.repository.dto.Transaction;
 import de.rwth.idsg.steve.repository.dto.TransactionDetails;
 import de.rwth.idsg.steve.repository.impl.AddressRepositoryImpl;
 import de.rwth.idsg.steve.repository.impl.ChargePointRepositoryImpl;
+import de.rwth.idsg.steve.repository.impl.ConnectorPkCache;
+import de.rwth.idsg.steve.repository.impl.HeartbeatCoalescer;
+import de.rwth.idsg.steve.repository.impl.OcppTagActivityCache;
 import de.rwth.idsg.steve.repository.impl.OcppTagRepositoryImpl;
 import de.rwth.idsg.steve.repository.impl.ReservationRepositoryImpl;
 import de.rwth.idsg.steve.repository.impl.TransactionRepositoryImpl;
@@ -27,6 +30,10 @@ import org.jooq.Schema;
 import org.jooq.Table;
 import org.jooq.impl.DSL;
 
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -61,6 +68,7 @@ public class __DatabasePreparer__ {
             insertChargeBox(ctx);
             insertOcppIdTag(ctx);
         });
+        reloadCaches();
     }
 
     public static int makeReservation(int connectorId) {
@@ -78,6 +86,7 @@ public class __DatabasePreparer__ {
 
     public static void cleanUp() {
         runOperation(__DatabasePreparer__::truncateTables);
+        reloadCaches();
     }
 
     public static String getRegisteredChargeBoxId() {
@@ -102,7 +111,8 @@ public class __DatabasePreparer__ {
     }
 
     public static List<ConnectorStatus> getChargePointConnectorStatus() {
-        ChargePointRepositoryImpl impl = new ChargePointRepositoryImpl(dslContext, new AddressRepositoryImpl());
+        ChargePointRepositoryImpl impl = new ChargePointRepositoryImpl(dslContext, new AddressRepositoryImpl(),
+                new HeartbeatCoalescer(), new ConnectorPkCache());
         return impl.getChargePointConnectorStatus();
     }
 
@@ -112,12 +122,13 @@ public class __DatabasePreparer__ {
     }
 
     public static OcppTagActivityRecord getOcppTagRecord(String idTag) {
-        OcppTagRepositoryImpl impl = new OcppTagRepositoryImpl(dslContext);
+        OcppTagRepositoryImpl impl = new OcppTagRepositoryImpl(dslContext, new OcppTagActivityCache());
         return impl.getRecord(idTag);
     }
 
     public static ChargePoint.Details getCBDetails(String chargeboxID) {
-        ChargePointRepositoryImpl impl = new ChargePointRepositoryImpl(dslContext, new AddressRepositoryImpl());
+        ChargePointRepositoryImpl impl = new ChargePointRepositoryImpl(dslContext, new AddressRepositoryImpl(),
+                new HeartbeatCoalescer(), new ConnectorPkCache());
         Map<String, Integer> pkMap = impl.getChargeBoxIdPkPair(Arrays.asList(chargeboxID));
         int pk = pkMap.get(chargeboxID);
         return impl.getDetails(pk);
@@ -127,6 +138,21 @@ public class __DatabasePreparer__ {
         consumer.accept(dslContext);
     }
 
+    /**
+     * The running application (if any) caches the rows of some tables, which we just truncated
+     */
+    private static void reloadCaches() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("de.rwth.idsg.steve:type=DatabaseMaintenance");
+            if (server.isRegistered(name)) {
+                server.invoke(name, "reloadCaches", null, null);
+            }
+        } catch (JMException e) {
+            throw new RuntimeException("Could not reload the caches of the application", e);
+        }
+    }
+
     private static void truncateTables(DSLContext ctx) {
         Set<Table<?>> skipList = Sets.newHashSet(
                 SchemaVersion.SCHEMA_VERSION,